@@ -26,6 +26,20 @@ public class CosmosConfiguration implements AutoloadedConfigurations {
     public static final String NAMESPACE = "liquibase.cosmosdb";
 
     public static final ConfigurationDefinition<Boolean> INFER_PARTITION_KEY_KIND;
+    public static final ConfigurationDefinition<Boolean> BULK_ENABLED;
+    public static final ConfigurationDefinition<Integer> BULK_BATCH_SIZE;
+    public static final ConfigurationDefinition<Integer> BULK_MAX_RETRIES;
+    public static final ConfigurationDefinition<Integer> BULK_MAX_CONCURRENCY;
+    public static final ConfigurationDefinition<Integer> QUERY_PARALLELISM;
+    public static final ConfigurationDefinition<Integer> PROGRESS_CHECKPOINT_SECONDS;
+    public static final ConfigurationDefinition<Integer> THROUGHPUT_BUDGET_PERCENT;
+    public static final ConfigurationDefinition<String> THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER;
+    public static final ConfigurationDefinition<Integer> LOCK_LEASE_SECONDS;
+    public static final ConfigurationDefinition<String> LOCK_WAIT_STRATEGY;
+    public static final ConfigurationDefinition<Integer> ASYNC_MAX_CONCURRENCY;
+    public static final ConfigurationDefinition<Boolean> WARM_UP_ENABLED;
+    public static final ConfigurationDefinition<String> WARM_UP_CONTAINERS;
+    public static final ConfigurationDefinition<Boolean> CLIENT_CACHE_ENABLED;
 
     static {
         INFER_PARTITION_KEY_KIND = new ConfigurationDefinition.Builder(NAMESPACE)
@@ -36,5 +50,107 @@ public class CosmosConfiguration implements AutoloadedConfigurations {
                         + "emulator, which leaves a missing kind null and otherwise faults on later interactions.")
                 .setDefaultValue(Boolean.FALSE)
                 .build();
+
+        BULK_ENABLED = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("bulkEnabled", Boolean.class)
+                .setDescription("Default for the bulk attribute of item changes that support the Cosmos bulk API. "
+                        + "When true, matched items are written in batches instead of one request per item.")
+                .setDefaultValue(Boolean.FALSE)
+                .build();
+
+        BULK_BATCH_SIZE = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("bulkBatchSize", Integer.class)
+                .setDescription("Default for the batchSize attribute of bulk item changes: the maximum number of "
+                        + "operations in flight in a single bulk submission.")
+                .setDefaultValue(100)
+                .build();
+
+        BULK_MAX_RETRIES = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("bulkMaxRetries", Integer.class)
+                .setDescription("How many times a bulk operation throttled by the service (HTTP 429) is resubmitted "
+                        + "before it is counted as failed.")
+                .setDefaultValue(10)
+                .build();
+
+        BULK_MAX_CONCURRENCY = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("bulkMaxConcurrency", Integer.class)
+                .setDescription("Default for the maxConcurrency attribute of bulk item changes: how many bulk "
+                        + "batches are written in parallel while the next query page is being read.")
+                .setDefaultValue(4)
+                .build();
+
+        QUERY_PARALLELISM = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("queryParallelism", Integer.class)
+                .setDescription("Default for the parallelism attribute of updateEachItem, deleteEachItem and "
+                        + "exportItems: how many feed ranges of the container are queried and processed at a time.")
+                .setDefaultValue(1)
+                .build();
+
+        PROGRESS_CHECKPOINT_SECONDS = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("progressCheckpointSeconds", Integer.class)
+                .setDescription("How often updateEachItem and deleteEachItem persist their query progress to the "
+                        + "changelog container, so that a changeSet that failed halfway resumes where it stopped. "
+                        + "0 disables resuming.")
+                .setDefaultValue(30)
+                .build();
+
+        THROUGHPUT_BUDGET_PERCENT = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("throughputBudgetPercent", Integer.class)
+                .setDescription("Share of the provisioned RU/s of a container (or of its database when the "
+                        + "throughput is shared) that item statements may consume, paced by the request charges "
+                        + "reported by the service. 0 disables the limit.")
+                .setDefaultValue(0)
+                .build();
+
+        THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("throughputBudgetPercentByContainer", String.class)
+                .setDescription("Per container overrides of throughputBudgetPercent as a comma separated list of "
+                        + "containerId=percent, e.g. orders=30,audit=10.")
+                .build();
+
+        LOCK_LEASE_SECONDS = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("lockLeaseSeconds", Integer.class)
+                .setDescription("Time to live of the changelog lock. The lock is renewed in the background while "
+                        + "it is held and expires this many seconds after a runner stopped without releasing it. "
+                        + "0 keeps the lock until it is released.")
+                .setDefaultValue(300)
+                .build();
+
+        LOCK_WAIT_STRATEGY = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("lockWaitStrategy", String.class)
+                .setDescription("How a runner waits for the changelog lock held by another runner: poll sleeps "
+                        + "for the changelog lock recheck time, backoff sleeps exponentially longer with jitter up "
+                        + "to it, changeFeed follows the change feed of the lock container and attempts again as "
+                        + "soon as the lock was released.")
+                .setDefaultValue("poll")
+                .build();
+
+        ASYNC_MAX_CONCURRENCY = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("asyncMaxConcurrency", Integer.class)
+                .setDescription("How many requests of an asynchronous statement, such as dropping all containers, "
+                        + "are in flight at a time.")
+                .setDefaultValue(16)
+                .build();
+
+        WARM_UP_ENABLED = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("warmUpEnabled", Boolean.class)
+                .setDescription("Open the connections to the changelog, lock and warmUpContainers containers in the "
+                        + "background when the client is created, so the first statements do not pay for address "
+                        + "resolution and connection setup. Only applies in direct mode.")
+                .setDefaultValue(false)
+                .build();
+
+        WARM_UP_CONTAINERS = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("warmUpContainers", String.class)
+                .setDescription("Comma separated list of further containers to warm up when warmUpEnabled is set.")
+                .build();
+
+        CLIENT_CACHE_ENABLED = new ConfigurationDefinition.Builder(NAMESPACE)
+                .define("clientCacheEnabled", Boolean.class)
+                .setDescription("Share one client between the open connections to the same account with the same "
+                        + "key and client settings, closing it when the last of them is closed. Disable to give "
+                        + "every connection a client of its own.")
+                .setDefaultValue(true)
+                .build();
     }
 }
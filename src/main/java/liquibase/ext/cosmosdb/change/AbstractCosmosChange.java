@@ -21,7 +21,9 @@ package liquibase.ext.cosmosdb.change;
  */
 
 import liquibase.change.AbstractChange;
+import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import lombok.Setter;
 
@@ -32,4 +34,15 @@ public abstract class AbstractCosmosChange extends AbstractChange {
         return database instanceof CosmosLiquibaseDatabase;
     }
 
+    /**
+     * @return identifies this change for persisting the progress of its statements, null outside a changeSet
+     */
+    protected ChangeSetProgress getChangeSetProgress() {
+        final ChangeSet changeSet = getChangeSet();
+        if (changeSet == null) {
+            return null;
+        }
+        return ChangeSetProgress.of(changeSet, changeSet.getChanges().indexOf(this));
+    }
+
 }
@@ -42,6 +42,11 @@ public class DeleteEachItemChange extends AbstractCosmosChange {
 
     private String containerId;
     private String query;
+    private Boolean bulk;
+    private Integer batchSize;
+    private Integer maxConcurrency;
+    private Double requestUnitsPerSecond;
+    private Integer parallelism;
 
     @Override
     public String getConfirmationMessage() {
@@ -52,7 +57,9 @@ public class DeleteEachItemChange extends AbstractCosmosChange {
     public SqlStatement[] generateStatements(final Database database) {
 
         final DeleteEachItemStatement deleteEachItemStatement
-                = new DeleteEachItemStatement(containerId, query);
+                = new DeleteEachItemStatement(containerId, query, bulk, batchSize, maxConcurrency, requestUnitsPerSecond, parallelism);
+
+        deleteEachItemStatement.setProgress(getChangeSetProgress());
 
         return new SqlStatement[]{
                 deleteEachItemStatement
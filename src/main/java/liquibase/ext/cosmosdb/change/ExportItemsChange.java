@@ -0,0 +1,69 @@
+package liquibase.ext.cosmosdb.change;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.ext.cosmosdb.statement.ExportItemsStatement;
+import liquibase.statement.SqlStatement;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@DatabaseChange(name = "exportItems",
+        description = "Exports the items matched by a Query to a local newline delimited JSON file " +
+                "https://docs.microsoft.com/en-us/rest/api/cosmos-db/query-documents",
+        priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "container")
+@NoArgsConstructor
+@Getter
+@Setter
+public class ExportItemsChange extends AbstractCosmosChange {
+
+    private String containerId;
+    private String query;
+    private String file;
+    private Boolean gzip;
+    private Integer parallelism;
+    private Integer pageSize;
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Items of container " + containerId + " exported to: " + file;
+    }
+
+    @Override
+    public ValidationErrors validate(final Database database) {
+        final ValidationErrors validationErrors = super.validate(database);
+        validationErrors.checkRequiredField("file", file);
+        return validationErrors;
+    }
+
+    @Override
+    public SqlStatement[] generateStatements(final Database database) {
+
+        final ExportItemsStatement exportItemsStatement
+                = new ExportItemsStatement(containerId, query, file, gzip, parallelism, pageSize);
+
+        return new SqlStatement[]{
+                exportItemsStatement
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.ext.cosmosdb.change;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.change.ChangeMetaData;
+import liquibase.change.DatabaseChange;
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.ext.cosmosdb.statement.ImportItemsStatement;
+import liquibase.statement.SqlStatement;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import static java.lang.Boolean.TRUE;
+import static java.util.Objects.nonNull;
+
+@DatabaseChange(name = "importItems",
+        description = "Imports the items of a newline delimited JSON file or a JSON array file through the bulk API " +
+                "https://learn.microsoft.com/en-us/azure/cosmos-db/nosql/bulk-executor-java",
+        priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "container")
+@NoArgsConstructor
+@Getter
+@Setter
+public class ImportItemsChange extends AbstractCosmosChange {
+
+    private String containerId;
+    private String file;
+    private Boolean relativeToChangelogFile;
+    private Integer batchSize;
+    private Integer maxConcurrency;
+    private Boolean upsert;
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Items imported from " + file + " into container: " + containerId;
+    }
+
+    @Override
+    public ValidationErrors validate(final Database database) {
+        final ValidationErrors validationErrors = super.validate(database);
+        validationErrors.checkRequiredField("file", file);
+        return validationErrors;
+    }
+
+    @Override
+    public SqlStatement[] generateStatements(final Database database) {
+
+        final String relativeTo = TRUE.equals(relativeToChangelogFile) && nonNull(getChangeSet())
+                ? getChangeSet().getChangeLog().getPhysicalFilePath() : null;
+
+        final ImportItemsStatement importItemsStatement
+                = new ImportItemsStatement(containerId, file, relativeTo, batchSize, maxConcurrency, upsert);
+
+        return new SqlStatement[]{
+                importItemsStatement
+        };
+    }
+}
@@ -43,6 +43,10 @@ public class UpdateEachItemChange extends AbstractCosmosChange {
     private String containerId;
     private String query;
     private String document;
+    private Boolean bulk;
+    private Integer batchSize;
+    private Boolean patch;
+    private Integer parallelism;
 
     @Override
     public String getConfirmationMessage() {
@@ -53,7 +57,9 @@ public class UpdateEachItemChange extends AbstractCosmosChange {
     public SqlStatement[] generateStatements(final Database database) {
 
         final UpdateEachItemStatement updateEachItemStatement
-                = new UpdateEachItemStatement(containerId, query, document);
+                = new UpdateEachItemStatement(containerId, query, document, bulk, batchSize, patch, parallelism);
+
+        updateEachItemStatement.setProgress(getChangeSetProgress());
 
         return new SqlStatement[]{
                 updateEachItemStatement
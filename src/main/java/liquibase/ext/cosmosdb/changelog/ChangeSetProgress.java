@@ -0,0 +1,80 @@
+package liquibase.ext.cosmosdb.changelog;
+
+import liquibase.ChecksumVersion;
+import liquibase.changelog.ChangeSet;
+import liquibase.ext.cosmosdb.statement.FeedRangeCheckpoint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of a long running change, kept in the changelog container next to the ran changeSets until the change
+ * completes. Identifies the change by its changeSet and its position in it.
+ * <p>
+ * The changelog container has a unique key on file name, author and changeSet id, so the changeSet id of a progress
+ * document carries the position of the change as a suffix. Progress documents are told apart from ran changeSets by
+ * their {@link Fields#TYPE}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChangeSetProgress {
+
+    public static final String TYPE = "changeSetProgress";
+
+    public static class Fields {
+        public static final String TYPE = "type";
+        public static final String COMMAND = "command";
+        public static final String QUERY = "query";
+        public static final String CHECK_SUM = "checkSum";
+        public static final String PROCESSED = "processed";
+        public static final String LAST_UPDATED = "lastUpdated";
+        public static final String FEED_RANGES = "feedRanges";
+        public static final String FEED_RANGE = "feedRange";
+        public static final String CONTINUATION_TOKEN = "continuationToken";
+        public static final String COMPLETED = "completed";
+    }
+
+    private String id;
+    private String fileName;
+    private String author;
+    private String changeSetId;
+    private String command;
+
+    /**
+     * The query text the continuation tokens belong to.
+     */
+    private String query;
+
+    /**
+     * The checksum of the changeSet when the progress was recorded, the progress only applies to the same change.
+     */
+    private String checkSum;
+
+    private long processed;
+    private Date lastUpdated;
+    private List<FeedRangeCheckpoint> checkpoints = new ArrayList<>();
+
+    /**
+     * @param changeSet   the changeSet the change belongs to
+     * @param changeIndex the position of the change in the changeSet
+     * @return an empty progress identifying the change and its current content
+     */
+    public static ChangeSetProgress of(final ChangeSet changeSet, final int changeIndex) {
+        final ChangeSetProgress progress = new ChangeSetProgress();
+        progress.setFileName(changeSet.getFilePath());
+        progress.setAuthor(changeSet.getAuthor());
+        progress.setChangeSetId(changeSet.getId() + "#" + changeIndex);
+        progress.setCheckSum(changeSet.generateCheckSum(ChecksumVersion.latest()).toString());
+        // Item ids may not contain '/', derive a stable one from the key instead of the file path
+        progress.setId(TYPE + "-" + UUID.nameUUIDFromBytes(String.join("::", progress.getFileName(),
+                progress.getAuthor(), progress.getChangeSetId()).getBytes(StandardCharsets.UTF_8)));
+        return progress;
+    }
+}
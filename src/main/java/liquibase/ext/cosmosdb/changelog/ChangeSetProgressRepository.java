@@ -0,0 +1,36 @@
+package liquibase.ext.cosmosdb.changelog;
+
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.PartitionKey;
+import liquibase.ext.cosmosdb.persistence.AbstractRepository;
+
+import java.util.Optional;
+
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
+
+public class ChangeSetProgressRepository extends AbstractRepository<ChangeSetProgress> {
+
+    public ChangeSetProgressRepository(final CosmosDatabase database, final String containerId) {
+        super(database.getContainer(containerId)
+                , new ChangeSetProgressToDocumentConverter());
+    }
+
+    /**
+     * @param id the progress document id
+     * @return the progress, empty if the change has none
+     */
+    public Optional<ChangeSetProgress> find(final String id) {
+        return get(id);
+    }
+
+    public void deleteIfExists(final String id) {
+        try {
+            getContainer().deleteItem(id, PartitionKey.NONE, null);
+        } catch (final CosmosException e) {
+            if (e.getStatusCode() != NOTFOUND) {
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package liquibase.ext.cosmosdb.changelog;
+
+import liquibase.ext.cosmosdb.persistence.AbstractItemToDocumentConverter;
+import liquibase.ext.cosmosdb.statement.FeedRangeCheckpoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.azure.cosmos.implementation.Constants.Properties.ID;
+import static java.util.Objects.isNull;
+import static java.util.Optional.ofNullable;
+
+public class ChangeSetProgressToDocumentConverter extends AbstractItemToDocumentConverter<ChangeSetProgress, Map<String, Object>> {
+
+    @Override
+    public Map<String, Object> toDocument(final ChangeSetProgress item) {
+
+        final Map<String, Object> document = new HashMap<>();
+        document.put(ID, item.getId());
+        document.put(ChangeSetProgress.Fields.TYPE, ChangeSetProgress.TYPE);
+        document.put(CosmosRanChangeSet.Fields.FILE_NAME, item.getFileName());
+        document.put(CosmosRanChangeSet.Fields.AUTHOR, item.getAuthor());
+        document.put(CosmosRanChangeSet.Fields.CHANGE_SET_ID, item.getChangeSetId());
+        document.put(ChangeSetProgress.Fields.COMMAND, item.getCommand());
+        document.put(ChangeSetProgress.Fields.QUERY, item.getQuery());
+        document.put(ChangeSetProgress.Fields.CHECK_SUM, item.getCheckSum());
+        document.put(ChangeSetProgress.Fields.PROCESSED, item.getProcessed());
+        document.put(ChangeSetProgress.Fields.LAST_UPDATED, fromDate(item.getLastUpdated()));
+        document.put(ChangeSetProgress.Fields.FEED_RANGES, item.getCheckpoints().stream().map(checkpoint -> {
+            final Map<String, Object> feedRange = new HashMap<>();
+            feedRange.put(ChangeSetProgress.Fields.FEED_RANGE, checkpoint.getFeedRange());
+            feedRange.put(ChangeSetProgress.Fields.CONTINUATION_TOKEN, checkpoint.getContinuationToken());
+            feedRange.put(ChangeSetProgress.Fields.PROCESSED, checkpoint.getProcessed());
+            feedRange.put(ChangeSetProgress.Fields.COMPLETED, checkpoint.isCompleted());
+            return feedRange;
+        }).collect(Collectors.toList()));
+
+        return document;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ChangeSetProgress fromDocument(final Map<String, Object> document) {
+
+        final ChangeSetProgress progress = new ChangeSetProgress();
+        progress.setId((String) document.get(ID));
+        progress.setFileName((String) document.get(CosmosRanChangeSet.Fields.FILE_NAME));
+        progress.setAuthor((String) document.get(CosmosRanChangeSet.Fields.AUTHOR));
+        progress.setChangeSetId((String) document.get(CosmosRanChangeSet.Fields.CHANGE_SET_ID));
+        progress.setCommand((String) document.get(ChangeSetProgress.Fields.COMMAND));
+        progress.setQuery((String) document.get(ChangeSetProgress.Fields.QUERY));
+        progress.setCheckSum((String) document.get(ChangeSetProgress.Fields.CHECK_SUM));
+        progress.setProcessed(toLong(document.get(ChangeSetProgress.Fields.PROCESSED)));
+        progress.setLastUpdated(toDate((String) document.get(ChangeSetProgress.Fields.LAST_UPDATED)));
+
+        final List<FeedRangeCheckpoint> checkpoints = new ArrayList<>();
+        for (final Map<String, Object> feedRange : ofNullable((Collection<Map<String, Object>>) document
+                .get(ChangeSetProgress.Fields.FEED_RANGES)).orElse(Collections.emptyList())) {
+            final String continuationToken = (String) feedRange.get(ChangeSetProgress.Fields.CONTINUATION_TOKEN);
+            checkpoints.add(new FeedRangeCheckpoint(
+                    (String) feedRange.get(ChangeSetProgress.Fields.FEED_RANGE),
+                    continuationToken,
+                    toLong(feedRange.get(ChangeSetProgress.Fields.PROCESSED)),
+                    ofNullable((Boolean) feedRange.get(ChangeSetProgress.Fields.COMPLETED)).orElse(isNull(continuationToken))));
+        }
+        progress.setCheckpoints(checkpoints);
+
+        return progress;
+    }
+
+    private static long toLong(final Object value) {
+        // Numbers come back as Integer or Long depending on their size
+        return ofNullable((Number) value).map(Number::longValue).orElse(0L);
+    }
+}
@@ -1,12 +1,104 @@
 package liquibase.ext.cosmosdb.changelog;
 
 import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
 import liquibase.ext.cosmosdb.persistence.AbstractRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.azure.cosmos.implementation.Constants.Properties.ID;
+
 public class ChangeSetRepository extends AbstractRepository<CosmosRanChangeSet> {
 
+    private static final String PARAMETER_TIMESTAMP = "@timestamp";
+
+    /**
+     * Ran changeSets are read in pages of this many documents, the service default of 100 would mean a round trip
+     * per 100 changeSets for large changelogs.
+     */
+    static final int PAGE_SIZE = 1000;
+
+    /**
+     * Matches the ran changeSets, skipping the {@link ChangeSetProgress} documents kept in the same container.
+     */
+    public static final String FILTER_RAN_CHANGE_SETS = "NOT IS_DEFINED(c." + ChangeSetProgress.Fields.TYPE + ")";
+
+    public static final String QUERY_SELECT_RAN_CHANGE_SETS = "SELECT * FROM c WHERE " + FILTER_RAN_CHANGE_SETS;
+
+    /**
+     * The fields read by {@link ChangeSetToDocumentConverter#fromDocument(Map)}, leaving out the system properties
+     * of the documents.
+     */
+    static final String PROJECTION = Stream.of(ID, CosmosRanChangeSet.Fields.FILE_NAME,
+                    CosmosRanChangeSet.Fields.CHANGE_SET_ID, CosmosRanChangeSet.Fields.AUTHOR,
+                    CosmosRanChangeSet.Fields.LAST_CHECK_SUM, CosmosRanChangeSet.Fields.DATE_EXECUTED,
+                    CosmosRanChangeSet.Fields.TAG, CosmosRanChangeSet.Fields.EXEC_TYPE,
+                    CosmosRanChangeSet.Fields.DESCRIPTION, CosmosRanChangeSet.Fields.COMMENTS,
+                    CosmosRanChangeSet.Fields.CONTEXT_EXPRESSION, CosmosRanChangeSet.Fields.LABELS,
+                    CosmosRanChangeSet.Fields.DEPLOYMENT_ID, CosmosRanChangeSet.Fields.ORDER_EXECUTED,
+                    CosmosRanChangeSet.Fields.LIQUIBASE, CosmosRanChangeSet.Fields.TIMESTAMP)
+            .map(field -> "c." + field).collect(Collectors.joining(", "));
+
+    /**
+     * Selects the fields of the ran changeSets in the order they ran. Sorting on the single property is served by
+     * the range index the changelog container has on all paths.
+     */
+    public static final String QUERY_SELECT_RAN_CHANGE_SETS_ORDERED = "SELECT " + PROJECTION
+            + " FROM c WHERE " + FILTER_RAN_CHANGE_SETS
+            + " ORDER BY c." + CosmosRanChangeSet.Fields.ORDER_EXECUTED;
+
+    /**
+     * Selects the ran changeSets written at or after a {@link CosmosRanChangeSet.Fields#TIMESTAMP}. As the timestamp
+     * has a resolution of seconds, the changeSets of the second the last read happened in are read again.
+     */
+    public static final String QUERY_SELECT_RAN_CHANGE_SETS_MODIFIED_SINCE = "SELECT " + PROJECTION
+            + " FROM c WHERE " + FILTER_RAN_CHANGE_SETS
+            + " AND c." + CosmosRanChangeSet.Fields.TIMESTAMP + " >= " + PARAMETER_TIMESTAMP
+            + " ORDER BY c." + CosmosRanChangeSet.Fields.ORDER_EXECUTED;
+
     public ChangeSetRepository(final CosmosDatabase database, final String containerId) {
         super(database.getContainer(containerId)
                 , new ChangeSetToDocumentConverter());
     }
+
+    @Override
+    protected String getSelectAllQuery() {
+        return QUERY_SELECT_RAN_CHANGE_SETS;
+    }
+
+    /**
+     * @return the ran changeSets in the order they ran
+     */
+    public List<CosmosRanChangeSet> getRanChangeSets() {
+        return query(new SqlQuerySpec(QUERY_SELECT_RAN_CHANGE_SETS_ORDERED));
+    }
+
+    /**
+     * @param timestamp the {@link CosmosRanChangeSet#getTimestamp()} of the most recently written changeSet read before
+     * @return the ran changeSets created or updated since, in the order they ran
+     */
+    public List<CosmosRanChangeSet> getModifiedSince(final long timestamp) {
+        return query(new SqlQuerySpec(QUERY_SELECT_RAN_CHANGE_SETS_MODIFIED_SINCE,
+                new SqlParameter(PARAMETER_TIMESTAMP, timestamp)));
+    }
+
+    /**
+     * Converts the documents page by page as they arrive, without collecting them first.
+     */
+    @SuppressWarnings("unchecked")
+    private List<CosmosRanChangeSet> query(final SqlQuerySpec querySpec) {
+        final List<CosmosRanChangeSet> ranChangeSets = new ArrayList<>();
+        for (final FeedResponse<Map> page : getContainer()
+                .queryItems(querySpec, new CosmosQueryRequestOptions(), Map.class).iterableByPage(PAGE_SIZE)) {
+            page.getResults().forEach(document -> ranChangeSets.add(getConverter().fromDocument((Map<String, Object>) document)));
+        }
+        return ranChangeSets;
+    }
 }
@@ -48,7 +48,7 @@ public class ChangeSetToDocumentConverter extends AbstractItemToDocumentConverte
     @Override
     public CosmosRanChangeSet fromDocument(final Map<String, Object> document) {
 
-        return new CosmosRanChangeSet(
+        final CosmosRanChangeSet ranChangeSet = new CosmosRanChangeSet(
                 // Internal id which is populated with UUID
                 (String) document.get(ID),
                 (String) document.get(CosmosRanChangeSet.Fields.FILE_NAME),
@@ -70,6 +70,9 @@ public class ChangeSetToDocumentConverter extends AbstractItemToDocumentConverte
                 (Integer) ofNullable(document.get(CosmosRanChangeSet.Fields.ORDER_EXECUTED)).orElse(null),
                 (String) document.get(CosmosRanChangeSet.Fields.LIQUIBASE)
         );
+        ranChangeSet.setTimestamp(ofNullable(document.get(CosmosRanChangeSet.Fields.TIMESTAMP))
+                .map(ts -> ((Number) ts).longValue()).orElse(null));
+        return ranChangeSet;
     }
 
     public String buildLabels(Labels labels) {
@@ -25,6 +25,7 @@ import com.azure.cosmos.models.SqlQuerySpec;
 import liquibase.ChecksumVersion;
 import liquibase.Scope;
 import liquibase.change.Change;
+import liquibase.change.CheckSum;
 import liquibase.change.core.TagDatabaseChange;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
@@ -37,7 +38,13 @@ import liquibase.nosql.changelog.AbstractNoSqlHistoryService;
 import liquibase.nosql.executor.NoSqlExecutor;
 import liquibase.util.StringUtil;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 public class CosmosHistoryService extends AbstractNoSqlHistoryService<CosmosLiquibaseDatabase> {
@@ -105,6 +112,66 @@ public class CosmosHistoryService extends AbstractNoSqlHistoryService<CosmosLiqu
                 .stream().map(RanChangeSet.class::cast).collect(Collectors.toList());
     }
 
+    /**
+     * Reads only the changeSets written since the most recent {@link CosmosRanChangeSet#getTimestamp()} of the cached
+     * ones and merges them in. Removed changeSets are not seen that way, so the merged list is only kept when both the
+     * count of ran changeSets and the time the changelog was last written to match it. Otherwise, or when none of the
+     * cached ones has been read from the container yet, all of them are read again.
+     */
+    @Override
+    protected List<RanChangeSet> refreshRanChangeSets(final List<RanChangeSet> cached) throws DatabaseException {
+        getLogger().fine("Entering: " + getClass().getSimpleName() + " refreshRanChangeSets()");
+        final OptionalLong watermark = lastModified(cached);
+        if (!watermark.isPresent()) {
+            return queryRanChangeSets();
+        }
+
+        final Map<String, RanChangeSet> merged = new LinkedHashMap<>();
+        cached.forEach(ranChangeSet -> merged.put(toKey(ranChangeSet), ranChangeSet));
+        final List<RanChangeSet> modified = queryRanChangeSetsModifiedSince(watermark.getAsLong());
+        modified.forEach(ranChangeSet -> merged.put(toKey(ranChangeSet), ranChangeSet));
+
+        // A removal may be offset by a changeSet added meanwhile, the last write tells them apart unless both match
+        if (countRanChangeSets() != merged.size()
+                || queryLastModified() != lastModified(merged.values()).orElse(0L)) {
+            getLogger().fine("Ran changeSets were removed from " + getDatabaseChangeLogTableName() + ", reading all of them");
+            return queryRanChangeSets();
+        }
+        getLogger().fine(String.format("Refreshed %d cached ran changeSet(s) with %d modified since %d",
+                cached.size(), modified.size(), watermark.getAsLong()));
+        return merged.values().stream()
+                .sorted(Comparator.comparing(RanChangeSet::getOrderExecuted, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+    }
+
+    protected List<RanChangeSet> queryRanChangeSetsModifiedSince(final long timestamp) throws DatabaseException {
+        getLogger().fine("Entering: " + getClass().getSimpleName() + " queryRanChangeSetsModifiedSince()");
+        return getExecutor().queryForList(new SelectChangeLogRanChangeSetsStatement(getDatabaseChangeLogTableName(), timestamp),
+                        RanChangeSet.class)
+                .stream().map(RanChangeSet.class::cast).collect(Collectors.toList());
+    }
+
+    protected long queryLastModified() throws DatabaseException {
+        getLogger().fine("Entering: " + getClass().getSimpleName() + " queryLastModified()");
+        return getExecutor().queryForLong(new GetChangeLogLastModifiedStatement(getDatabaseChangeLogTableName()));
+    }
+
+    private static OptionalLong lastModified(final Collection<RanChangeSet> ranChangeSets) {
+        return ranChangeSets.stream()
+                .filter(CosmosRanChangeSet.class::isInstance).map(CosmosRanChangeSet.class::cast)
+                .map(CosmosRanChangeSet::getTimestamp).filter(Objects::nonNull).mapToLong(Long::longValue).max();
+    }
+
+    @Override
+    protected RanChangeSet withCheckSum(final RanChangeSet ranChangeSet, final CheckSum checkSum) {
+        return ranChangeSet instanceof CosmosRanChangeSet
+                ? ((CosmosRanChangeSet) ranChangeSet).withLastCheckSum(checkSum) : super.withCheckSum(ranChangeSet, checkSum);
+    }
+
+    private static String toKey(final RanChangeSet ranChangeSet) {
+        return ranChangeSet.getChangeLog() + "::" + ranChangeSet.getId() + "::" + ranChangeSet.getAuthor();
+    }
+
     @Override
     protected Integer generateNextSequence() throws DatabaseException {
         getLogger().fine("Entering: " + getClass().getSimpleName() + " generateNextSequence()");
@@ -188,7 +255,8 @@ public class CosmosHistoryService extends AbstractNoSqlHistoryService<CosmosLiqu
     @Override
     protected long countRanChangeSets() throws DatabaseException {
         getLogger().fine("Entering: " + getClass().getSimpleName() + " countRanChangeSets()");
-        return getExecutor().queryForLong(new CountDocumentsInContainerStatement(getDatabaseChangeLogTableName()));
+        return getExecutor().queryForLong(new CountDocumentsInContainerStatement(getDatabaseChangeLogTableName(),
+                ChangeSetRepository.FILTER_RAN_CHANGE_SETS));
     }
 
     @Override
@@ -30,6 +30,7 @@ public class CosmosRanChangeSet extends RanChangeSet {
         public static final String DEPLOYMENT_ID = "deploymentId";
         public static final String ORDER_EXECUTED = "orderExecuted";
         public static final String LIQUIBASE = "liquibase";
+        public static final String TIMESTAMP = "_ts";
     }
 
     @Getter
@@ -44,6 +45,15 @@ public class CosmosRanChangeSet extends RanChangeSet {
     @Setter
     private String liquibase;
 
+    /**
+     * The last modified time of the document in seconds since the epoch, as maintained by Cosmos DB.
+     * Null for changeSets not read from the changelog container.
+     */
+    @Getter
+    @Setter
+    @EqualsAndHashCode.Exclude
+    private Long timestamp;
+
     public CosmosRanChangeSet(final String uuid, final String changeLog, final String id, final String author, final CheckSum lastCheckSum, final Date dateExecuted
             , final String tag, final ChangeSet.ExecType execType, final String description, final String comments, final ContextExpression contextExpression, final Collection<ContextExpression> inheritableContexts
             , final Labels labels, final String deploymentId, final Integer orderExecuted, final String liquibase) {
@@ -57,4 +67,16 @@ public class CosmosRanChangeSet extends RanChangeSet {
     public CosmosRanChangeSet(final ChangeSet changeSet, final ChangeSet.ExecType execType, final ContextExpression contextExpression, final Labels labels) {
         super(changeSet, execType, contextExpression, labels);
     }
+
+    /**
+     * @param checkSum the new checksum
+     * @return a copy of this ran changeSet with the checksum replaced
+     */
+    public CosmosRanChangeSet withLastCheckSum(final CheckSum checkSum) {
+        final CosmosRanChangeSet copy = new CosmosRanChangeSet(uuid, getChangeLog(), getId(), getAuthor(), checkSum,
+                getDateExecuted(), getTag(), getExecType(), getDescription(), getComments(), getContextExpression(),
+                inheritableContexts, getLabels(), getDeploymentId(), getOrderExecuted(), liquibase);
+        copy.setTimestamp(timestamp);
+        return copy;
+    }
 }
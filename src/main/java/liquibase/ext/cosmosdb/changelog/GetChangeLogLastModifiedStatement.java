@@ -0,0 +1,43 @@
+package liquibase.ext.cosmosdb.changelog;
+
+import com.azure.cosmos.CosmosContainer;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
+import liquibase.nosql.statement.NoSqlQueryForLongStatement;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Reads the most recent {@link CosmosRanChangeSet.Fields#TIMESTAMP} of the ran changeSets, the time the changelog was
+ * last written to. Like the count of ran changeSets it is an aggregate computed by the service.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class GetChangeLogLastModifiedStatement extends AbstractCosmosContainerStatement
+        implements NoSqlQueryForLongStatement<CosmosLiquibaseDatabase> {
+
+    public static final String COMMAND_NAME = "changeLogLastModified";
+
+    public static final String QUERY_SELECT_MAX_TIMESTAMP
+            = "SELECT VALUE MAX(c." + CosmosRanChangeSet.Fields.TIMESTAMP + ") FROM c WHERE "
+            + ChangeSetRepository.FILTER_RAN_CHANGE_SETS;
+
+    public GetChangeLogLastModifiedStatement(final String containerId) {
+        super(containerId);
+    }
+
+    @Override
+    public String getCommandName() {
+        return COMMAND_NAME;
+    }
+
+    /**
+     * @return the most recent timestamp, 0 if no changeSet ran yet
+     */
+    @Override
+    public long queryForLong(final CosmosLiquibaseDatabase database) {
+        final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(getContainerId());
+        // MAX over no values is undefined, which the service returns as an empty result
+        return cosmosContainer.queryItems(QUERY_SELECT_MAX_TIMESTAMP, null, Long.class).stream()
+                .findFirst().orElse(0L);
+    }
+
+}
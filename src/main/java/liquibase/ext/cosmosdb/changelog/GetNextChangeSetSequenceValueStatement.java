@@ -1,11 +1,25 @@
 package liquibase.ext.cosmosdb.changelog;
 
-import liquibase.ext.cosmosdb.statement.CountDocumentsInContainerStatement;
+import com.azure.cosmos.CosmosContainer;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
+import liquibase.nosql.statement.NoSqlQueryForLongStatement;
+import lombok.EqualsAndHashCode;
 
-public class GetNextChangeSetSequenceValueStatement extends CountDocumentsInContainerStatement {
+/**
+ * Reads the highest {@link CosmosRanChangeSet.Fields#ORDER_EXECUTED} of the ran changeSets. The aggregate is
+ * computed by the service, so the response has the same size however many changeSets ran.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class GetNextChangeSetSequenceValueStatement extends AbstractCosmosContainerStatement
+        implements NoSqlQueryForLongStatement<CosmosLiquibaseDatabase> {
 
     public static final String COMMAND_NAME = "nextChangeSetSequence";
 
+    public static final String QUERY_SELECT_MAX_ORDER_EXECUTED
+            = "SELECT VALUE MAX(c." + CosmosRanChangeSet.Fields.ORDER_EXECUTED + ") FROM c WHERE "
+            + ChangeSetRepository.FILTER_RAN_CHANGE_SETS;
+
     public GetNextChangeSetSequenceValueStatement(final String containerId) {
         super(containerId);
     }
@@ -15,4 +29,15 @@ public class GetNextChangeSetSequenceValueStatement extends CountDocumentsInCont
         return COMMAND_NAME;
     }
 
+    /**
+     * @return the highest order executed, 0 if no changeSet ran yet
+     */
+    @Override
+    public long queryForLong(final CosmosLiquibaseDatabase database) {
+        final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(getContainerId());
+        // MAX over no values is undefined, which the service returns as an empty result
+        return cosmosContainer.queryItems(QUERY_SELECT_MAX_ORDER_EXECUTED, null, Long.class).stream()
+                .findFirst().orElse(0L);
+    }
+
 }
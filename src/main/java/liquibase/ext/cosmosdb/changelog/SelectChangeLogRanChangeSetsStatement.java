@@ -20,16 +20,15 @@ package liquibase.ext.cosmosdb.changelog;
  * #L%
  */
 
-import liquibase.changelog.RanChangeSet;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
 import liquibase.nosql.statement.NoSqlQueryForListStatement;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
 
 @Getter
 @Setter
@@ -38,8 +37,18 @@ public class SelectChangeLogRanChangeSetsStatement extends AbstractCosmosContain
 
     public static final String COMMAND_NAME = "selectRanChangeSets";
 
+    /**
+     * Only read the changeSets written at or after this {@link CosmosRanChangeSet#getTimestamp()}, null to read all.
+     */
+    private Long modifiedSince;
+
     public SelectChangeLogRanChangeSetsStatement(final String containerId) {
+        this(containerId, null);
+    }
+
+    public SelectChangeLogRanChangeSetsStatement(final String containerId, final Long modifiedSince) {
         super(containerId);
+        this.modifiedSince = modifiedSince;
     }
 
     @Override
@@ -49,8 +58,7 @@ public class SelectChangeLogRanChangeSetsStatement extends AbstractCosmosContain
 
     public List<CosmosRanChangeSet> readAll(final CosmosLiquibaseDatabase database) {
         final ChangeSetRepository repository = new ChangeSetRepository(database.getCosmosDatabase(), getContainerId());
-        return repository.getAll().stream()
-                .sorted(Comparator.comparing(RanChangeSet::getDateExecuted)).collect(Collectors.toList());
+        return isNull(modifiedSince) ? repository.getRanChangeSets() : repository.getModifiedSince(modifiedSince);
     }
 
     @Override
@@ -1,49 +1,127 @@
 package liquibase.ext.cosmosdb.database;
 
 import com.azure.cosmos.ConnectionMode;
-import com.azure.cosmos.ConsistencyLevel;
+import com.azure.cosmos.CosmosBridgeInternal;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.models.CosmosClientTelemetryConfig;
 import liquibase.Scope;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsCollector;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsDispatcher;
 import liquibase.util.StringUtil;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverPropertyInfo;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
+import static java.util.Objects.isNull;
 import static liquibase.ext.cosmosdb.database.CosmosConnection.LIQUIBASE_EXTENSION_USER_AGENT_SUFFIX;
+import static liquibase.ext.cosmosdb.database.CosmosConnectionString.ACCOUNT_KEY_PROPERTY;
 import static liquibase.ext.cosmosdb.database.CosmosConnectionString.COSMOSDB_PREFIX;
+import static liquibase.ext.cosmosdb.database.CosmosConnectionString.CREATE_DATABASE_PROPERTY;
+import static liquibase.ext.cosmosdb.database.CosmosConnectionString.DATABASE_NAME_PROPERTY;
+import static liquibase.ext.cosmosdb.database.CosmosConnectionString.DATABASE_THROUGHPUT_PROPERTY;
 
 public class CosmosClientDriver implements Driver {
 
+    private static final Set<String> DATABASE_PROPERTIES
+            = new HashSet<>(Arrays.asList(DATABASE_NAME_PROPERTY, CREATE_DATABASE_PROPERTY, DATABASE_THROUGHPUT_PROPERTY));
+
+    /**
+     * The clients shared by the open connections of the process, by {@link #clientKey(CosmosConnectionString)}.
+     */
+    private static final Map<String, SharedClient> SHARED_CLIENTS = new HashMap<>();
+
     @Override
     public Connection connect(final String url, final Properties info) {
         //Not applicable for non JDBC DBs
         throw new UnsupportedOperationException("Cannot initiate a SQL Connection for a NoSql DB");
     }
 
+    /**
+     * Connects to the account of the connection string. Unless {@link CosmosConfiguration#CLIENT_CACHE_ENABLED} is
+     * disabled, connections with the same endpoint, key and client settings share one client, counted by reference:
+     * closing the returned proxy releases the client, which is closed when no open connection uses it anymore. The
+     * database of the connection string does not matter, one client serves every database of the account. The
+     * statement metrics are never shared, every connection gets its own collector.
+     *
+     * @param cosmosConnectionString the connection string
+     * @return the client of the connection
+     * @throws DatabaseException if the client could not be built
+     */
     public CosmosClientProxy connect(final CosmosConnectionString cosmosConnectionString) throws DatabaseException {
+        // Every connection records its own statements, also when the client is shared
+        final StatementMetricsCollector statementMetrics = new StatementMetricsCollector();
+        final String databaseName = cosmosConnectionString.getDatabaseName().orElse(null);
+        if (!Boolean.TRUE.equals(CosmosConfiguration.CLIENT_CACHE_ENABLED.getCurrentValue())) {
+            final StatementMetricsDispatcher dispatcher = new StatementMetricsDispatcher();
+            dispatcher.register(statementMetrics, databaseName);
+            return CosmosClientProxy.builder().cosmosClient(buildClient(cosmosConnectionString, dispatcher))
+                    .statementMetrics(statementMetrics).build();
+        }
+
+        final String key = clientKey(cosmosConnectionString);
+        final SharedClient shared;
+        synchronized (SHARED_CLIENTS) {
+            SharedClient existing = SHARED_CLIENTS.get(key);
+            if (isNull(existing)) {
+                final StatementMetricsDispatcher dispatcher = new StatementMetricsDispatcher();
+                existing = new SharedClient(key, buildClient(cosmosConnectionString, dispatcher), dispatcher);
+                SHARED_CLIENTS.put(key, existing);
+            }
+            existing.references++;
+            shared = existing;
+        }
+        shared.dispatcher.register(statementMetrics, databaseName);
+        final AtomicBoolean released = new AtomicBoolean();
+        return CosmosClientProxy.builder().cosmosClient(shared.client).statementMetrics(statementMetrics)
+                .closeAction(() -> {
+                    if (released.compareAndSet(false, true)) {
+                        shared.dispatcher.unregister(statementMetrics);
+                        release(shared);
+                    }
+                }).build();
+    }
+
+    CosmosClient buildClient(final CosmosConnectionString cosmosConnectionString,
+                             final StatementMetricsDispatcher statementMetrics) throws DatabaseException {
         final Optional<ConnectionMode> connectionMode = cosmosConnectionString.getConnectionMode();
         final CosmosClient client;
         try {
             final CosmosClientBuilder builder = new CosmosClientBuilder()
                     .endpoint(cosmosConnectionString.getAccountEndpoint().orElse(""))
                     .key(cosmosConnectionString.getAccountKey().orElse(""))
-                    .consistencyLevel(ConsistencyLevel.EVENTUAL)
-                    .userAgentSuffix(LIQUIBASE_EXTENSION_USER_AGENT_SUFFIX);
+                    .userAgentSuffix(LIQUIBASE_EXTENSION_USER_AGENT_SUFFIX)
+                    .clientTelemetryConfig(new CosmosClientTelemetryConfig().diagnosticsHandler(statementMetrics));
 
-            connectionMode.ifPresent(mode -> {
-                switch (mode) {
-                    case DIRECT -> builder.directMode();
-                    case GATEWAY -> builder.gatewayMode();
-                }
-            });
+            cosmosConnectionString.getClientTuning().apply(builder, connectionMode);
+
+            final Optional<CosmosContainerWarmUp> warmUp = CosmosContainerWarmUp.fromConfiguration(cosmosConnectionString, connectionMode);
+            final boolean warmedUpByClient = warmUp
+                    .map(w -> w.configure(builder, cosmosConnectionString.getClientTuning().getPreferredRegions()))
+                    .orElse(false);
 
             client = builder.buildClient();
+
+            if (!warmedUpByClient) {
+                warmUp.ifPresent(w -> w.start(CosmosBridgeInternal.getCosmosAsyncClient(client)));
+            }
         } catch (final Exception e) {
             final String message = String.format(
                     "Connection could not be established to endpoint: %s, database: %s",
@@ -53,7 +131,63 @@ public class CosmosClientDriver implements Driver {
 
             throw new DatabaseException(message, e);
         }
-        return CosmosClientProxy.builder().cosmosClient(client).build();
+        return client;
+    }
+
+    private static void release(final SharedClient shared) {
+        synchronized (SHARED_CLIENTS) {
+            if (--shared.references > 0) {
+                return;
+            }
+            SHARED_CLIENTS.remove(shared.key, shared);
+        }
+        shared.client.close();
+    }
+
+    /**
+     * @return the number of clients currently shared by open connections
+     */
+    static int getSharedClientCount() {
+        synchronized (SHARED_CLIENTS) {
+            return SHARED_CLIENTS.size();
+        }
+    }
+
+    /**
+     * The properties that shape the client, with the account key replaced by its digest. The database and the
+     * properties only used when opening the database are left out.
+     */
+    static String clientKey(final CosmosConnectionString cosmosConnectionString) {
+        // Json connection strings may hold numbers, booleans or arrays despite the declared value type
+        final Map<String, ?> properties = cosmosConnectionString.getProperties();
+        final Map<String, String> key = new TreeMap<>();
+        properties.forEach((name, value) -> {
+            if (!DATABASE_PROPERTIES.contains(name)) {
+                key.put(name, ACCOUNT_KEY_PROPERTY.equals(name) ? sha256(String.valueOf(value)) : String.valueOf(value));
+            }
+        });
+        return key.toString();
+    }
+
+    private static String sha256(final String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class SharedClient {
+        private final String key;
+        private final CosmosClient client;
+        private final StatementMetricsDispatcher dispatcher;
+        private int references;
+
+        private SharedClient(final String key, final CosmosClient client, final StatementMetricsDispatcher dispatcher) {
+            this.key = key;
+            this.client = client;
+            this.dispatcher = dispatcher;
+        }
     }
 
     @Override
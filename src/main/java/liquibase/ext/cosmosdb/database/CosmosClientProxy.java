@@ -1,9 +1,13 @@
 package liquibase.ext.cosmosdb.database;
 
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosBridgeInternal;
+import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosDatabase;
 import com.azure.cosmos.models.*;
 import com.azure.cosmos.util.CosmosPagedIterable;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsCollector;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -22,6 +26,25 @@ public class CosmosClientProxy implements Closeable {
     @Getter
     private final CosmosClient cosmosClient;
 
+    /**
+     * Receives the diagnostics of the requests sent for this connection, null when the client was built elsewhere.
+     */
+    @Getter
+    private final StatementMetricsCollector statementMetrics;
+
+    /**
+     * Releases the client to the client cache of {@link CosmosClientDriver} on {@link #close()}, null when the
+     * client is owned by this proxy and closed with it.
+     */
+    private final Runnable closeAction;
+
+    /**
+     * @return the asynchronous client wrapped by the client, sharing its connections and diagnostics
+     */
+    public CosmosAsyncClient getCosmosAsyncClient() {
+        return CosmosBridgeInternal.getCosmosAsyncClient(cosmosClient);
+    }
+
     /**
      * Create a Cosmos database if it does not already exist on the service.
      * <p>
@@ -159,10 +182,25 @@ public class CosmosClientProxy implements Closeable {
     }
 
     /**
-     * Close this {@link com.azure.cosmos.CosmosClient} instance.
+     * Gets the asynchronous Cosmos database client.
+     *
+     * @param id the id of the database.
+     * @return {@link CosmosAsyncDatabase} the cosmos async database.
+     */
+    public CosmosAsyncDatabase getAsyncDatabase(String id) {
+        return getCosmosAsyncClient().getDatabase(id);
+    }
+
+    /**
+     * Close this {@link com.azure.cosmos.CosmosClient} instance, or release it when it is shared with other
+     * connections. The shared client is closed once the last connection using it released it.
      */
     public void close() {
-        cosmosClient.close();
+        if (closeAction != null) {
+            closeAction.run();
+        } else {
+            cosmosClient.close();
+        }
     }
 
 }
\ No newline at end of file
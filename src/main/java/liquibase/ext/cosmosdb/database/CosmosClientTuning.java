@@ -0,0 +1,234 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.ConnectionMode;
+import com.azure.cosmos.ConsistencyLevel;
+import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.CosmosEndToEndOperationLatencyPolicyConfig;
+import com.azure.cosmos.CosmosEndToEndOperationLatencyPolicyConfigBuilder;
+import com.azure.cosmos.DirectConnectionConfig;
+import com.azure.cosmos.GatewayConnectionConfig;
+import com.azure.cosmos.ThrottlingRetryOptions;
+import liquibase.Scope;
+import liquibase.util.StringUtil;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The client settings of a {@link CosmosConnectionString}, parsed and validated when the connection string is parsed
+ * so that a typo fails before any request is sent.
+ * <p>
+ * Durations are ISO-8601, e.g. {@code PT5S}. Properties that are not set keep the SDK defaults, except the consistency
+ * level which stays {@link ConsistencyLevel#EVENTUAL} as in prior releases.
+ */
+@Getter
+public class CosmosClientTuning {
+
+    public static final String CONSISTENCY_LEVEL_PROPERTY = "consistencyLevel";
+    public static final String PREFERRED_REGIONS_PROPERTY = "preferredRegions";
+    public static final String CONTENT_RESPONSE_ON_WRITE_ENABLED_PROPERTY = "contentResponseOnWriteEnabled";
+    public static final String DIRECT_MAX_CONNECTIONS_PER_ENDPOINT_PROPERTY = "directMaxConnectionsPerEndpoint";
+    public static final String DIRECT_MAX_REQUESTS_PER_CONNECTION_PROPERTY = "directMaxRequestsPerConnection";
+    public static final String DIRECT_CONNECT_TIMEOUT_PROPERTY = "directConnectTimeout";
+    public static final String DIRECT_IDLE_CONNECTION_TIMEOUT_PROPERTY = "directIdleConnectionTimeout";
+    public static final String DIRECT_IDLE_ENDPOINT_TIMEOUT_PROPERTY = "directIdleEndpointTimeout";
+    public static final String DIRECT_NETWORK_REQUEST_TIMEOUT_PROPERTY = "directNetworkRequestTimeout";
+    public static final String GATEWAY_MAX_CONNECTION_POOL_SIZE_PROPERTY = "gatewayMaxConnectionPoolSize";
+    public static final String GATEWAY_IDLE_CONNECTION_TIMEOUT_PROPERTY = "gatewayIdleConnectionTimeout";
+    public static final String THROTTLING_MAX_RETRY_ATTEMPTS_PROPERTY = "throttlingMaxRetryAttempts";
+    public static final String THROTTLING_MAX_RETRY_WAIT_TIME_PROPERTY = "throttlingMaxRetryWaitTime";
+    public static final String END_TO_END_TIMEOUT_PROPERTY = "endToEndTimeout";
+
+    private final ConsistencyLevel consistencyLevel;
+
+    private final List<String> preferredRegions;
+
+    private final Boolean contentResponseOnWriteEnabled;
+
+    /**
+     * Null when none of the direct mode properties is set.
+     */
+    private final DirectConnectionConfig directConnectionConfig;
+
+    /**
+     * Null when none of the gateway properties is set.
+     */
+    private final GatewayConnectionConfig gatewayConnectionConfig;
+
+    /**
+     * Null when none of the throttling properties is set.
+     */
+    private final ThrottlingRetryOptions throttlingRetryOptions;
+
+    private final CosmosEndToEndOperationLatencyPolicyConfig endToEndOperationLatencyPolicyConfig;
+
+    private CosmosClientTuning(final Map<String, ?> properties) {
+        this.consistencyLevel = parse(properties, CONSISTENCY_LEVEL_PROPERTY, CosmosClientTuning::toConsistencyLevel)
+                .orElse(ConsistencyLevel.EVENTUAL);
+        this.preferredRegions = toRegions(properties.get(PREFERRED_REGIONS_PROPERTY));
+        this.contentResponseOnWriteEnabled
+                = parse(properties, CONTENT_RESPONSE_ON_WRITE_ENABLED_PROPERTY, CosmosClientTuning::toBoolean).orElse(null);
+
+        final DirectConnectionConfig direct = DirectConnectionConfig.getDefaultConfig();
+        boolean directSet = set(properties, DIRECT_MAX_CONNECTIONS_PER_ENDPOINT_PROPERTY, CosmosClientTuning::toPositiveInt,
+                direct::setMaxConnectionsPerEndpoint);
+        directSet |= set(properties, DIRECT_MAX_REQUESTS_PER_CONNECTION_PROPERTY, CosmosClientTuning::toPositiveInt,
+                direct::setMaxRequestsPerConnection);
+        directSet |= set(properties, DIRECT_CONNECT_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration, direct::setConnectTimeout);
+        directSet |= set(properties, DIRECT_IDLE_CONNECTION_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration,
+                direct::setIdleConnectionTimeout);
+        directSet |= set(properties, DIRECT_IDLE_ENDPOINT_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration,
+                direct::setIdleEndpointTimeout);
+        directSet |= set(properties, DIRECT_NETWORK_REQUEST_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration,
+                direct::setNetworkRequestTimeout);
+        this.directConnectionConfig = directSet ? direct : null;
+
+        final GatewayConnectionConfig gateway = GatewayConnectionConfig.getDefaultConfig();
+        boolean gatewaySet = set(properties, GATEWAY_MAX_CONNECTION_POOL_SIZE_PROPERTY, CosmosClientTuning::toPositiveInt,
+                gateway::setMaxConnectionPoolSize);
+        gatewaySet |= set(properties, GATEWAY_IDLE_CONNECTION_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration,
+                gateway::setIdleConnectionTimeout);
+        this.gatewayConnectionConfig = gatewaySet ? gateway : null;
+
+        final ThrottlingRetryOptions throttling = new ThrottlingRetryOptions();
+        boolean throttlingSet = set(properties, THROTTLING_MAX_RETRY_ATTEMPTS_PROPERTY, CosmosClientTuning::toNonNegativeInt,
+                throttling::setMaxRetryAttemptsOnThrottledRequests);
+        throttlingSet |= set(properties, THROTTLING_MAX_RETRY_WAIT_TIME_PROPERTY, CosmosClientTuning::toDuration,
+                throttling::setMaxRetryWaitTime);
+        this.throttlingRetryOptions = throttlingSet ? throttling : null;
+
+        this.endToEndOperationLatencyPolicyConfig = parse(properties, END_TO_END_TIMEOUT_PROPERTY, CosmosClientTuning::toDuration)
+                .map(timeout -> new CosmosEndToEndOperationLatencyPolicyConfigBuilder(timeout).build()).orElse(null);
+    }
+
+    /**
+     * @param properties the properties of the connection string
+     * @return the settings
+     * @throws IllegalArgumentException naming the property if a value is invalid
+     */
+    public static CosmosClientTuning of(final Map<String, ?> properties) {
+        return new CosmosClientTuning(isNull(properties) ? Collections.emptyMap() : properties);
+    }
+
+    /**
+     * Applies the settings to the builder of the client.
+     *
+     * @param builder        the client builder
+     * @param connectionMode the connection mode of the connection string, if any
+     */
+    public void apply(final CosmosClientBuilder builder, final Optional<ConnectionMode> connectionMode) {
+        builder.consistencyLevel(consistencyLevel);
+        if (!preferredRegions.isEmpty()) {
+            builder.preferredRegions(preferredRegions);
+        }
+        if (nonNull(contentResponseOnWriteEnabled)) {
+            builder.contentResponseOnWriteEnabled(contentResponseOnWriteEnabled);
+        }
+        if (nonNull(throttlingRetryOptions)) {
+            builder.throttlingRetryOptions(throttlingRetryOptions);
+        }
+        if (nonNull(endToEndOperationLatencyPolicyConfig)) {
+            builder.endToEndOperationLatencyPolicyConfig(endToEndOperationLatencyPolicyConfig);
+        }
+
+        final GatewayConnectionConfig gateway = Optional.ofNullable(gatewayConnectionConfig)
+                .orElseGet(GatewayConnectionConfig::getDefaultConfig);
+        if (connectionMode.isPresent() && connectionMode.get() == ConnectionMode.GATEWAY) {
+            if (nonNull(directConnectionConfig)) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Ignoring the direct mode settings of the "
+                        + "connection string as the connectionMode is gateway");
+            }
+            builder.gatewayMode(gateway);
+        } else if (connectionMode.isPresent() || nonNull(directConnectionConfig) || nonNull(gatewayConnectionConfig)) {
+            // Direct is the SDK default mode, the gateway settings then apply to its metadata requests
+            builder.directMode(Optional.ofNullable(directConnectionConfig).orElseGet(DirectConnectionConfig::getDefaultConfig),
+                    gateway);
+        }
+    }
+
+    private static <T> Optional<T> parse(final Map<String, ?> properties, final String property,
+                                         final Function<String, T> parser) {
+        final Object raw = properties.get(property);
+        final String value = isNull(raw) ? null : StringUtil.trimToNull(String.valueOf(raw));
+        if (isNull(value)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(parser.apply(value));
+        } catch (final IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + property + ": '" + value + "'. " + e.getMessage(), e);
+        }
+    }
+
+    private static <T> boolean set(final Map<String, ?> properties, final String property,
+                                   final Function<String, T> parser, final Function<T, ?> setter) {
+        final Optional<T> value = parse(properties, property, parser);
+        value.ifPresent(v -> {
+            try {
+                setter.apply(v);
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + property + ": '" + v + "'. " + e.getMessage(), e);
+            }
+        });
+        return value.isPresent();
+    }
+
+    private static ConsistencyLevel toConsistencyLevel(final String value) {
+        final String key = value.replace("_", "").toUpperCase(Locale.ROOT);
+        return Arrays.stream(ConsistencyLevel.values()).filter(l -> l.name().replace("_", "").equals(key)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Valid values are: " + Arrays.stream(ConsistencyLevel.values())
+                        .map(Enum::name).collect(Collectors.joining(", ")) + "."));
+    }
+
+    private static List<String> toRegions(final Object value) {
+        final Collection<?> regions = value instanceof Collection ? (Collection<?>) value
+                : isNull(value) ? Collections.emptyList() : Arrays.asList(String.valueOf(value).split(","));
+        return regions.stream().map(String::valueOf).map(StringUtil::trimToNull).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static Boolean toBoolean(final String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.valueOf(value);
+        }
+        throw new IllegalArgumentException("Valid values are: true, false.");
+    }
+
+    private static Integer toPositiveInt(final String value) {
+        final int parsed = Integer.parseInt(value);
+        if (parsed < 1) {
+            throw new IllegalArgumentException("Must be positive.");
+        }
+        return parsed;
+    }
+
+    private static Integer toNonNegativeInt(final String value) {
+        final int parsed = Integer.parseInt(value);
+        if (parsed < 0) {
+            throw new IllegalArgumentException("Must not be negative.");
+        }
+        return parsed;
+    }
+
+    private static Duration toDuration(final String value) {
+        final Duration parsed = Duration.parse(value);
+        if (parsed.isNegative() || parsed.isZero()) {
+            throw new IllegalArgumentException("Must be a positive ISO-8601 duration, e.g. PT5S.");
+        }
+        return parsed;
+    }
+}
@@ -20,9 +20,15 @@ package liquibase.ext.cosmosdb.database;
  * #L%
  */
 
+import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.ThroughputProperties;
+import liquibase.Scope;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsCollector;
 import liquibase.nosql.database.AbstractNoSqlConnection;
+import liquibase.nosql.executor.NoSqlStatementListener;
 import liquibase.util.StringUtil;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -33,6 +39,8 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.function.Function;
 
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.FORBIDDEN;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
 import static java.util.Objects.isNull;
 import static java.util.Optional.ofNullable;
 import static liquibase.ext.cosmosdb.database.CosmosConnectionString.*;
@@ -50,6 +58,27 @@ public class CosmosConnection extends AbstractNoSqlConnection {
 
     private CosmosDatabase cosmosDatabase;
 
+    /**
+     * The same database as {@link #cosmosDatabase}, for statements issuing many requests concurrently.
+     */
+    private CosmosAsyncDatabase cosmosAsyncDatabase;
+
+    private final CosmosContainerMetadataCache containerMetadataCache = new CosmosContainerMetadataCache();
+
+    private final RequestChargeRateLimiters rateLimiters = new RequestChargeRateLimiters();
+
+    /**
+     * @return the collector of the request metrics of the client, empty when the connection is closed
+     */
+    public Optional<StatementMetricsCollector> getStatementMetrics() {
+        return ofNullable(cosmosClient).map(CosmosClientProxy::getStatementMetrics);
+    }
+
+    @Override
+    public Optional<NoSqlStatementListener> getStatementListener() {
+        return getStatementMetrics().map(NoSqlStatementListener.class::cast);
+    }
+
     @Override
     public String getCatalog() throws DatabaseException {
         return this.cosmosConnectionString.getDatabaseName().orElse("");
@@ -99,7 +128,8 @@ public class CosmosConnection extends AbstractNoSqlConnection {
     /**
      * Opens a CosmosConnection based
      * Creates a new client with the given connection string.
-     * Creates a database if not exists with the DatabaseName passed via {@link CosmosConnectionString#fromJsonConnectionString(String)}
+     * Reads the database with the DatabaseName passed via {@link CosmosConnectionString#fromJsonConnectionString(String)},
+     * creating it if it does not exist and {@link CosmosConnectionString#CREATE_DATABASE_PROPERTY} allows it
      *
      * <p>Note: Intended for driver and library authors to associate extra driver metadata with the connections.</p>
      *
@@ -129,13 +159,67 @@ public class CosmosConnection extends AbstractNoSqlConnection {
         final String databaseName = cosmosConnectionString.getDatabaseName().get(); //NOSONAR
 
         try {
-            this.cosmosClient.createDatabaseIfNotExists(databaseName);
-            this.cosmosDatabase = this.cosmosClient.getDatabase(databaseName);
+            this.cosmosDatabase = bootstrapDatabase(databaseName, cosmosConnectionString);
+            this.cosmosAsyncDatabase = this.cosmosClient.getAsyncDatabase(databaseName);
+        } catch (final DatabaseException e) {
+            releaseClient();
+            throw e;
         } catch (final Exception e) {
+            releaseClient();
             throw new DatabaseException("Could not create database: " + databaseName, e);
         }
     }
 
+    /**
+     * Closes the client of a connection that failed to open. Without a database {@link #isClosed()} already holds,
+     * so {@link #close()} would leave the client, possibly shared with other connections, open.
+     */
+    private void releaseClient() {
+        try {
+            this.cosmosClient.close();
+        } catch (final RuntimeException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Could not close the client of the failed connection", e);
+        }
+        this.cosmosClient = null;
+        this.cosmosDatabase = null;
+        this.cosmosAsyncDatabase = null;
+    }
+
+    /**
+     * Reads the database and creates it only if it is missing and {@link CosmosConnectionString#getCreateDatabase()}
+     * allows it. Unlike {@code createDatabaseIfNotExists}, which always writes to the control plane, the existing
+     * database of every later run costs a single point read.
+     */
+    private CosmosDatabase bootstrapDatabase(final String databaseName, final CosmosConnectionString cosmosConnectionString)
+            throws DatabaseException {
+        final CosmosDatabase database = this.cosmosClient.getDatabase(databaseName);
+        final CreateDatabase createDatabase = cosmosConnectionString.getCreateDatabase();
+        try {
+            database.read();
+            return database;
+        } catch (final CosmosException e) {
+            if (e.getStatusCode() == FORBIDDEN && createDatabase == CreateDatabase.AUTO) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Not allowed to read database " + databaseName
+                        + ", assuming it exists");
+                return database;
+            }
+            if (e.getStatusCode() != NOTFOUND) {
+                throw e;
+            }
+        }
+        if (createDatabase == CreateDatabase.FALSE) {
+            throw new DatabaseException("Database " + databaseName + " does not exist and "
+                    + CREATE_DATABASE_PROPERTY + " is false");
+        }
+        final ThroughputProperties throughput = cosmosConnectionString.getDatabaseThroughput();
+        if (isNull(throughput)) {
+            this.cosmosClient.createDatabaseIfNotExists(databaseName);
+        } else {
+            this.cosmosClient.createDatabaseIfNotExists(databaseName, throughput);
+        }
+        return database;
+    }
+
     @Override
     public boolean supports(String url) {
         return !StringUtil.isEmpty(StringUtil.trimToNull(url)) && url.startsWith(COSMOSDB_PREFIX);
@@ -154,8 +238,12 @@ public class CosmosConnection extends AbstractNoSqlConnection {
     }
 
     private void reset() {
+        Scope.getCurrentScope().getLog(getClass()).fine(containerMetadataCache.toString());
+        this.containerMetadataCache.invalidateAll();
+        this.rateLimiters.invalidateAll();
         this.cosmosClient = null;
         this.cosmosDatabase = null;
+        this.cosmosAsyncDatabase = null;
         this.cosmosConnectionString = null;
     }
 
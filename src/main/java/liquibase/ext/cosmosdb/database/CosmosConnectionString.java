@@ -2,10 +2,9 @@ package liquibase.ext.cosmosdb.database;
 
 import com.azure.core.util.UrlBuilder;
 import com.azure.cosmos.ConnectionMode;
+import com.azure.cosmos.models.ThroughputProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import liquibase.util.StringUtil;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.util.Collections;
@@ -14,15 +13,36 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
+import static java.util.Objects.isNull;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.OBJECT_MAPPER;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.toThroughputProperties;
 
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CosmosConnectionString {
 
     public static final String ACCOUNT_ENDPOINT_PROPERTY = "accountEndpoint";
     public static final String ACCOUNT_KEY_PROPERTY = "accountKey";
     public static final String DATABASE_NAME_PROPERTY = "databaseName";
     public static final String CONNECTION_MODE_PROPERTY = "connectionMode";
+    public static final String CREATE_DATABASE_PROPERTY = "createDatabase";
+    public static final String DATABASE_THROUGHPUT_PROPERTY = "databaseThroughput";
+
+    /**
+     * Whether {@link CosmosConnection} creates a missing database.
+     */
+    public enum CreateDatabase {
+        /**
+         * Creates the database if it is missing.
+         */
+        TRUE,
+        /**
+         * Fails if the database is missing, for identities that may not create databases.
+         */
+        FALSE,
+        /**
+         * Creates the database if it is missing, and assumes it exists if the identity may not read it.
+         */
+        AUTO
+    }
 
     public static final String COSMOSDB_PREFIX = "cosmosdb://";
     public static final String COSMOSDB_JSON_PREFIX = COSMOSDB_PREFIX + "{";
@@ -34,6 +54,29 @@ public class CosmosConnectionString {
     @Getter
     private final Map<String, String> properties;
 
+    /**
+     * The client settings, validated when the connection string is parsed.
+     */
+    @Getter
+    private final CosmosClientTuning clientTuning;
+
+    @Getter
+    private final CreateDatabase createDatabase;
+
+    /**
+     * The throughput shared by the containers of a database created by the connection, null if none.
+     */
+    @Getter
+    private final ThroughputProperties databaseThroughput;
+
+    private CosmosConnectionString(final String connectionString, final Map<String, String> properties) {
+        this.connectionString = connectionString;
+        this.properties = properties;
+        this.clientTuning = CosmosClientTuning.of(properties);
+        this.createDatabase = parseCreateDatabase(properties);
+        this.databaseThroughput = parseDatabaseThroughput(properties);
+    }
+
     public String toUrl() {
         try {
             Map<String, String> editedProperties = new HashMap<>(properties);
@@ -87,6 +130,7 @@ public class CosmosConnectionString {
             throw new IllegalArgumentException("Url should not be empty and has to start with: " + COSMOSDB_PREFIX);
         }
 
+        final Map<String, String> properties;
         try {
             int beginIndex = url.indexOf(':', COSMOSDB_PREFIX.length());
             int endIndex = url.indexOf('@', beginIndex + 1);
@@ -95,7 +139,7 @@ public class CosmosConnectionString {
             final String httpsUrl = HTTPS_PREFIX + url.substring(endIndex +1 );
 
             final UrlBuilder urlBuilder = UrlBuilder.parse(httpsUrl);
-            final Map<String, String> properties = new HashMap<>(urlBuilder.getQuery());
+            properties = new HashMap<>(urlBuilder.getQuery());
             urlBuilder.setQuery(null);
 
             final String databaseName = urlBuilder.getPath().replace("/", "");
@@ -104,11 +148,10 @@ public class CosmosConnectionString {
             properties.put(ACCOUNT_ENDPOINT_PROPERTY, urlBuilder.toString());
             properties.put(ACCOUNT_KEY_PROPERTY, accountKey);
             properties.put(DATABASE_NAME_PROPERTY, databaseName);
-
-            return new CosmosConnectionString(url, properties);
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not parse connection Url String: ", e);
         }
+        return new CosmosConnectionString(url, properties);
     }
 
     public Optional<String> getProperty(final String propertyName) {
@@ -127,6 +170,36 @@ public class CosmosConnectionString {
         return getProperty(DATABASE_NAME_PROPERTY);
     }
 
+    private static CreateDatabase parseCreateDatabase(final Map<String, ?> properties) {
+        final Object value = properties.get(CREATE_DATABASE_PROPERTY);
+        final String trimmed = isNull(value) ? null : StringUtil.trimToNull(String.valueOf(value));
+        if (isNull(trimmed)) {
+            return CreateDatabase.AUTO;
+        }
+        try {
+            return CreateDatabase.valueOf(trimmed.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid createDatabase: '" + trimmed + "'. Valid values are: true, false, auto.", e);
+        }
+    }
+
+    private static ThroughputProperties parseDatabaseThroughput(final Map<String, ?> properties) {
+        final Object value = properties.get(DATABASE_THROUGHPUT_PROPERTY);
+        if (isNull(value)) {
+            return null;
+        }
+        try {
+            final ThroughputProperties throughput = toThroughputProperties(value instanceof String
+                    ? (String) value : OBJECT_MAPPER.writeValueAsString(value));
+            if (isNull(throughput)) {
+                throw new IllegalArgumentException("Expected a number or {\"maxThroughput\": number}");
+            }
+            return throughput;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid databaseThroughput: '" + value + "'. " + e.getMessage(), e);
+        }
+    }
+
     public Optional<ConnectionMode> getConnectionMode() {
         return getProperty(CONNECTION_MODE_PROPERTY)
                 .map(StringUtil::trimToNull)
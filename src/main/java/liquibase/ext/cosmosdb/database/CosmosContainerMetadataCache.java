@@ -0,0 +1,170 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosContainerProperties;
+import com.azure.cosmos.models.ThroughputProperties;
+import com.azure.cosmos.models.ThroughputResponse;
+import liquibase.ext.cosmosdb.statement.PartitionKeyExtractor;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.BADREQUEST;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.DEFAULT_PARTITION_KEY_PATH;
+
+/**
+ * Caches container metadata (existence, partition key definition, indexing policy, throughput) per
+ * {@link CosmosConnection}.
+ * <p>
+ * Entries are loaded lazily on first use and live until invalidated by a statement that changes or removes the
+ * container, or until the connection is closed. Metadata reads are throttled separately from data operations on the
+ * service, so item statements should go through this cache instead of calling {@link CosmosContainer#read()}.
+ */
+public class CosmosContainerMetadataCache {
+
+    private final Map<String, Boolean> existence = new ConcurrentHashMap<>();
+    private final Map<String, CosmosContainerProperties> properties = new ConcurrentHashMap<>();
+    private final Map<String, Optional<ThroughputProperties>> throughput = new ConcurrentHashMap<>();
+    private final Map<String, PartitionKeyExtractor> partitionKeyExtractors = new ConcurrentHashMap<>();
+    private final Map<String, Optional<ThroughputProperties>> databaseThroughput = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param container the container
+     * @return the container properties, read from the service on the first call
+     */
+    public CosmosContainerProperties getProperties(final CosmosContainer container) {
+        return lookup(properties, container, c -> c.read().getProperties());
+    }
+
+    /**
+     * Checks the existence of a container with a point read of its properties instead of listing the containers of
+     * the database. A missing container is cached as well, until a statement creating it invalidates the entry.
+     *
+     * @param container the container
+     * @return true if the container exists
+     */
+    public boolean exists(final CosmosContainer container) {
+        if (properties.containsKey(container.getId())) {
+            hits.increment();
+            return true;
+        }
+        return lookup(existence, container, c -> {
+            try {
+                properties.putIfAbsent(c.getId(), c.read().getProperties());
+                return Boolean.TRUE;
+            } catch (final CosmosException e) {
+                if (e.getStatusCode() == NOTFOUND) {
+                    return Boolean.FALSE;
+                }
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * @param container the container
+     * @return the first partition key path of the container, {@link liquibase.ext.cosmosdb.statement.JsonUtils#DEFAULT_PARTITION_KEY_PATH} if none
+     */
+    public String getPartitionKeyPath(final CosmosContainer container) {
+        return getProperties(container).getPartitionKeyDefinition().getPaths().stream()
+                .findFirst().orElse(DEFAULT_PARTITION_KEY_PATH);
+    }
+
+    /**
+     * @param container the container
+     * @return the extractor for the partition key definition of the container, covering all hierarchical paths
+     */
+    public PartitionKeyExtractor getPartitionKeyExtractor(final CosmosContainer container) {
+        return lookup(partitionKeyExtractors, container, c -> PartitionKeyExtractor.of(getProperties(c).getPartitionKeyDefinition()));
+    }
+
+    /**
+     * @param container the container
+     * @return the throughput provisioned on the container, empty if it shares the database throughput
+     */
+    public Optional<ThroughputProperties> getThroughput(final CosmosContainer container) {
+        return lookup(throughput, container, c -> readThroughput(c::readThroughput));
+    }
+
+    /**
+     * @param database the database
+     * @return the throughput shared by the containers of the database, empty if there is none
+     */
+    public Optional<ThroughputProperties> getDatabaseThroughput(final CosmosDatabase database) {
+        final Optional<ThroughputProperties> cached = databaseThroughput.get(database.getId());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        return databaseThroughput.computeIfAbsent(database.getId(), id -> {
+            misses.increment();
+            return readThroughput(database::readThroughput);
+        });
+    }
+
+    /**
+     * Drops the cached metadata of a container. To be called after the container was replaced or deleted.
+     *
+     * @param containerId the container id
+     */
+    public void invalidate(final String containerId) {
+        existence.remove(containerId);
+        properties.remove(containerId);
+        throughput.remove(containerId);
+        partitionKeyExtractors.remove(containerId);
+    }
+
+    public void invalidateAll() {
+        existence.clear();
+        properties.clear();
+        throughput.clear();
+        partitionKeyExtractors.clear();
+        databaseThroughput.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("container metadata cache hits: %d, misses: %d", getHits(), getMisses());
+    }
+
+    private <T> T lookup(final Map<String, T> cache, final CosmosContainer container, final Function<CosmosContainer, T> loader) {
+        final T cached = cache.get(container.getId());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        return cache.computeIfAbsent(container.getId(), id -> {
+            misses.increment();
+            return loader.apply(container);
+        });
+    }
+
+    private static Optional<ThroughputProperties> readThroughput(final Supplier<ThroughputResponse> reader) {
+        try {
+            return Optional.ofNullable(reader.get()).map(ThroughputResponse::getProperties);
+        } catch (final CosmosException e) {
+            // Thrown when there is no dedicated throughput offer, or on serverless accounts
+            if (e.getStatusCode() == BADREQUEST || e.getStatusCode() == NOTFOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+}
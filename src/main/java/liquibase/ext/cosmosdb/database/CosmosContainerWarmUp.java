@@ -0,0 +1,105 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.ConnectionMode;
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.models.CosmosContainerIdentity;
+import com.azure.cosmos.models.CosmosContainerProactiveInitConfigBuilder;
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.logging.Logger;
+import liquibase.util.StringUtil;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Opens the connections to the containers used first by an update while the changelog is still being parsed, see
+ * {@link CosmosConfiguration#WARM_UP_ENABLED}.
+ * <p>
+ * With preferred regions the client builder is given a {@link com.azure.cosmos.models.CosmosContainerProactiveInitConfig}
+ * and warms the containers up in the background on its own. The SDK requires preferred regions for that, so without
+ * them each container is warmed up through the asynchronous client after the client was built. Either way a failed
+ * warm-up, e.g. of a container that does not exist yet, only costs the latency it was meant to save.
+ */
+public class CosmosContainerWarmUp {
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    @Getter
+    private final String databaseName;
+
+    @Getter
+    private final List<String> containerIds;
+
+    CosmosContainerWarmUp(final String databaseName, final List<String> containerIds) {
+        this.databaseName = databaseName;
+        this.containerIds = containerIds;
+    }
+
+    /**
+     * @param cosmosConnectionString the connection string
+     * @param connectionMode         the connection mode of the client
+     * @return the warm-up of the changelog, lock and configured containers, empty if disabled or in gateway mode
+     */
+    public static Optional<CosmosContainerWarmUp> fromConfiguration(final CosmosConnectionString cosmosConnectionString,
+                                                                    final Optional<ConnectionMode> connectionMode) {
+        if (!Boolean.TRUE.equals(CosmosConfiguration.WARM_UP_ENABLED.getCurrentValue())
+                || connectionMode.filter(ConnectionMode.GATEWAY::equals).isPresent()
+                || !cosmosConnectionString.getDatabaseName().isPresent()) {
+            return Optional.empty();
+        }
+        final Set<String> containerIds = new LinkedHashSet<>();
+        containerIds.add(GlobalConfiguration.DATABASECHANGELOG_TABLE_NAME.getCurrentValue());
+        containerIds.add(GlobalConfiguration.DATABASECHANGELOGLOCK_TABLE_NAME.getCurrentValue());
+        Optional.ofNullable(CosmosConfiguration.WARM_UP_CONTAINERS.getCurrentValue())
+                .map(ids -> Arrays.stream(ids.split(",")).map(StringUtil::trimToNull).filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .ifPresent(containerIds::addAll);
+        return Optional.of(new CosmosContainerWarmUp(cosmosConnectionString.getDatabaseName().get(), //NOSONAR
+                containerIds.stream().filter(Objects::nonNull).collect(Collectors.toList())));
+    }
+
+    /**
+     * Lets the client warm the containers up itself, which the SDK supports only with preferred regions.
+     *
+     * @param builder          the client builder
+     * @param preferredRegions the preferred regions of the client
+     * @return true if the builder was configured, false if {@link #start(CosmosAsyncClient)} has to be called instead
+     */
+    public boolean configure(final CosmosClientBuilder builder, final List<String> preferredRegions) {
+        if (preferredRegions.isEmpty()) {
+            return false;
+        }
+        final List<CosmosContainerIdentity> identities = containerIds.stream()
+                .map(id -> new CosmosContainerIdentity(databaseName, id)).collect(Collectors.toList());
+        // No aggressive warm-up duration: building the client does not wait for the connections
+        builder.openConnectionsAndInitCaches(new CosmosContainerProactiveInitConfigBuilder(identities)
+                .setProactiveConnectionRegionsCount(1)
+                .build());
+        return true;
+    }
+
+    /**
+     * Warms the containers up in the background through the asynchronous client.
+     *
+     * @param client the asynchronous client
+     */
+    @SuppressWarnings("deprecation")
+    public void start(final CosmosAsyncClient client) {
+        for (final String containerId : containerIds) {
+            client.getDatabase(databaseName).getContainer(containerId).openConnectionsAndInitCaches()
+                    .subscribe(
+                            ignored -> { },
+                            e -> log.fine("Could not warm up container " + containerId + ": " + e.getMessage()),
+                            () -> log.fine("Warmed up container " + containerId));
+        }
+    }
+}
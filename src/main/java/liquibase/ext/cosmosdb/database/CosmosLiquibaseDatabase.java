@@ -20,6 +20,8 @@ package liquibase.ext.cosmosdb.database;
  * #L%
  */
 
+import com.azure.cosmos.CosmosAsyncDatabase;
+import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.CosmosDatabase;
 import liquibase.CatalogAndSchema;
 import liquibase.Scope;
@@ -28,7 +30,9 @@ import liquibase.database.DatabaseConnection;
 import liquibase.exception.LiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
 import liquibase.ext.cosmosdb.statement.DeleteAllContainersStatement;
+import liquibase.ext.cosmosdb.statement.RequestChargeRateLimiter;
 import liquibase.nosql.database.AbstractNoSqlDatabase;
 import liquibase.nosql.executor.NoSqlExecutor;
 
@@ -65,6 +69,28 @@ public class CosmosLiquibaseDatabase extends AbstractNoSqlDatabase {
         return ((CosmosConnection) getConnection()).getCosmosDatabase();
     }
 
+    public CosmosAsyncDatabase getCosmosAsyncDatabase() {
+        return ((CosmosConnection) getConnection()).getCosmosAsyncDatabase();
+    }
+
+    public CosmosContainerMetadataCache getContainerMetadataCache() {
+        return ((CosmosConnection) getConnection()).getContainerMetadataCache();
+    }
+
+    /**
+     * @param container the container
+     * @return the limiter keeping item statements on the container within the configured request unit budget
+     */
+    public RequestChargeRateLimiter getRateLimiter(final CosmosContainer container) {
+        return ((CosmosConnection) getConnection()).getRateLimiters()
+                .forContainer(getCosmosDatabase(), container, getContainerMetadataCache());
+    }
+
+    @Override
+    public int getAsyncMaxConcurrency() {
+        return CosmosConfiguration.ASYNC_MAX_CONCURRENCY.getCurrentValue();
+    }
+
     @Override
     public String getDatabaseProductName() {
         return COSMOSDB_PRODUCT_NAME;
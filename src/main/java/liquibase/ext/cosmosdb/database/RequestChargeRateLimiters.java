@@ -0,0 +1,109 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.models.ThroughputProperties;
+import liquibase.Scope;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.statement.RequestChargeRateLimiter;
+import liquibase.util.StringUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Hands out the {@link RequestChargeRateLimiter} of each container per {@link CosmosConnection}, so that all item
+ * statements working on a container share its request unit budget.
+ * <p>
+ * The budget is {@link CosmosConfiguration#THROUGHPUT_BUDGET_PERCENT} of the provisioned throughput, overridable per
+ * container with {@link CosmosConfiguration#THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER}. Autoscale containers are budgeted
+ * on their maximum throughput. Containers sharing the database throughput share one limiter, and without provisioned
+ * throughput (serverless accounts) there is no limit.
+ */
+public class RequestChargeRateLimiters {
+
+    private final Map<String, RequestChargeRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * @param database      the database of the container
+     * @param container     the container
+     * @param metadataCache provides the provisioned throughput
+     * @return the limiter for the container, {@link RequestChargeRateLimiter#UNLIMITED} if no budget applies
+     */
+    public RequestChargeRateLimiter forContainer(final CosmosDatabase database, final CosmosContainer container,
+                                                 final CosmosContainerMetadataCache metadataCache) {
+        final int percent = budgetPercent(container.getId());
+        if (percent <= 0) {
+            return RequestChargeRateLimiter.UNLIMITED;
+        }
+        final Optional<ThroughputProperties> dedicated = metadataCache.getThroughput(container);
+        if (dedicated.isPresent()) {
+            return lookup(container.getId(), dedicated.get(), percent);
+        }
+        // Containers without dedicated throughput draw from the same database wide budget
+        return metadataCache.getDatabaseThroughput(database)
+                .map(shared -> lookup("/" + database.getId(), shared, percent))
+                .orElse(RequestChargeRateLimiter.UNLIMITED);
+    }
+
+    public void invalidateAll() {
+        limiters.clear();
+    }
+
+    /**
+     * Reuses the limiter of the key as long as its budget still matches the throughput, which is re-read once the
+     * metadata cache entry of a replaced container is invalidated.
+     */
+    private RequestChargeRateLimiter lookup(final String key, final ThroughputProperties throughput, final int percent) {
+        final int provisioned = isNull(throughput.getManualThroughput())
+                ? throughput.getAutoscaleMaxThroughput() : throughput.getManualThroughput();
+        if (provisioned <= 0) {
+            return RequestChargeRateLimiter.UNLIMITED;
+        }
+        final double budget = provisioned * Math.min(percent, 100) / 100.0;
+        return limiters.compute(key, (k, existing) -> {
+            if (existing != null && existing.getRequestUnitsPerSecond() == budget) {
+                return existing;
+            }
+            final RequestChargeRateLimiter limiter = new RequestChargeRateLimiter(budget);
+            Scope.getCurrentScope().getLog(getClass()).info(String.format(
+                    "Limiting item statements on %s to %d%% of %d RU/s", key, percent, provisioned));
+            return limiter;
+        });
+    }
+
+    static int budgetPercent(final String containerId) {
+        final Integer override = parseOverrides(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER.getCurrentValue())
+                .get(containerId);
+        return isNull(override) ? CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT.getCurrentValue() : override;
+    }
+
+    /**
+     * @param overrides a comma separated list of containerId=percent
+     * @return the percent by container id
+     */
+    static Map<String, Integer> parseOverrides(final String overrides) {
+        if (isNull(StringUtil.trimToNull(overrides))) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Integer> percentByContainer = new HashMap<>();
+        for (final String entry : overrides.split(",")) {
+            final String[] keyValue = entry.split("=", 2);
+            if (keyValue.length != 2 || isNull(StringUtil.trimToNull(keyValue[0]))) {
+                throw new IllegalArgumentException("Invalid throughput budget entry, expected containerId=percent: " + entry);
+            }
+            try {
+                percentByContainer.put(keyValue[0].trim(), Integer.valueOf(keyValue[1].trim()));
+            } catch (final NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid throughput budget percent for container "
+                        + keyValue[0].trim() + ": " + keyValue[1], e);
+            }
+        }
+        return percentByContainer;
+    }
+}
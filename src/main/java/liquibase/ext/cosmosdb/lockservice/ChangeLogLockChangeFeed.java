@@ -0,0 +1,92 @@
+package liquibase.ext.cosmosdb.lockservice;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosChangeFeedRequestOptions;
+import com.azure.cosmos.models.FeedRange;
+import com.azure.cosmos.models.FeedResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Follows the change feed of the changelog lock container, so a waiting runner notices a released lock right after
+ * the release instead of after the next recheck.
+ * <p>
+ * The feed starts at the time of {@link #start()}. Only writes show up in it: a lock document that expired through
+ * its time to live is noticed on the next regular attempt.
+ */
+public class ChangeLogLockChangeFeed {
+
+    private final CosmosContainer container;
+
+    private final long pollIntervalMillis;
+
+    private String continuationToken;
+
+    public ChangeLogLockChangeFeed(final CosmosContainer container, final long pollIntervalMillis) {
+        this.container = container;
+        this.pollIntervalMillis = pollIntervalMillis;
+    }
+
+    /**
+     * Positions the feed at the current time, changes written before are not reported.
+     */
+    public void start() {
+        this.continuationToken = null;
+        read(CosmosChangeFeedRequestOptions.createForProcessingFromNow(FeedRange.forFullRange()));
+    }
+
+    /**
+     * Reads the feed every poll interval until a change arrives or the timeout elapsed.
+     *
+     * @param timeoutMillis how long to wait at most
+     * @return true if the lock container changed since the previous read
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitChange(final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+            final CosmosChangeFeedRequestOptions options = nonNull(continuationToken)
+                    ? CosmosChangeFeedRequestOptions.createForProcessingFromContinuation(continuationToken)
+                    : CosmosChangeFeedRequestOptions.createForProcessingFromNow(FeedRange.forFullRange());
+            if (read(options)) {
+                return true;
+            }
+            final long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            //noinspection BusyWait
+            Thread.sleep(Math.min(pollIntervalMillis, remaining));
+        }
+    }
+
+    private boolean read(final CosmosChangeFeedRequestOptions options) {
+        boolean changed = false;
+        for (final FeedResponse<JsonNode> page : container.queryChangeFeed(options, JsonNode.class).iterableByPage()) {
+            changed |= !page.getResults().isEmpty();
+            if (nonNull(page.getContinuationToken())) {
+                continuationToken = page.getContinuationToken();
+            }
+        }
+        return changed;
+    }
+}
@@ -26,6 +26,9 @@ public class ChangeLogLockToDocumentConverter extends AbstractItemToDocumentConv
         document.put(CosmosChangeLogLock.Fields.lockGranted, fromDate(item.getLockGranted()));
         document.put(CosmosChangeLogLock.Fields.lockedBy, item.getLockedBy());
         document.put(CosmosChangeLogLock.Fields.locked, item.getLocked());
+        if (item.getTtl() != null) {
+            document.put(CosmosChangeLogLock.Fields.ttl, item.getTtl());
+        }
 
         return document;
     }
@@ -37,6 +40,7 @@ public class ChangeLogLockToDocumentConverter extends AbstractItemToDocumentConv
                 .lockGranted(ofNullable(document.get(CosmosChangeLogLock.Fields.lockGranted)).map(s -> toDate((String) s)).orElse(null))
                 .lockedBy(ofNullable((String) document.get(CosmosChangeLogLock.Fields.lockedBy)).orElse(""))
                 .locked((Boolean) ofNullable(document.get(CosmosChangeLogLock.Fields.locked)).orElse(null))
+                .ttl(ofNullable(document.get(CosmosChangeLogLock.Fields.ttl)).map(t -> ((Number) t).intValue()).orElse(null))
                 .build();
     }
 }
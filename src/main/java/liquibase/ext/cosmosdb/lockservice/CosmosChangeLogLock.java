@@ -39,15 +39,25 @@ public class CosmosChangeLogLock extends DatabaseChangeLogLock{
     private String lockedBy;
     private Boolean locked;
 
+    /**
+     * Seconds after its last renewal the service removes the lock document, null to keep it.
+     */
+    private Integer ttl;
+
     public CosmosChangeLogLock() {
         this(1, new Date(), "default", false);
     }
 
     public CosmosChangeLogLock(final int id, final Date lockGranted, final String lockedBy, final Boolean locked) {
+        this(id, lockGranted, lockedBy, locked, null);
+    }
+
+    public CosmosChangeLogLock(final int id, final Date lockGranted, final String lockedBy, final Boolean locked, final Integer ttl) {
         super(id, lockGranted, lockedBy);
         this.id = id;
         this.lockGranted = lockGranted;
         this.lockedBy = lockedBy;
         this.locked = locked;
+        this.ttl = ttl;
     }
 }
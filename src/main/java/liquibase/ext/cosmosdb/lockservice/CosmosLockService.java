@@ -20,31 +20,100 @@ package liquibase.ext.cosmosdb.lockservice;
  * #L%
  */
 
+import com.azure.cosmos.CosmosException;
 import liquibase.Scope;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.LockException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.database.CosmosConnection;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsCollector;
+import liquibase.ext.cosmosdb.persistence.VersionedItem;
 import liquibase.ext.cosmosdb.statement.CountContainersByNameStatement;
 import liquibase.ext.cosmosdb.statement.DeleteContainerStatement;
 import liquibase.lockservice.DatabaseChangeLogLock;
 import liquibase.logging.Logger;
 import liquibase.nosql.lockservice.AbstractNoSqlLockService;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.lang.Boolean.FALSE;
+import static java.lang.Boolean.TRUE;
+import static java.util.Objects.nonNull;
 
+/**
+ * Holds the changelog lock as a lease: the lock document expires {@link CosmosConfiguration#LOCK_LEASE_SECONDS}
+ * after it was last written, and is rewritten in the background while the lock is held. A runner that stopped
+ * without releasing the lock therefore blocks others only until its lease ran out.
+ * <p>
+ * While another runner holds the lock, attempts are spaced according to {@link CosmosConfiguration#LOCK_WAIT_STRATEGY}.
+ */
 public class CosmosLockService extends AbstractNoSqlLockService<CosmosLiquibaseDatabase> {
 
     private final Logger log = Scope.getCurrentScope().getLog(getClass());
 
+    /**
+     * The ETag of the lock document while this service holds the lock.
+     */
+    private volatile String leaseETag;
+
+    /**
+     * Keeps renewing and releasing the lease apart, so a renewal cannot relock the document after it was released.
+     */
+    private final Object leaseMonitor = new Object();
+
+    private volatile Date leaseGranted;
+
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * The first wait of {@link LockWaitStrategy#BACKOFF}, doubled on every further attempt.
+     */
+    static final long INITIAL_BACKOFF_MILLIS = 100L;
+
+    /**
+     * How often {@link LockWaitStrategy#CHANGE_FEED} reads the change feed of the lock container.
+     */
+    static final long CHANGE_FEED_POLL_MILLIS = 100L;
+
+    /**
+     * How often releasing a lease that was rewritten in the meantime is attempted.
+     */
+    static final int RELEASE_ATTEMPTS = 3;
+
+    private ChangeLogLockChangeFeed lockChangeFeed;
+
     @Override
     public boolean supports(final Database database) {
         return CosmosLiquibaseDatabase.COSMOSDB_PRODUCT_NAME.equals(database.getDatabaseProductName());
     }
 
+    /**
+     * Releases the lock and hands the metrics of the statements executed while it was held to the
+     * {@link liquibase.ext.cosmosdb.metrics.StatementMetricsListener}s, as Liquibase releases the lock at the end of
+     * every command such as {@code update}.
+     */
+    @Override
+    public void releaseLock() throws LockException {
+        try {
+            super.releaseLock();
+        } finally {
+            Optional.ofNullable(getDatabase()).map(Database::getConnection)
+                    .filter(CosmosConnection.class::isInstance).map(CosmosConnection.class::cast)
+                    .flatMap(CosmosConnection::getStatementMetrics)
+                    .ifPresent(StatementMetricsCollector::updateCompleted);
+        }
+    }
+
     @Override
     protected Boolean isLocked() throws DatabaseException {
         final Optional<CosmosChangeLogLock> lock = Optional.ofNullable(getExecutor()
@@ -52,11 +121,178 @@ public class CosmosLockService extends AbstractNoSqlLockService<CosmosLiquibaseD
         return lock.map(CosmosChangeLogLock::getLocked).orElse(FALSE);
     }
 
+    @Override
+    public void reset() {
+        stopHeartbeat();
+        synchronized (leaseMonitor) {
+            this.leaseETag = null;
+        }
+        this.lockChangeFeed = null;
+        super.reset();
+    }
+
+    @Override
+    protected void waitForLockChange(final int attempt, final long recheckMillis) throws InterruptedException {
+        switch (LockWaitStrategy.of(CosmosConfiguration.LOCK_WAIT_STRATEGY.getCurrentValue())) {
+            case BACKOFF:
+                Thread.sleep(backoffMillis(attempt, recheckMillis));
+                break;
+            case CHANGE_FEED:
+                waitForLockDocumentChange(attempt, recheckMillis);
+                break;
+            default:
+                super.waitForLockChange(attempt, recheckMillis);
+        }
+    }
+
+    /**
+     * Exponential backoff with equal jitter: half of the wait is fixed, the other half random, so runners that
+     * started waiting together do not retry in lockstep.
+     *
+     * @param attempt   the number of attempts that failed before, starting at 0
+     * @param maxMillis the upper bound of the wait
+     * @return the time to wait in milliseconds
+     */
+    static long backoffMillis(final int attempt, final long maxMillis) {
+        final long ceiling = Math.min(maxMillis, INITIAL_BACKOFF_MILLIS << Math.min(attempt, 20));
+        final long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    private void waitForLockDocumentChange(final int attempt, final long recheckMillis) throws InterruptedException {
+        try {
+            if (attempt == 0 || lockChangeFeed == null) {
+                // Attempt again right away, the lock may have been released before the feed was started
+                lockChangeFeed = new ChangeLogLockChangeFeed(getDatabase().getCosmosDatabase()
+                        .getContainer(getDatabaseChangeLogLockTableName()), CHANGE_FEED_POLL_MILLIS);
+                lockChangeFeed.start();
+                return;
+            }
+            if (lockChangeFeed.awaitChange(recheckMillis)) {
+                getLogger().fine("Changelog lock changed, attempting to acquire it");
+            }
+        } catch (final CosmosException e) {
+            getLogger().warning("Could not read the change feed of the changelog lock, backing off", e);
+            lockChangeFeed = null;
+            Thread.sleep(backoffMillis(attempt, recheckMillis));
+        }
+    }
+
     @Override
     protected int replaceLock(final boolean locked) throws DatabaseException {
-        return getExecutor().update(
-                new ReplaceLockChangeLogStatement(getDatabaseChangeLogLockTableName(), locked)
-        );
+        final int leaseSeconds = CosmosConfiguration.LOCK_LEASE_SECONDS.getCurrentValue();
+        if (locked) {
+            final ReplaceLockChangeLogStatement statement = new ReplaceLockChangeLogStatement(
+                    getDatabaseChangeLogLockTableName(), true, leaseSeconds > 0 ? leaseSeconds : null);
+            final int rowsUpdated = getExecutor().update(statement);
+            if (rowsUpdated == 1) {
+                synchronized (leaseMonitor) {
+                    this.leaseETag = statement.getETag();
+                    this.leaseGranted = statement.getLockGranted();
+                }
+                if (leaseSeconds > 0) {
+                    startHeartbeat(leaseSeconds);
+                }
+            }
+            return rowsUpdated;
+        }
+
+        stopHeartbeat();
+        synchronized (leaseMonitor) {
+            final String eTag = this.leaseETag;
+            this.leaseETag = null;
+            return releaseLease(eTag);
+        }
+    }
+
+    /**
+     * Releases the lock conditionally on the ETag of the lease. If the lock document changed since, e.g. as a renewal
+     * in flight when the heartbeat was stopped still reached the service, it is read again and released for as long as
+     * this service holds it.
+     *
+     * @param eTag the ETag of the lease, null to release the lock whoever holds it
+     * @return 1 if the lock is no longer held by this service, 0 if it could not be released
+     */
+    private int releaseLease(final String eTag) throws DatabaseException {
+        String ifMatchETag = eTag;
+        for (int attempt = 0; attempt < RELEASE_ATTEMPTS; attempt++) {
+            final ReplaceLockChangeLogStatement statement
+                    = new ReplaceLockChangeLogStatement(getDatabaseChangeLogLockTableName(), false);
+            // Without a lease of its own, e.g. on forceReleaseLock, the lock is released whoever holds it
+            statement.setIfMatchETag(ifMatchETag);
+            if (getExecutor().update(statement) == 1) {
+                return 1;
+            }
+            final SelectChangeLogLockStatement select = new SelectChangeLogLockStatement(getDatabaseChangeLogLockTableName());
+            final Optional<VersionedItem<CosmosChangeLogLock>> current = select.readVersioned(getDatabase());
+            final Optional<CosmosChangeLogLock> lock = current.map(VersionedItem::getItem);
+            if (!lock.map(CosmosChangeLogLock::getLocked).filter(TRUE::equals).isPresent()) {
+                getLogger().warning("The changelog lock lease expired before it was released");
+                return 1;
+            }
+            if (!isOwnLease(lock.get())) {
+                getLogger().warning("The changelog lock lease expired and was taken over before it was released");
+                return 1;
+            }
+            getLogger().fine("The changelog lock lease was renewed while being released, releasing it again");
+            ifMatchETag = current.get().getETag();
+        }
+        return 0;
+    }
+
+    private boolean isOwnLease(final CosmosChangeLogLock lock) {
+        return ReplaceLockChangeLogStatement.LOCKED_BY.equals(lock.getLockedBy())
+                && Objects.equals(leaseGranted, lock.getLockGranted());
+    }
+
+    /**
+     * Renews the lease a few times within its time to live, so a slow or failed renewal does not let it expire.
+     */
+    private synchronized void startHeartbeat(final int leaseSeconds) {
+        stopHeartbeat();
+        final long period = Math.max(1, leaseSeconds / 3);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "cosmos-lock-heartbeat-" + getDatabaseChangeLogLockTableName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat.scheduleAtFixedRate(() -> renewLease(leaseSeconds), period, period, TimeUnit.SECONDS);
+    }
+
+    private synchronized void stopHeartbeat() {
+        if (nonNull(heartbeat)) {
+            // A renewal already running is not interrupted, releasing waits for it on the lease monitor instead
+            heartbeat.shutdown();
+            heartbeat = null;
+        }
+    }
+
+    void renewLease(final int leaseSeconds) {
+        synchronized (leaseMonitor) {
+            final String eTag = this.leaseETag;
+            if (eTag == null) {
+                // Released or lost in the meantime
+                return;
+            }
+            final ReplaceLockChangeLogStatement statement
+                    = new ReplaceLockChangeLogStatement(getDatabaseChangeLogLockTableName(), true, leaseSeconds);
+            statement.setIfMatchETag(eTag);
+            statement.setLockGranted(leaseGranted);
+            try {
+                // Executed directly as the Liquibase scope of the runner is not available on the heartbeat thread
+                if (statement.update(getDatabase()) == 1) {
+                    this.leaseETag = statement.getETag();
+                    getLogger().fine("Renewed changelog lock lease for " + leaseSeconds + " seconds");
+                } else {
+                    this.leaseETag = null;
+                    getLogger().severe("Lost the changelog lock lease, another runner may have taken over the lock");
+                    stopHeartbeat();
+                }
+            } catch (final RuntimeException e) {
+                // Retried on the next beat, while the lease has not expired yet
+                getLogger().warning("Could not renew the changelog lock lease", e);
+            }
+        }
     }
 
     @Override
@@ -81,7 +317,9 @@ public class CosmosLockService extends AbstractNoSqlLockService<CosmosLiquibaseD
 
     @Override
     protected void adjustRepository() throws DatabaseException {
-        //NOOP
+        if (CosmosConfiguration.LOCK_LEASE_SECONDS.getCurrentValue() > 0) {
+            getExecutor().execute(new EnableChangeLogLockTimeToLiveStatement(getDatabaseChangeLogLockTableName()));
+        }
     }
 
     @Override
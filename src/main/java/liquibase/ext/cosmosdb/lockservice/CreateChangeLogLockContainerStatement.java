@@ -54,8 +54,10 @@ public class CreateChangeLogLockContainerStatement extends CreateContainerStatem
             "    \"paths\": [  \n" +
             "      \"%s\"  \n" +
             "    ]  \n" +
-            "  }  \n" +
-            "}  ", JsonUtils.DEFAULT_PARTITION_KEY_PATH);
+            "  },  \n" +
+            //lock leases expire by the ttl of the lock document
+            "  \"defaultTtl\": %d  \n" +
+            "}  ", JsonUtils.DEFAULT_PARTITION_KEY_PATH, EnableChangeLogLockTimeToLiveStatement.TTL_PER_DOCUMENT);
 
     public CreateChangeLogLockContainerStatement(final String collectionName) {
         super(collectionName, OPTIONS);
@@ -0,0 +1,66 @@
+package liquibase.ext.cosmosdb.lockservice;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosContainerProperties;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
+import liquibase.nosql.statement.NoSqlExecuteStatement;
+import lombok.EqualsAndHashCode;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Turns on the time to live of the lock container without a default expiry, so the lock document expires once its
+ * {@link CosmosChangeLogLock#getTtl()} elapsed. Lock containers created by earlier versions have it turned off,
+ * in which case the service ignores the ttl of the documents.
+ */
+@EqualsAndHashCode(callSuper = true)
+public class EnableChangeLogLockTimeToLiveStatement extends AbstractCosmosContainerStatement
+        implements NoSqlExecuteStatement<CosmosLiquibaseDatabase> {
+
+    public static final String COMMAND_NAME = "enableChangeLogLockTimeToLive";
+
+    /**
+     * Enables the time to live per document, without expiring documents that have none.
+     */
+    public static final int TTL_PER_DOCUMENT = -1;
+
+    public EnableChangeLogLockTimeToLiveStatement(final String containerId) {
+        super(containerId);
+    }
+
+    @Override
+    public String getCommandName() {
+        return COMMAND_NAME;
+    }
+
+    @Override
+    public void execute(final CosmosLiquibaseDatabase database) {
+        final CosmosContainer container = database.getCosmosDatabase().getContainer(getContainerId());
+        final CosmosContainerProperties properties = database.getContainerMetadataCache().getProperties(container);
+        if (nonNull(properties.getDefaultTimeToLiveInSeconds())) {
+            return;
+        }
+        properties.setDefaultTimeToLiveInSeconds(TTL_PER_DOCUMENT);
+        container.replace(properties);
+        database.getContainerMetadataCache().invalidate(getContainerId());
+    }
+}
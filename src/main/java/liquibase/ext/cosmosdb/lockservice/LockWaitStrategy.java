@@ -0,0 +1,61 @@
+package liquibase.ext.cosmosdb.lockservice;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.util.StringUtil;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * How a runner waits between attempts to acquire the changelog lock held by another runner.
+ */
+public enum LockWaitStrategy {
+
+    /**
+     * Sleeps for the configured changelog lock recheck time between attempts.
+     */
+    POLL,
+
+    /**
+     * Sleeps for an exponentially growing time with jitter, starting short and capped at the recheck time.
+     */
+    BACKOFF,
+
+    /**
+     * Reads the change feed of the lock container and attempts again as soon as the lock document changed, at the
+     * latest after the recheck time.
+     */
+    CHANGE_FEED;
+
+    /**
+     * @param value the configured value, e.g. {@code poll}, {@code backoff} or {@code changeFeed}, case insensitive
+     * @return the strategy, {@link #POLL} if the value is empty
+     */
+    public static LockWaitStrategy of(final String value) {
+        final String normalized = StringUtil.trimToNull(value);
+        if (normalized == null) {
+            return POLL;
+        }
+        final String key = normalized.replace("_", "").replace("-", "").toUpperCase(Locale.ROOT);
+        return Arrays.stream(values()).filter(s -> s.name().replace("_", "").equals(key)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Invalid lock wait strategy: " + value
+                        + ", expected one of poll, backoff, changeFeed"));
+    }
+}
@@ -20,8 +20,10 @@ package liquibase.ext.cosmosdb.lockservice;
  * #L%
  */
 
+import com.azure.cosmos.CosmosException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.persistence.VersionedItem;
 import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
 import liquibase.nosql.statement.NoSqlUpdateStatement;
 import liquibase.util.NetUtil;
@@ -31,6 +33,23 @@ import lombok.Setter;
 import java.util.Date;
 import java.util.Optional;
 
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.CONFLICT;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.PRECONDITION_FAILED;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Writes the changelog lock document. Locking only succeeds while the document is missing or unlocked, and every
+ * write of a held lock is conditional on the ETag of the previous one, so two runners cannot both hold the lock.
+ * <ul>
+ *     <li>locking without {@link #getIfMatchETag()} acquires the lock</li>
+ *     <li>locking with {@link #getIfMatchETag()} renews a held lock</li>
+ *     <li>unlocking with {@link #getIfMatchETag()} releases a held lock</li>
+ *     <li>unlocking without {@link #getIfMatchETag()} releases the lock whoever holds it</li>
+ * </ul>
+ * {@link #update(CosmosLiquibaseDatabase)} returns 0 if the lock is held by another runner.
+ */
 @Getter
 @Setter
 public class ReplaceLockChangeLogStatement extends AbstractCosmosContainerStatement
@@ -53,12 +72,39 @@ public class ReplaceLockChangeLogStatement extends AbstractCosmosContainerStatem
         }
     }
 
+    /**
+     * Identifies this runner as the holder of the lock.
+     */
+    public static final String LOCKED_BY = HOST_NAME + HOST_DESCRIPTION + " (" + HOST_ADDRESS + ")";
+
     @Getter
     private final boolean locked;
 
+    /**
+     * Seconds the lock document lives after this write, null to keep it until it is released.
+     */
+    private Integer leaseSeconds;
+
+    /**
+     * The ETag of the lock document written when the lock was acquired or last renewed.
+     */
+    private String ifMatchETag;
+
+    private Date lockGranted = new Date();
+
+    /**
+     * The ETag of the lock document after this statement was executed.
+     */
+    private String eTag;
+
     public ReplaceLockChangeLogStatement(final String containerId, final boolean locked) {
+        this(containerId, locked, null);
+    }
+
+    public ReplaceLockChangeLogStatement(final String containerId, final boolean locked, final Integer leaseSeconds) {
         super(containerId);
         this.locked = locked;
+        this.leaseSeconds = leaseSeconds;
     }
 
     @Override
@@ -79,10 +125,36 @@ public class ReplaceLockChangeLogStatement extends AbstractCosmosContainerStatem
     protected int replace(final CosmosLiquibaseDatabase database) {
         final ChangeLogLockRepository repository = new ChangeLogLockRepository(database.getCosmosDatabase(), getContainerId());
 
-        final CosmosChangeLogLock lockEntry = new CosmosChangeLogLock(ITEM_ID_1, new Date()
-                , HOST_NAME + HOST_DESCRIPTION + " (" + HOST_ADDRESS + ")", locked);
+        final CosmosChangeLogLock lockEntry = new CosmosChangeLogLock(ITEM_ID_1, lockGranted
+                , LOCKED_BY, locked, locked ? leaseSeconds : null);
 
-        return repository.upsert(lockEntry);
+        if (!locked && isNull(ifMatchETag)) {
+            repository.upsert(lockEntry);
+            this.eTag = null;
+            return 1;
+        }
+        try {
+            final VersionedItem<CosmosChangeLogLock> written;
+            if (nonNull(ifMatchETag)) {
+                written = repository.replaceVersioned(new VersionedItem<>(lockEntry, ifMatchETag));
+            } else {
+                final Optional<VersionedItem<CosmosChangeLogLock>> current = repository.getVersioned(ITEM_ID_1_STRING);
+                if (current.map(VersionedItem::getItem).map(CosmosChangeLogLock::getLocked).orElse(false)) {
+                    return 0;
+                }
+                written = current.isPresent()
+                        ? repository.replaceVersioned(new VersionedItem<>(lockEntry, current.get().getETag()))
+                        : repository.createVersioned(lockEntry);
+            }
+            this.eTag = written.getETag();
+            return 1;
+        } catch (final CosmosException e) {
+            // Another runner wrote the lock document since it was read, or the lease expired
+            if (e.getStatusCode() == PRECONDITION_FAILED || e.getStatusCode() == CONFLICT || e.getStatusCode() == NOTFOUND) {
+                return 0;
+            }
+            throw e;
+        }
     }
 
     @Override
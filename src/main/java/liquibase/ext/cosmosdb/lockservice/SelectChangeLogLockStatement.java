@@ -21,6 +21,7 @@ package liquibase.ext.cosmosdb.lockservice;
  */
 
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.persistence.VersionedItem;
 import liquibase.ext.cosmosdb.statement.AbstractCosmosContainerStatement;
 import liquibase.nosql.statement.NoSqlQueryForObjectStatement;
 import lombok.Getter;
@@ -45,9 +46,16 @@ public class SelectChangeLogLockStatement extends AbstractCosmosContainerStateme
     }
 
     public Optional<CosmosChangeLogLock> read(final CosmosLiquibaseDatabase database) {
+        return readVersioned(database).map(VersionedItem::getItem);
+    }
+
+    /**
+     * Reads the lock document together with its ETag, so it can be replaced only if unchanged.
+     */
+    public Optional<VersionedItem<CosmosChangeLogLock>> readVersioned(final CosmosLiquibaseDatabase database) {
         final ChangeLogLockRepository repository =
                 new ChangeLogLockRepository(database.getCosmosDatabase(), getContainerId());
-        return repository.get(ITEM_ID_1_STRING);
+        return repository.getVersioned(ITEM_ID_1_STRING);
     }
 
     @Override
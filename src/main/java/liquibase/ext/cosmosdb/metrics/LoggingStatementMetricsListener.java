@@ -0,0 +1,43 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.Scope;
+import liquibase.logging.Logger;
+
+import static java.lang.System.lineSeparator;
+
+/**
+ * The default {@link StatementMetricsListener}: logs each statement at debug level and the summary table at info
+ * level once the update completes.
+ */
+public class LoggingStatementMetricsListener implements StatementMetricsListener {
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    @Override
+    public void statementExecuted(final StatementMetrics metrics) {
+        log.fine(metrics.toString());
+    }
+
+    @Override
+    public void updateCompleted(final StatementMetricsSummary summary) {
+        log.info("Cosmos DB statement metrics:" + lineSeparator() + summary.toTable());
+    }
+}
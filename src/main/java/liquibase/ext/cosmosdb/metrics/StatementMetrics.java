@@ -0,0 +1,73 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Cost and duration of a single statement run by the {@link liquibase.nosql.executor.NoSqlExecutor}, covering every
+ * request the statement sent to the service, including the ones sent from worker threads.
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class StatementMetrics {
+
+    /**
+     * The command name of the statement, e.g. {@code updateEachItem}.
+     */
+    private final String statementType;
+
+    /**
+     * The changeSet the statement ran for, null for statements of Liquibase itself such as the history and lock ones.
+     */
+    private final String changeSetId;
+
+    private final Duration duration;
+
+    private final double requestCharge;
+
+    /**
+     * Items returned by queries and feeds.
+     */
+    private final long itemCount;
+
+    private final long requestCount;
+
+    private final long retryCount;
+
+    /**
+     * Requests the service rejected with 429 (too many requests).
+     */
+    private final long throttleCount;
+
+    private final boolean failed;
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s%s took %d ms, %.2f RU, %d request(s), %d item(s), %d retried, %d throttled%s",
+                statementType, changeSetId == null ? "" : " of " + changeSetId, duration.toMillis(), requestCharge,
+                requestCount, itemCount, retryCount, throttleCount, failed ? ", failed" : "");
+    }
+}
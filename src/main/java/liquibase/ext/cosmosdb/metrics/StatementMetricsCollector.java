@@ -0,0 +1,193 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.core.util.Context;
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+import com.azure.cosmos.CosmosDiagnosticsRequestInfo;
+import liquibase.Scope;
+import liquibase.exception.ServiceNotFoundException;
+import liquibase.logging.Logger;
+import liquibase.nosql.executor.NoSqlStatementListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.TOO_MANY_REQUESTS;
+import static java.util.Objects.nonNull;
+
+/**
+ * Attributes the diagnostics of every request sent by a client to the statement running at the time.
+ * <p>
+ * Registered as the {@link CosmosDiagnosticsHandler} of the client, so it also sees the requests statements send from
+ * worker threads. Liquibase runs one statement at a time per connection; a statement started while another one is
+ * recording, e.g. a history query issued from a change, records on its own and hands back to the outer one when done.
+ * Completed statements are passed to the {@link StatementMetricsListener}s and added to a summary that is handed to
+ * them on {@link #updateCompleted()}.
+ */
+public class StatementMetricsCollector implements CosmosDiagnosticsHandler, NoSqlStatementListener {
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    private final List<StatementMetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Recording> current = new AtomicReference<>();
+    private final AtomicReference<StatementMetricsSummary> summary = new AtomicReference<>(new StatementMetricsSummary());
+
+    /**
+     * Creates a collector notifying the listeners registered with the Liquibase service locator.
+     */
+    public StatementMetricsCollector() {
+        try {
+            listeners.addAll(Scope.getCurrentScope().getServiceLocator().findInstances(StatementMetricsListener.class));
+        } catch (final ServiceNotFoundException e) {
+            log.fine("No statement metrics listener registered", e);
+        }
+    }
+
+    public StatementMetricsCollector(final List<StatementMetricsListener> listeners) {
+        this.listeners.addAll(listeners);
+    }
+
+    public void addListener(final StatementMetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final StatementMetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts attributing requests to a statement.
+     *
+     * @param statementType the command name of the statement
+     * @param changeSetId   the changeSet running the statement, null if none
+     * @return the recording, to be passed to {@link #stop(Recording, boolean)} once the statement returns
+     */
+    public Recording start(final String statementType, final String changeSetId) {
+        final Recording recording = new Recording(statementType, changeSetId, current.get());
+        current.set(recording);
+        return recording;
+    }
+
+    @Override
+    public Execution statementStarted(final String statementType, final String changeSetId) {
+        final Recording recording = start(statementType, changeSetId);
+        return failed -> stop(recording, failed);
+    }
+
+    /**
+     * Stops the recording, notifies the listeners and restores the recording the statement was started from.
+     *
+     * @param recording the recording returned by {@link #start(String, String)}
+     * @param failed    whether the statement failed
+     * @return the metrics of the statement
+     */
+    public StatementMetrics stop(final Recording recording, final boolean failed) {
+        current.compareAndSet(recording, recording.outer);
+        final StatementMetrics metrics = recording.toMetrics(failed);
+        summary.get().add(metrics);
+        for (final StatementMetricsListener listener : listeners) {
+            try {
+                listener.statementExecuted(metrics);
+            } catch (final RuntimeException e) {
+                log.warning("Statement metrics listener " + listener.getClass().getName() + " failed", e);
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Hands the summary of the statements executed so far to the listeners and starts a new one.
+     *
+     * @return the summary handed to the listeners
+     */
+    public StatementMetricsSummary updateCompleted() {
+        final StatementMetricsSummary completed = summary.getAndSet(new StatementMetricsSummary());
+        if (completed.isEmpty()) {
+            return completed;
+        }
+        for (final StatementMetricsListener listener : listeners) {
+            try {
+                listener.updateCompleted(completed);
+            } catch (final RuntimeException e) {
+                log.warning("Statement metrics listener " + listener.getClass().getName() + " failed", e);
+            }
+        }
+        return completed;
+    }
+
+    @Override
+    public void handleDiagnostics(final CosmosDiagnosticsContext diagnosticsContext, final Context traceContext) {
+        final Recording recording = current.get();
+        if (nonNull(recording)) {
+            recording.add(diagnosticsContext);
+        }
+    }
+
+    /**
+     * Running totals of a statement. Safe to update from several threads.
+     */
+    public static class Recording {
+
+        private final String statementType;
+        private final String changeSetId;
+        private final Recording outer;
+        private final long startedNanos = System.nanoTime();
+        private final DoubleAdder requestCharge = new DoubleAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+
+        private Recording(final String statementType, final String changeSetId, final Recording outer) {
+            this.statementType = statementType;
+            this.changeSetId = changeSetId;
+            this.outer = outer;
+        }
+
+        void add(final CosmosDiagnosticsContext diagnosticsContext) {
+            requestCharge.add(diagnosticsContext.getTotalRequestCharge());
+            if (nonNull(diagnosticsContext.getActualItemCount())) {
+                items.add(diagnosticsContext.getActualItemCount());
+            }
+            retries.add(diagnosticsContext.getRetryCount());
+            final Collection<CosmosDiagnosticsRequestInfo> requestInfos = diagnosticsContext.getRequestInfo();
+            if (nonNull(requestInfos) && !requestInfos.isEmpty()) {
+                requests.add(requestInfos.size());
+                throttles.add(requestInfos.stream().filter(info -> info.getStatusCode() == TOO_MANY_REQUESTS).count());
+            } else {
+                requests.increment();
+                if (diagnosticsContext.getStatusCode() == TOO_MANY_REQUESTS) {
+                    throttles.increment();
+                }
+            }
+        }
+
+        StatementMetrics toMetrics(final boolean failed) {
+            return new StatementMetrics(statementType, changeSetId, Duration.ofNanos(System.nanoTime() - startedNanos),
+                    requestCharge.sum(), items.sum(), requests.sum(), retries.sum(), throttles.sum(), failed);
+        }
+    }
+}
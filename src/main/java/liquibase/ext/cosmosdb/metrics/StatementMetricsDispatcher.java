@@ -0,0 +1,65 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.core.util.Context;
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Hands the diagnostics of a client to the {@link StatementMetricsCollector}s of the connections using it.
+ * <p>
+ * A client shared by several connections serves all of their databases. Every connection registers its own collector
+ * for its database and only receives the diagnostics of requests to that database, so the statements of one
+ * connection are not charged with the requests of another and each connection keeps its own summary. While a single
+ * connection uses the client it receives every request, including those that name no database. Connections updating
+ * the same database take turns under the changelog lock, so their statements do not overlap.
+ */
+public class StatementMetricsDispatcher implements CosmosDiagnosticsHandler {
+
+    private final Map<StatementMetricsCollector, String> collectors = new ConcurrentHashMap<>();
+
+    /**
+     * @param collector    the collector of a connection
+     * @param databaseName the database of the connection, null if unknown
+     */
+    public void register(final StatementMetricsCollector collector, final String databaseName) {
+        collectors.put(collector, ofNullable(databaseName).orElse(""));
+    }
+
+    public void unregister(final StatementMetricsCollector collector) {
+        collectors.remove(collector);
+    }
+
+    @Override
+    public void handleDiagnostics(final CosmosDiagnosticsContext diagnosticsContext, final Context traceContext) {
+        final boolean single = collectors.size() == 1;
+        collectors.forEach((collector, databaseName) -> {
+            if (single || Objects.equals(databaseName, diagnosticsContext.getDatabaseName())) {
+                collector.handleDiagnostics(diagnosticsContext, traceContext);
+            }
+        });
+    }
+}
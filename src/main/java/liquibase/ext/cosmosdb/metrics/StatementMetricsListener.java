@@ -0,0 +1,42 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Receives the metrics of the executed statements.
+ * <p>
+ * Implementations are discovered through the Liquibase service locator, so a listener publishing to a metrics
+ * library only needs to be listed in {@code META-INF/services/liquibase.ext.cosmosdb.metrics.StatementMetricsListener}
+ * of a jar on the classpath. Listeners are called on the thread running the statement and should return quickly.
+ */
+public interface StatementMetricsListener {
+
+    /**
+     * @param metrics the metrics of a statement that completed or failed
+     */
+    void statementExecuted(StatementMetrics metrics);
+
+    /**
+     * Called once the change log lock is released at the end of a command such as {@code update}.
+     *
+     * @param summary the totals of the statements executed while the lock was held
+     */
+    default void updateCompleted(final StatementMetricsSummary summary) {
+    }
+}
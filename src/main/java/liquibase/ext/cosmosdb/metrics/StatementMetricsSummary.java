@@ -0,0 +1,151 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Totals of the executed statements, per changeSet and per statement type.
+ */
+public class StatementMetricsSummary {
+
+    /**
+     * Groups the statements Liquibase runs outside of any changeSet, such as reading the history or taking the lock.
+     */
+    public static final String NO_CHANGE_SET = "(liquibase)";
+
+    private final Totals total = new Totals();
+    private final Map<String, Totals> byChangeSet = new LinkedHashMap<>();
+    private final Map<String, Totals> byStatementType = new TreeMap<>();
+
+    public synchronized void add(final StatementMetrics metrics) {
+        total.add(metrics);
+        byChangeSet.computeIfAbsent(isNull(metrics.getChangeSetId()) ? NO_CHANGE_SET : metrics.getChangeSetId(),
+                id -> new Totals()).add(metrics);
+        byStatementType.computeIfAbsent(metrics.getStatementType(), type -> new Totals()).add(metrics);
+    }
+
+    public synchronized boolean isEmpty() {
+        return total.getStatements() == 0;
+    }
+
+    public synchronized Totals getTotal() {
+        return total.copy();
+    }
+
+    /**
+     * @return the totals by changeSet, in the order the changeSets ran
+     */
+    public synchronized Map<String, Totals> getByChangeSet() {
+        return copy(byChangeSet, new LinkedHashMap<>());
+    }
+
+    /**
+     * @return the totals by statement type, sorted by type
+     */
+    public synchronized Map<String, Totals> getByStatementType() {
+        return copy(byStatementType, new TreeMap<>());
+    }
+
+    /**
+     * @return the totals formatted as a plain text table, one section per changeSet and per statement type
+     */
+    public synchronized String toTable() {
+        final int width = Stream.concat(Stream.of("changeSet"), Stream.concat(byChangeSet.keySet().stream(),
+                byStatementType.keySet().stream())).mapToInt(String::length).max().orElse(0);
+        final StringBuilder table = new StringBuilder();
+        appendSection(table, "changeSet", byChangeSet, width);
+        appendSection(table, "statement", byStatementType, width);
+        appendRow(table, "total", total, width);
+        return table.toString();
+    }
+
+    private static void appendSection(final StringBuilder table, final String title, final Map<String, Totals> rows,
+                                      final int width) {
+        table.append(String.format(Locale.ROOT, "%-" + width + "s %s%n", title, Totals.HEADER));
+        rows.forEach((key, totals) -> appendRow(table, key, totals, width));
+    }
+
+    private static void appendRow(final StringBuilder table, final String key, final Totals totals, final int width) {
+        table.append(String.format(Locale.ROOT, "%-" + width + "s %s%n", key, totals));
+    }
+
+    private static Map<String, Totals> copy(final Map<String, Totals> source, final Map<String, Totals> target) {
+        source.forEach((key, totals) -> target.put(key, totals.copy()));
+        return Collections.unmodifiableMap(target);
+    }
+
+    /**
+     * Sums of the metrics of several statements.
+     */
+    @Getter
+    public static class Totals {
+
+        static final String HEADER = String.format(Locale.ROOT, "%10s %10s %14s %10s %10s %10s %10s",
+                "statements", "ms", "RU", "requests", "items", "retries", "throttles");
+
+        private long statements;
+        private long failed;
+        private long durationMillis;
+        private double requestCharge;
+        private long requests;
+        private long items;
+        private long retries;
+        private long throttles;
+
+        void add(final StatementMetrics metrics) {
+            statements++;
+            failed += metrics.isFailed() ? 1 : 0;
+            durationMillis += metrics.getDuration().toMillis();
+            requestCharge += metrics.getRequestCharge();
+            requests += metrics.getRequestCount();
+            items += metrics.getItemCount();
+            retries += metrics.getRetryCount();
+            throttles += metrics.getThrottleCount();
+        }
+
+        Totals copy() {
+            final Totals copy = new Totals();
+            copy.statements = statements;
+            copy.failed = failed;
+            copy.durationMillis = durationMillis;
+            copy.requestCharge = requestCharge;
+            copy.requests = requests;
+            copy.items = items;
+            copy.retries = retries;
+            copy.throttles = throttles;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%10d %10d %14.2f %10d %10d %10d %10d",
+                    statements, durationMillis, requestCharge, requests, items, retries, throttles);
+        }
+    }
+}
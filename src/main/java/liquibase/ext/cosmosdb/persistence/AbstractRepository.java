@@ -1,6 +1,7 @@
 package liquibase.ext.cosmosdb.persistence;
 
 import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.*;
 import liquibase.ext.cosmosdb.statement.JsonUtils;
 import lombok.Getter;
@@ -10,7 +11,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.azure.cosmos.implementation.Constants.Properties.E_TAG;
 import static com.azure.cosmos.implementation.Constants.Properties.ID;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
 
 public abstract class AbstractRepository<T> {
 
@@ -25,12 +28,45 @@ public abstract class AbstractRepository<T> {
         this.converter = converter;
     }
 
+    /**
+     * The documents of the repositories are written without a partition key value, so their partition key is known
+     * from the id alone.
+     *
+     * @param id the item id
+     * @return the partition key of the item, empty if it cannot be told from the id
+     */
+    protected Optional<PartitionKey> getPartitionKey(final String id) {
+        return Optional.of(PartitionKey.NONE);
+    }
+
     public Optional<T> get(final String id) {
+        return getVersioned(id).map(VersionedItem::getItem);
+    }
 
-        final SqlQuerySpec querySpec
-                = new SqlQuerySpec("SELECT * FROM c WHERE c.id=" + JsonUtils.COSMOS_ID_PARAMETER, new SqlParameter(JsonUtils.COSMOS_ID_PARAMETER, id));
-        //return container.queryItems(querySpec, null, Map.class).stream().findFirst().map(converter::fromDocument);
-        return container.queryItems(querySpec, null, Map.class).stream().findFirst().map(map -> (T) converter.fromDocument(map));
+    /**
+     * Reads the item with a point read, or with a query on the id if {@link #getPartitionKey(String)} is unknown.
+     *
+     * @param id the item id
+     * @return the item with the ETag of its document, empty if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<VersionedItem<T>> getVersioned(final String id) {
+        final Optional<PartitionKey> partitionKey = getPartitionKey(id);
+        if (!partitionKey.isPresent()) {
+            final SqlQuerySpec querySpec
+                    = new SqlQuerySpec("SELECT * FROM c WHERE c.id=" + JsonUtils.COSMOS_ID_PARAMETER, new SqlParameter(JsonUtils.COSMOS_ID_PARAMETER, id));
+            return container.queryItems(querySpec, null, Map.class).stream().findFirst()
+                    .map(document -> new VersionedItem<>(converter.fromDocument(document), (String) document.get(E_TAG)));
+        }
+        try {
+            final CosmosItemResponse<Map> response = container.readItem(id, partitionKey.get(), Map.class);
+            return Optional.of(new VersionedItem<>(converter.fromDocument(response.getItem()), response.getETag()));
+        } catch (final CosmosException e) {
+            if (e.getStatusCode() == NOTFOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        }
     }
 
     public List<T> getAll() {
@@ -40,10 +76,17 @@ public abstract class AbstractRepository<T> {
     @SuppressWarnings("unchecked")
     public List<Map<String, Object>> readAllItems() {
 
-        return container.queryItems("SELECT * FROM c", null, Map.class).stream()
+        return container.queryItems(getSelectAllQuery(), null, Map.class).stream()
                 .map(i -> (Map<String, Object>)i).collect(Collectors.toList());
     }
 
+    /**
+     * @return the query selecting the items of this repository, all items of the container by default
+     */
+    protected String getSelectAllQuery() {
+        return JsonUtils.QUERY_SELECT_ALL;
+    }
+
     public int create(final Map<String, Object> document) {
         container.createItem(document, PartitionKey.NONE, null);
         return 1;
@@ -55,6 +98,32 @@ public abstract class AbstractRepository<T> {
     }
 
 
+    /**
+     * Creates the item, failing with a {@link CosmosException} of status 409 if a document with its id exists.
+     *
+     * @param item the item
+     * @return the item with the ETag of the created document
+     */
+    public VersionedItem<T> createVersioned(final T item) {
+        final CosmosItemResponse<Map<String, Object>> response
+                = container.createItem(converter.toDocument(item), PartitionKey.NONE, null);
+        return new VersionedItem<>(item, response.getETag());
+    }
+
+    /**
+     * Replaces the item only if its document was not written since it was read, failing with a {@link CosmosException}
+     * of status 412 otherwise.
+     *
+     * @param item the item with the ETag of the document it replaces
+     * @return the item with the ETag of the replaced document
+     */
+    public VersionedItem<T> replaceVersioned(final VersionedItem<T> item) {
+        final Map<String, Object> document = converter.toDocument(item.getItem());
+        final CosmosItemResponse<Map<String, Object>> response = container.replaceItem(document, (String) document.get(ID),
+                PartitionKey.NONE, new CosmosItemRequestOptions().setIfMatchETag(item.getETag()));
+        return new VersionedItem<>(item.getItem(), response.getETag());
+    }
+
     public int replace(final Map<String, Object> document) {
         container.replaceItem(document, (String)document.get(ID), PartitionKey.NONE,  null);
         return 1;
@@ -86,9 +155,6 @@ public abstract class AbstractRepository<T> {
     }
 
     public boolean exists(final String id) {
-        final SqlQuerySpec querySpec
-                = new SqlQuerySpec("SELECT * FROM c WHERE c.id=" + JsonUtils.COSMOS_ID_PARAMETER, new SqlParameter(JsonUtils.COSMOS_ID_PARAMETER, id));
-
-        return 1L == container.queryItems(querySpec, null, Map.class).stream().count();
+        return getVersioned(id).isPresent();
     }
 }
@@ -0,0 +1,26 @@
+package liquibase.ext.cosmosdb.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * An item together with the ETag of the document it was read from, to make a following write conditional on the
+ * document being unchanged.
+ *
+ * @param <T> the item type
+ */
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class VersionedItem<T> {
+
+    private final T item;
+
+    /**
+     * The {@code _etag} of the document, changed by the service on every write.
+     */
+    private final String eTag;
+}
@@ -0,0 +1,105 @@
+package liquibase.ext.cosmosdb.precondition;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.visitor.ChangeExecListener;
+import liquibase.database.Database;
+import liquibase.exception.PreconditionErrorException;
+import liquibase.exception.PreconditionFailedException;
+import liquibase.exception.ValidationErrors;
+import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.ext.cosmosdb.statement.CountDocumentsInContainerStatement;
+import liquibase.nosql.executor.NoSqlExecutor;
+import liquibase.precondition.AbstractPrecondition;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checks the number of items in a container, optionally only those matching a filter, against an expected count.
+ * The items are counted by the service with {@link CountDocumentsInContainerStatement}.
+ * <pre>{@code
+ * <preConditions onFail="MARK_RAN">
+ *     <ext:cosmosItemCount containerId="person" filter="c.active = true" expectedCount="0"/>
+ * </preConditions>
+ * }</pre>
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class CosmosItemCountPrecondition extends AbstractPrecondition {
+
+    public static final String NAME = "cosmosItemCount";
+
+    private String containerId;
+    private String filter;
+    private Long expectedCount;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getSerializedObjectNamespace() {
+        return GENERIC_CHANGELOG_EXTENSION_NAMESPACE;
+    }
+
+    @Override
+    public Warnings warn(final Database database) {
+        return new Warnings();
+    }
+
+    @Override
+    public ValidationErrors validate(final Database database) {
+        final ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("containerId", containerId);
+        validationErrors.checkRequiredField("expectedCount", expectedCount);
+        if (expectedCount != null && expectedCount < 0) {
+            validationErrors.addError("expectedCount must not be negative");
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public void check(final Database database, final DatabaseChangeLog changeLog, final ChangeSet changeSet,
+                      final ChangeExecListener changeExecListener) throws PreconditionFailedException, PreconditionErrorException {
+        if (!(database instanceof CosmosLiquibaseDatabase)) {
+            throw new PreconditionFailedException(NAME + " is only supported on Cosmos DB", changeLog, this);
+        }
+        try {
+            final long count = Scope.getCurrentScope().getSingleton(ExecutorService.class)
+                    .getExecutor(NoSqlExecutor.EXECUTOR_NAME, database)
+                    .queryForLong(new CountDocumentsInContainerStatement(containerId, filter));
+            if (count != expectedCount) {
+                throw new PreconditionFailedException(String.format("Container %s has %d item(s)%s, expected %d",
+                        containerId, count, filter == null ? "" : " matching " + filter, expectedCount), changeLog, this);
+            }
+        } catch (final PreconditionFailedException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new PreconditionErrorException(e, changeLog, this);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Locale;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of a {@link BulkItemExecutor} run. Safe to update from several threads.
+ */
+public class BulkExecutionSummary {
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final DoubleAdder requestCharge = new DoubleAdder();
+
+    public void addSucceeded() {
+        succeeded.increment();
+    }
+
+    public void addFailed() {
+        failed.increment();
+    }
+
+    public void addRetried(final long operations) {
+        retried.add(operations);
+    }
+
+    public void addRequestCharge(final double charge) {
+        requestCharge.add(charge);
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRetried() {
+        return retried.sum();
+    }
+
+    public double getRequestCharge() {
+        return requestCharge.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "succeeded: %d, failed: %d, retried: %d, request charge: %.2f RU",
+                getSucceeded(), getFailed(), getRetried(), getRequestCharge());
+    }
+}
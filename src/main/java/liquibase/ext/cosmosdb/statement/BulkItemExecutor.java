@@ -0,0 +1,386 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.logging.Logger;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.TOO_MANY_REQUESTS;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Submits item operations to a container through the Cosmos bulk API.
+ * <p>
+ * Operations are buffered into batches of at most {@link #getBatchSize()} so that the number of operations in flight
+ * stays bounded regardless of how many items the source stream produces. Operations throttled by the service (429)
+ * are resubmitted after the suggested back-off up to {@link #getMaxRetries()} times, anything else that does not
+ * succeed is counted as failed. A delete of an item that is already gone counts as succeeded.
+ * <p>
+ * With {@link #getMaxConcurrency()} above one, batches are handed to worker threads while the calling thread keeps
+ * consuming the source stream, so the next query page is fetched while the previous one is being written. Optionally
+ * the submission rate is paced by {@link #getRateLimiter()}, which throttled operations slow down further. Producers
+ * running on several threads, such as the workers of a {@link FeedRangeQueryExecutor}, share one run through
+ * {@link #open(String)}.
+ */
+public class BulkItemExecutor {
+
+    private static final Duration MIN_RETRY_DELAY = Duration.ofMillis(100);
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(5);
+
+    private static final Comparator<CosmosItemOperation> BY_PARTITION_KEY
+            = Comparator.comparing(operation -> String.valueOf(operation.getPartitionKeyValue()));
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    @Getter
+    private final CosmosContainer container;
+
+    @Getter
+    private final int batchSize;
+
+    @Getter
+    private final int maxRetries;
+
+    @Getter
+    private final int maxConcurrency;
+
+    /**
+     * Paces the submissions against a request unit budget, {@link RequestChargeRateLimiter#UNLIMITED} for no pacing.
+     */
+    @Getter
+    private final RequestChargeRateLimiter rateLimiter;
+
+    public BulkItemExecutor(final CosmosContainer container, final int batchSize, final int maxRetries) {
+        this(container, batchSize, maxRetries, 1, RequestChargeRateLimiter.UNLIMITED);
+    }
+
+    /**
+     * @param requestUnitsPerSecond upper bound of the request charge consumed per second, null for no pacing
+     */
+    public BulkItemExecutor(final CosmosContainer container, final int batchSize, final int maxRetries,
+                            final int maxConcurrency, final Double requestUnitsPerSecond) {
+        this(container, batchSize, maxRetries, maxConcurrency, ofNullable(requestUnitsPerSecond)
+                .map(RequestChargeRateLimiter::new).orElse(RequestChargeRateLimiter.UNLIMITED));
+    }
+
+    private BulkItemExecutor(final CosmosContainer container, final int batchSize, final int maxRetries,
+                             final int maxConcurrency, final RequestChargeRateLimiter rateLimiter) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be a positive number but was: " + batchSize);
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be a positive number but was: " + maxConcurrency);
+        }
+        this.container = container;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.maxConcurrency = maxConcurrency;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param rateLimiter the limiter pacing the submissions, shared with other statements on the same throughput
+     * @return a copy of this executor paced by the given limiter
+     */
+    public BulkItemExecutor withRateLimiter(final RequestChargeRateLimiter rateLimiter) {
+        return new BulkItemExecutor(container, batchSize, maxRetries, maxConcurrency, rateLimiter);
+    }
+
+    /**
+     * Creates an executor for the container, falling back to {@link CosmosConfiguration#BULK_BATCH_SIZE} and
+     * {@link CosmosConfiguration#BULK_MAX_CONCURRENCY} for the values not supplied.
+     */
+    public static BulkItemExecutor forContainer(final CosmosContainer container, final Integer batchSize,
+                                                final Integer maxConcurrency, final RequestChargeRateLimiter rateLimiter) {
+        return new BulkItemExecutor(container,
+                ofNullable(batchSize).orElseGet(CosmosConfiguration.BULK_BATCH_SIZE::getCurrentValue),
+                CosmosConfiguration.BULK_MAX_RETRIES.getCurrentValue(),
+                ofNullable(maxConcurrency).orElseGet(CosmosConfiguration.BULK_MAX_CONCURRENCY::getCurrentValue),
+                rateLimiter);
+    }
+
+    /**
+     * @param bulk the value of the bulk attribute of a change, may be null
+     * @return whether bulk mode applies, falling back to {@link CosmosConfiguration#BULK_ENABLED}
+     */
+    public static boolean isBulkEnabled(final Boolean bulk) {
+        return ofNullable(bulk).orElseGet(CosmosConfiguration.BULK_ENABLED::getCurrentValue);
+    }
+
+    /**
+     * Executes all operations and logs a summary.
+     *
+     * @param commandName the statement on whose behalf the operations run, used in the log and error messages
+     * @param operations  the operations, consumed lazily
+     * @return the summary of the run
+     * @throws UnexpectedLiquibaseException if any operation did not succeed
+     */
+    public BulkExecutionSummary execute(final String commandName, final Stream<CosmosItemOperation> operations) {
+        final Session session = open(commandName);
+        try {
+            final List<CosmosItemOperation> batch = new ArrayList<>(batchSize);
+            operations.forEachOrdered(operation -> {
+                batch.add(operation);
+                if (batch.size() == batchSize) {
+                    session.submit(batch);
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                session.submit(batch);
+            }
+        } finally {
+            session.close();
+        }
+        return session.complete();
+    }
+
+    /**
+     * Starts a run fed by the caller, for operations produced by several threads.
+     *
+     * @param commandName the statement on whose behalf the operations run, used in the log and error messages
+     * @return the session to submit the operations to
+     */
+    public Session open(final String commandName) {
+        return new Session(commandName);
+    }
+
+    protected void executeBatch(final List<CosmosItemOperation> batch, final BulkExecutionSummary summary) {
+        // Keep operations of the same logical partition together so they land in the same server-side batch
+        List<CosmosItemOperation> pending = new ArrayList<>(batch);
+        pending.sort(BY_PARTITION_KEY);
+        int attempt = 0;
+        while (!pending.isEmpty()) {
+            final boolean canRetry = attempt < maxRetries;
+            final List<CosmosItemOperation> throttled = new ArrayList<>();
+            Duration retryAfter = Duration.ZERO;
+
+            for (final CosmosBulkOperationResponse<Object> response : container.<Object>executeBulkOperations(pending)) {
+                final CosmosBulkItemResponse itemResponse = response.getResponse();
+                if (nonNull(itemResponse)) {
+                    summary.addRequestCharge(itemResponse.getRequestCharge());
+                    rateLimiter.record(itemResponse.getRequestCharge());
+                }
+                if (isSucceeded(response)) {
+                    summary.addSucceeded();
+                } else if (canRetry && isThrottled(response)) {
+                    throttled.add(response.getOperation());
+                    final Duration suggested = retryAfterOf(response);
+                    retryAfter = suggested.compareTo(retryAfter) > 0 ? suggested : retryAfter;
+                } else {
+                    summary.addFailed();
+                    log.fine(String.format("Bulk %s of item %s failed with status %s",
+                            response.getOperation().getOperationType(), response.getOperation().getId(),
+                            ofNullable(itemResponse).map(CosmosBulkItemResponse::getStatusCode).map(String::valueOf)
+                                    .orElseGet(() -> String.valueOf(response.getException()))));
+                }
+            }
+
+            pending = throttled;
+            if (!pending.isEmpty()) {
+                rateLimiter.onThrottled(retryAfter);
+                attempt++;
+                summary.addRetried(pending.size());
+                pause(retryAfter, attempt);
+            }
+        }
+    }
+
+    private static boolean isSucceeded(final CosmosBulkOperationResponse<?> response) {
+        final CosmosBulkItemResponse itemResponse = response.getResponse();
+        if (nonNull(itemResponse) && itemResponse.isSuccessStatusCode()) {
+            return true;
+        }
+        return nonNull(itemResponse) && itemResponse.getStatusCode() == NOTFOUND
+                && response.getOperation().getOperationType() == CosmosItemOperationType.DELETE;
+    }
+
+    private static boolean isThrottled(final CosmosBulkOperationResponse<?> response) {
+        if (nonNull(response.getResponse())) {
+            return response.getResponse().getStatusCode() == TOO_MANY_REQUESTS;
+        }
+        return response.getException() instanceof CosmosException
+                && ((CosmosException) response.getException()).getStatusCode() == TOO_MANY_REQUESTS;
+    }
+
+    private static Duration retryAfterOf(final CosmosBulkOperationResponse<?> response) {
+        if (nonNull(response.getResponse())) {
+            return ofNullable(response.getResponse().getRetryAfterDuration()).orElse(Duration.ZERO);
+        }
+        if (response.getException() instanceof CosmosException) {
+            return ofNullable(((CosmosException) response.getException()).getRetryAfterDuration()).orElse(Duration.ZERO);
+        }
+        return Duration.ZERO;
+    }
+
+    private static void pause(final Duration retryAfter, final int attempt) {
+        // Fall back to an exponential back-off when the service did not suggest a delay
+        final Duration backOff = MIN_RETRY_DELAY.multipliedBy(1L << Math.min(attempt, 6));
+        final Duration delay = retryAfter.isZero() ? backOff : retryAfter;
+        sleep(Math.min(delay.toMillis(), MAX_RETRY_DELAY.toMillis()));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException("Interrupted while executing bulk operations", e);
+        }
+    }
+
+    /**
+     * A single run of the executor. Batches run inline or on a bounded pool, at most {@link #maxConcurrency} at a time,
+     * with the submissions paced by the {@link #rateLimiter}. Operations may be submitted from several threads.
+     */
+    public class Session {
+
+        private final String commandName;
+        private final BulkExecutionSummary summary = new BulkExecutionSummary();
+        private final Semaphore inFlight = new Semaphore(maxConcurrency);
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final ExecutorService workers;
+
+        private Session(final String commandName) {
+            this.commandName = commandName;
+            this.workers = maxConcurrency > 1 ? Executors.newFixedThreadPool(maxConcurrency, daemonThreads()) : null;
+        }
+
+        /**
+         * Executes the operations in batches of at most {@link #getBatchSize()}. Returns once the last batch was
+         * handed to a worker, or executed when there are no workers. The list is copied, the caller may reuse it.
+         *
+         * @param operations the operations
+         */
+        public void submit(final List<CosmosItemOperation> operations) {
+            for (int from = 0; from < operations.size(); from += batchSize) {
+                dispatch(new ArrayList<>(operations.subList(from, Math.min(from + batchSize, operations.size()))));
+            }
+        }
+
+        /**
+         * Waits until the batches submitted so far have been written, without stopping the workers.
+         *
+         * @return whether every operation written so far succeeded
+         */
+        public boolean flush() {
+            if (workers != null) {
+                inFlight.acquireUninterruptibly(maxConcurrency);
+                inFlight.release(maxConcurrency);
+            }
+            return failure.get() == null && summary.getFailed() == 0;
+        }
+
+        /**
+         * Waits for the batches in flight and stops the workers.
+         */
+        public void close() {
+            if (workers == null) {
+                return;
+            }
+            try {
+                inFlight.acquireUninterruptibly(maxConcurrency);
+            } finally {
+                workers.shutdown();
+            }
+        }
+
+        /**
+         * Logs the summary of the run, to be called after {@link #close()}.
+         *
+         * @return the summary of the run
+         * @throws UnexpectedLiquibaseException if any operation did not succeed
+         */
+        public BulkExecutionSummary complete() {
+            rethrowFailure();
+            log.info(String.format("Bulk %s on container %s completed: %s", commandName, container.getId(), summary));
+            if (summary.getFailed() > 0) {
+                throw new UnexpectedLiquibaseException(String.format("Bulk %s on container %s had %d failed operation(s): %s",
+                        commandName, container.getId(), summary.getFailed(), summary));
+            }
+            return summary;
+        }
+
+        private void dispatch(final List<CosmosItemOperation> batch) {
+            rethrowFailure();
+            pace();
+            if (workers == null) {
+                executeBatch(batch, summary);
+                return;
+            }
+            try {
+                inFlight.acquire();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UnexpectedLiquibaseException("Interrupted while executing bulk operations", e);
+            }
+            workers.execute(() -> {
+                try {
+                    executeBatch(batch, summary);
+                } catch (final RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void rethrowFailure() {
+            if (nonNull(failure.get())) {
+                throw failure.get();
+            }
+        }
+
+        private void pace() {
+            rateLimiter.acquire();
+        }
+    }
+
+    private ThreadFactory daemonThreads() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "cosmos-bulk-" + container.getId() + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
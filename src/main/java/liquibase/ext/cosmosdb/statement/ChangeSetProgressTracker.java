@@ -0,0 +1,184 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.SqlQuerySpec;
+import liquibase.Scope;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgressRepository;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.logging.Logger;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Persists the {@link FeedRangeCheckpoint}s of an each-item statement to a {@link ChangeSetProgress} document in the
+ * changelog container, at most once per interval, and hands them back when the same change runs again after a failure.
+ * The document is removed once the statement completed.
+ * <p>
+ * Progress is only resumed for the same command and query text of an unchanged changeSet, as identified by its
+ * checksum, anything else starts over. A tracker without a
+ * change to report for, or with checkpoints disabled, does nothing.
+ */
+public class ChangeSetProgressTracker implements Consumer<FeedRangeCheckpoint> {
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    private final ChangeSetProgressRepository repository;
+    private final ChangeSetProgress progress;
+    private final long intervalNanos;
+    private final Map<String, FeedRangeCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    /**
+     * The checkpoints of the interrupted run to continue from, empty to start over.
+     */
+    @Getter
+    private final List<FeedRangeCheckpoint> resumeFrom;
+
+    /**
+     * Invoked before the checkpoints are persisted, to make sure the items before them were written. Returns false
+     * when some of them failed, in which case the progress is not advanced.
+     */
+    @Setter
+    private BooleanSupplier beforePersist = () -> true;
+
+    private volatile long lastPersistedNanos = System.nanoTime();
+    private boolean persisted;
+
+    ChangeSetProgressTracker(final ChangeSetProgressRepository repository, final ChangeSetProgress change,
+                             final String commandName, final String queryText, final Duration interval) {
+        this.repository = repository;
+        this.intervalNanos = interval.toNanos();
+        if (isNull(repository) || isNull(change)) {
+            this.progress = null;
+            this.resumeFrom = Collections.emptyList();
+            return;
+        }
+
+        this.progress = new ChangeSetProgress();
+        progress.setId(change.getId());
+        progress.setFileName(change.getFileName());
+        progress.setAuthor(change.getAuthor());
+        progress.setChangeSetId(change.getChangeSetId());
+        progress.setCommand(commandName);
+        progress.setQuery(queryText);
+        progress.setCheckSum(change.getCheckSum());
+
+        final Optional<ChangeSetProgress> existing = repository.find(change.getId());
+        if (existing.isPresent() && Objects.equals(existing.get().getCommand(), commandName)
+                && Objects.equals(existing.get().getQuery(), queryText)
+                && Objects.equals(existing.get().getCheckSum(), change.getCheckSum())) {
+            this.resumeFrom = existing.get().getCheckpoints();
+            resumeFrom.forEach(checkpoint -> checkpoints.put(checkpoint.getFeedRange(), checkpoint));
+            this.persisted = true;
+            log.info(String.format("Resuming %s of changeSet %s::%s::%s after %d processed item(s)", commandName,
+                    change.getFileName(), change.getChangeSetId(), change.getAuthor(), existing.get().getProcessed()));
+        } else {
+            if (existing.isPresent()) {
+                log.warning(String.format("Ignoring the progress of changeSet %s::%s::%s as its %s changed since, starting over",
+                        change.getFileName(), change.getChangeSetId(), change.getAuthor(), commandName));
+            }
+            this.resumeFrom = Collections.emptyList();
+            this.persisted = existing.isPresent();
+        }
+    }
+
+    /**
+     * @param database    the database whose changelog container keeps the progress
+     * @param change      identifies the change the statement runs for, null when there is none
+     * @param commandName the statement
+     * @param query       the query whose progress is tracked
+     * @return the tracker, doing nothing if there is no change or {@link CosmosConfiguration#PROGRESS_CHECKPOINT_SECONDS} is not positive
+     */
+    public static ChangeSetProgressTracker open(final CosmosLiquibaseDatabase database, final ChangeSetProgress change,
+                                                final String commandName, final SqlQuerySpec query) {
+        final int seconds = CosmosConfiguration.PROGRESS_CHECKPOINT_SECONDS.getCurrentValue();
+        if (isNull(change) || seconds <= 0) {
+            return new ChangeSetProgressTracker(null, null, commandName, null, Duration.ZERO);
+        }
+        return new ChangeSetProgressTracker(
+                new ChangeSetProgressRepository(database.getCosmosDatabase(), database.getDatabaseChangeLogTableName()),
+                change, commandName, query.getQueryText(), Duration.ofSeconds(seconds));
+    }
+
+    @Override
+    public void accept(final FeedRangeCheckpoint checkpoint) {
+        if (isNull(progress)) {
+            return;
+        }
+        checkpoints.put(checkpoint.getFeedRange(), checkpoint);
+        // Not started ranges are only recorded, the first page persists them all together with its progress
+        if (checkpoint.isStarted() && isDue()) {
+            persist();
+        }
+    }
+
+    /**
+     * Removes the progress, to be called once the statement completed.
+     */
+    public void complete() {
+        if (nonNull(progress) && persisted) {
+            repository.deleteIfExists(progress.getId());
+        }
+    }
+
+    private boolean isDue() {
+        return System.nanoTime() - lastPersistedNanos >= intervalNanos;
+    }
+
+    private synchronized void persist() {
+        if (!isDue()) {
+            return;
+        }
+        lastPersistedNanos = System.nanoTime();
+        // Take the checkpoints before waiting for the writes, later ones may still be in flight afterwards
+        final List<FeedRangeCheckpoint> snapshot = new ArrayList<>(checkpoints.values());
+        if (!beforePersist.getAsBoolean()) {
+            log.fine(String.format("Not advancing the progress of %s as some items failed", progress.getCommand()));
+            return;
+        }
+        progress.setCheckpoints(snapshot);
+        progress.setProcessed(snapshot.stream().mapToLong(FeedRangeCheckpoint::getProcessed).sum());
+        progress.setLastUpdated(new Date());
+        try {
+            repository.upsert(progress);
+            persisted = true;
+        } catch (final CosmosException e) {
+            // Losing a checkpoint only costs re-processing on a rerun, it must not fail the change
+            log.warning(String.format("Unable to persist the progress of %s: %s", progress.getCommand(), e.getMessage()));
+        }
+    }
+}
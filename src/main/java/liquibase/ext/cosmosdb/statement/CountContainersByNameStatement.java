@@ -41,9 +41,13 @@ public class CountContainersByNameStatement extends AbstractCosmosContainerState
         return COMMAND_NAME;
     }
 
+    /**
+     * @return 1 if the container exists, 0 otherwise, as cached by {@link CosmosLiquibaseDatabase#getContainerMetadataCache()}
+     */
     @Override
     public long queryForLong(final CosmosLiquibaseDatabase database) {
-        return database.getCosmosDatabase().readAllContainers().stream().filter(c -> c.getId().equals(getContainerId())).count();
+        return database.getContainerMetadataCache()
+                .exists(database.getCosmosDatabase().getContainer(getContainerId())) ? 1L : 0L;
     }
 
 }
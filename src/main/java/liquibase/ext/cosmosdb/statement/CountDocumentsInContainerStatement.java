@@ -23,13 +23,14 @@ package liquibase.ext.cosmosdb.statement;
 import com.azure.cosmos.CosmosContainer;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.nosql.statement.NoSqlQueryForLongStatement;
+import liquibase.util.StringUtil;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
-import java.util.Map;
-
-import static liquibase.ext.cosmosdb.statement.JsonUtils.QUERY_SELECT_ALL;
-
+/**
+ * Counts the documents of a container with a {@code COUNT} aggregate, so the service returns a single number
+ * instead of the documents.
+ */
 @Getter
 @EqualsAndHashCode(callSuper = true)
 public class CountDocumentsInContainerStatement extends AbstractCosmosContainerStatement
@@ -37,8 +38,21 @@ public class CountDocumentsInContainerStatement extends AbstractCosmosContainerS
 
     public static final String COMMAND_NAME = "countDocumentsInContainer";
 
+    public static final String QUERY_COUNT_ALL = "SELECT VALUE COUNT(1) FROM c";
+
+    /**
+     * The condition of the WHERE clause selecting the documents to count, referring to the document as {@code c},
+     * null to count all documents.
+     */
+    private final String filter;
+
     public CountDocumentsInContainerStatement(final String containerId) {
+        this(containerId, null);
+    }
+
+    public CountDocumentsInContainerStatement(final String containerId, final String filter) {
         super(containerId);
+        this.filter = StringUtil.trimToNull(filter);
     }
 
     @Override
@@ -46,10 +60,18 @@ public class CountDocumentsInContainerStatement extends AbstractCosmosContainerS
         return COMMAND_NAME;
     }
 
+    /**
+     * @return the aggregate query counting the documents matching the {@link #getFilter()}
+     */
+    public String getQuery() {
+        return StringUtil.isNotEmpty(filter) ? QUERY_COUNT_ALL + " WHERE " + filter : QUERY_COUNT_ALL;
+    }
+
     @Override
     public long queryForLong(final CosmosLiquibaseDatabase database) {
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(getContainerId());
-        return cosmosContainer.queryItems(QUERY_SELECT_ALL, null, Map.class).stream().count();
+        // Cross partition aggregates are combined by the SDK, leaving a single value
+        return cosmosContainer.queryItems(getQuery(), null, Long.class).stream().findFirst().orElse(0L);
     }
 
 }
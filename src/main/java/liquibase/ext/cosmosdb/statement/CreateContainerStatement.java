@@ -94,6 +94,7 @@ public class CreateContainerStatement extends AbstractCosmosStatement
         } else {
             database.getCosmosDatabase().createContainer(cosmosContainerProperties, cosmosThroughputProperties);
         }
+        database.getContainerMetadataCache().invalidate(getContainerId());
     }
 
 }
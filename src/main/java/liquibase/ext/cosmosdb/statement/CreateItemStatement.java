@@ -22,6 +22,7 @@ package liquibase.ext.cosmosdb.statement;
 
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.CosmosItemResponse;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.nosql.statement.NoSqlExecuteStatement;
 import lombok.EqualsAndHashCode;
@@ -72,7 +73,8 @@ public class CreateItemStatement extends AbstractCosmosContainerStatement
     public void execute(final CosmosLiquibaseDatabase database) {
 
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
-        cosmosContainer.createItem(document);
+        database.getRateLimiter(cosmosContainer).call(() -> cosmosContainer.createItem(document),
+                CosmosItemResponse::getRequestCharge);
     }
 
 }
@@ -20,16 +20,21 @@ package liquibase.ext.cosmosdb.statement;
  * #L%
  */
 
-import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.models.CosmosContainerProperties;
+import liquibase.ext.cosmosdb.database.CosmosContainerMetadataCache;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
-import liquibase.nosql.statement.NoSqlExecuteStatement;
+import liquibase.nosql.statement.NoSqlAsyncExecuteStatement;
+import org.reactivestreams.Publisher;
 
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Deletes the containers of the database with several deletes in flight at a time.
+ */
 public class DeleteAllContainersStatement extends AbstractCosmosStatement
-        implements NoSqlExecuteStatement<CosmosLiquibaseDatabase> {
+        implements NoSqlAsyncExecuteStatement<CosmosLiquibaseDatabase> {
 
     public static final String COMMAND_NAME = "deleteAllContainers";
 
@@ -59,10 +64,12 @@ public class DeleteAllContainersStatement extends AbstractCosmosStatement
     }
 
     @Override
-    public void execute(final CosmosLiquibaseDatabase database) {
-        database.getCosmosDatabase().readAllContainers().stream()
+    public Publisher<? extends Publisher<?>> operations(final CosmosLiquibaseDatabase database) {
+        final CosmosAsyncDatabase cosmosDatabase = database.getCosmosAsyncDatabase();
+        final CosmosContainerMetadataCache cache = database.getContainerMetadataCache();
+        return cosmosDatabase.readAllContainers()
                 .map(CosmosContainerProperties::getId).filter(id -> !ignoreContainerIds.contains(id))
-                .map((id) -> database.getCosmosDatabase().getContainer(id)).forEach(CosmosContainer::delete);
+                .map(id -> cosmosDatabase.getContainer(id).delete().doOnSuccess(response -> cache.invalidate(id)));
     }
 
 }
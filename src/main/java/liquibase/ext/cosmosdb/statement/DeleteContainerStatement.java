@@ -78,6 +78,7 @@ public class DeleteContainerStatement extends AbstractCosmosContainerStatement
 
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
         cosmosContainer.delete();
+        database.getContainerMetadataCache().invalidate(containerId);
     }
 
 }
@@ -51,6 +51,7 @@ public class DeleteCurrentDatabaseStatement extends AbstractCosmosStatement
     @Override
     public void execute(final CosmosLiquibaseDatabase database) {
         database.getCosmosDatabase().delete();
+        database.getContainerMetadataCache().invalidateAll();
     }
 
 }
@@ -21,16 +21,21 @@ package liquibase.ext.cosmosdb.statement;
  */
 
 import com.azure.cosmos.CosmosContainer;
-import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.nosql.statement.NoSqlExecuteStatement;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.stream.Collectors;
 
 import static com.azure.cosmos.implementation.Constants.Properties.ID;
-import static liquibase.ext.cosmosdb.statement.JsonUtils.extractPartitionKeyByPath;
-import static liquibase.ext.cosmosdb.statement.JsonUtils.extractPartitionKeyPath;
+import static java.util.Optional.ofNullable;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.orEmptySqlQuerySpec;
 
 public class DeleteEachItemStatement extends AbstractCosmosContainerStatement
@@ -40,14 +45,58 @@ public class DeleteEachItemStatement extends AbstractCosmosContainerStatement
 
     private final SqlQuerySpec query;
 
+    /**
+     * Whether to submit the deletes through the bulk API, null falls back to the configured default.
+     */
+    @Getter
+    private final Boolean bulk;
+
+    @Getter
+    private final Integer batchSize;
+
+    @Getter
+    private final Integer maxConcurrency;
+
+    @Getter
+    private final Double requestUnitsPerSecond;
+
+    /**
+     * How many feed ranges are queried and deleted at a time, null falls back to the configured default.
+     */
+    @Getter
+    private final Integer parallelism;
+
+    /**
+     * Identifies the change whose progress is persisted so that an interrupted run resumes, null to always start over.
+     */
+    @Getter
+    @Setter
+    private ChangeSetProgress progress;
+
     public DeleteEachItemStatement(final String containerId, final String jsonQuery) {
+        this(containerId, jsonQuery, null, null, null, null, null);
+    }
+
+    public DeleteEachItemStatement(final String containerId, final String jsonQuery, final Boolean bulk,
+                                   final Integer batchSize, final Integer maxConcurrency,
+                                   final Double requestUnitsPerSecond, final Integer parallelism) {
         super(containerId);
         this.query = orEmptySqlQuerySpec(jsonQuery);
+        this.bulk = bulk;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.requestUnitsPerSecond = requestUnitsPerSecond;
+        this.parallelism = parallelism;
     }
 
     public DeleteEachItemStatement(final String containerId, final SqlQuerySpec query) {
         super(containerId);
         this.query = query;
+        this.bulk = null;
+        this.batchSize = null;
+        this.maxConcurrency = null;
+        this.requestUnitsPerSecond = null;
+        this.parallelism = null;
     }
 
     public DeleteEachItemStatement() {
@@ -57,15 +106,36 @@ public class DeleteEachItemStatement extends AbstractCosmosContainerStatement
     @Override
     public void execute(final CosmosLiquibaseDatabase database) {
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
-        final String partitionKeyPath = extractPartitionKeyPath(cosmosContainer);
-
-        cosmosContainer
-                .queryItems(query, null, ObjectNode.class).stream()
-                .map(Document::new)
-                .forEach(document -> {
-                    final PartitionKey partitionKey = extractPartitionKeyByPath(document, partitionKeyPath);
-                    cosmosContainer.deleteItem((String) document.get(ID), partitionKey, null);
-                });
+        final PartitionKeyExtractor partitionKeyExtractor
+                = database.getContainerMetadataCache().getPartitionKeyExtractor(cosmosContainer);
+        // An explicit budget on the change takes precedence over the configured share of the throughput
+        final RequestChargeRateLimiter rateLimiter = ofNullable(requestUnitsPerSecond).map(RequestChargeRateLimiter::new)
+                .orElseGet(() -> database.getRateLimiter(cosmosContainer));
+        final FeedRangeQueryExecutor queryExecutor
+                = FeedRangeQueryExecutor.forContainer(cosmosContainer, parallelism, rateLimiter);
+        final ChangeSetProgressTracker tracker = ChangeSetProgressTracker.open(database, progress, getCommandName(), query);
+
+        if (BulkItemExecutor.isBulkEnabled(bulk)) {
+            final BulkItemExecutor.Session session = BulkItemExecutor.forContainer(cosmosContainer, batchSize,
+                    maxConcurrency, rateLimiter).open(getCommandName());
+            tracker.setBeforePersist(session::flush);
+            try {
+                queryExecutor.execute(getCommandName(), query, tracker.getResumeFrom(), page -> session.submit(page.stream()
+                        .map(item -> CosmosBulkOperations.getDeleteItemOperation(
+                                item.path(ID).asText(), partitionKeyExtractor.extract(item)))
+                        .collect(Collectors.toList())), tracker);
+            } finally {
+                session.close();
+            }
+            session.complete();
+        } else {
+            queryExecutor.execute(getCommandName(), query, tracker.getResumeFrom(), page -> page.forEach(item -> {
+                final PartitionKey partitionKey = partitionKeyExtractor.extract(item);
+                rateLimiter.call(() -> cosmosContainer.deleteItem(item.path(ID).asText(), partitionKey, null),
+                        CosmosItemResponse::getRequestCharge);
+            }), tracker);
+        }
+        tracker.complete();
     }
 
     @Override
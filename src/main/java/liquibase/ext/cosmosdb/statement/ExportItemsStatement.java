@@ -0,0 +1,188 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.logging.Logger;
+import liquibase.nosql.statement.NoSqlExecuteStatement;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.OBJECT_MAPPER;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.QUERY_SELECT_ALL;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.orEmptySqlQuerySpec;
+
+/**
+ * Writes the items matched by a query to a local newline delimited JSON file, optionally gzip compressed.
+ * <p>
+ * The query runs separately for each feed range of the container through a {@link FeedRangeQueryExecutor}, up to
+ * {@link #getParallelism()} ranges at a time, and only one page per range is held in memory. The file is written next
+ * to the target and moved in place once complete, so a failed export never leaves a truncated snapshot behind. The
+ * file can be loaded back with {@link ImportItemsStatement}.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ExportItemsStatement extends AbstractCosmosContainerStatement
+        implements NoSqlExecuteStatement<CosmosLiquibaseDatabase> {
+
+    public static final String COMMAND_NAME = "exportItems";
+    public static final String GZIP_EXTENSION = ".gz";
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+
+    private final SqlQuerySpec query;
+
+    private final String file;
+
+    /**
+     * Whether to compress the file, null infers it from a {@value #GZIP_EXTENSION} file extension.
+     */
+    private final Boolean gzip;
+
+    /**
+     * How many feed ranges are read at a time, null for {@link CosmosConfiguration#QUERY_PARALLELISM}.
+     */
+    private final Integer parallelism;
+
+    private final Integer pageSize;
+
+    public ExportItemsStatement(final String containerId, final String jsonQuery, final String file,
+                                final Boolean gzip, final Integer parallelism, final Integer pageSize) {
+        super(containerId);
+        this.query = orEmptySqlQuerySpec(jsonQuery);
+        if (isNull(this.query.getQueryText())) {
+            this.query.setQueryText(QUERY_SELECT_ALL);
+        }
+        this.file = file;
+        this.gzip = gzip;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+    }
+
+    public ExportItemsStatement(final String containerId, final String file) {
+        this(containerId, null, file, null, null, null);
+    }
+
+    public ExportItemsStatement() {
+        this(null, null);
+    }
+
+    @Override
+    public String getCommandName() {
+        return COMMAND_NAME;
+    }
+
+    @Override
+    public String toJs() {
+        return
+                "db." +
+                        containerId +
+                        "." +
+                        getCommandName() +
+                        "(" +
+                        query.getQueryText() +
+                        ", " +
+                        file +
+                        ");";
+    }
+
+    @Override
+    public void execute(final CosmosLiquibaseDatabase database) {
+        final Logger log = Scope.getCurrentScope().getLog(getClass());
+        final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
+        final FeedRangeQueryExecutor queryExecutor = new FeedRangeQueryExecutor(cosmosContainer,
+                ofNullable(parallelism).orElseGet(CosmosConfiguration.QUERY_PARALLELISM::getCurrentValue),
+                ofNullable(pageSize).orElse(DEFAULT_PAGE_SIZE), database.getRateLimiter(cosmosContainer));
+
+        final Path target = Paths.get(file).toAbsolutePath();
+        final Path partial = target.resolveSibling(target.getFileName() + ".part");
+        final boolean compress = ofNullable(gzip).orElseGet(() -> file.endsWith(GZIP_EXTENSION));
+        final long exported;
+
+        try {
+            if (nonNull(target.getParent())) {
+                Files.createDirectories(target.getParent());
+            }
+            try (OutputStream outputStream = openOutputStream(partial, compress)) {
+                exported = queryExecutor.execute(getCommandName(), query, page -> writePage(page, outputStream));
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException | UncheckedIOException e) {
+            deleteQuietly(partial);
+            throw new UnexpectedLiquibaseException(String.format("Unable to export items of container %s to %s",
+                    containerId, target), e instanceof UncheckedIOException ? e.getCause() : e);
+        } catch (final RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+
+        log.info(String.format("Exported %d item(s) of container %s to %s", exported, containerId, target));
+    }
+
+    private static void writePage(final List<ObjectNode> items, final OutputStream outputStream) {
+        try {
+            final ByteArrayOutputStream page = new ByteArrayOutputStream();
+            for (final ObjectNode item : items) {
+                OBJECT_MAPPER.writeValue(page, item);
+                page.write(LINE_SEPARATOR);
+            }
+            // Pages of different feed ranges are interleaved, but a line is never split
+            synchronized (outputStream) {
+                page.writeTo(outputStream);
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OutputStream openOutputStream(final Path path, final boolean compress) throws IOException {
+        final OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(path));
+        return compress ? new GZIPOutputStream(outputStream) : outputStream;
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException ignored) {
+            // the original failure is more relevant
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Progress of a query over one feed range, reported by {@link FeedRangeQueryExecutor} for every feed range before the
+ * first page is read and after each processed page.
+ * <p>
+ * Every item before the continuation token has been handled when the checkpoint is reported, so the query can be
+ * resumed from it. The feed range is kept in its serialized form, see {@link com.azure.cosmos.models.FeedRange#fromString(String)}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class FeedRangeCheckpoint {
+
+    private final String feedRange;
+
+    /**
+     * The continuation token of the next page, null before the first page and once the feed range is exhausted.
+     */
+    private final String continuationToken;
+
+    /**
+     * Number of items of the feed range processed so far.
+     */
+    private final long processed;
+
+    private final boolean completed;
+
+    /**
+     * A checkpoint after a processed page, the feed range is completed when there is no next page.
+     */
+    public FeedRangeCheckpoint(final String feedRange, final String continuationToken, final long processed) {
+        this(feedRange, continuationToken, processed, isNull(continuationToken));
+    }
+
+    /**
+     * @return a checkpoint for a feed range none of whose pages has been read yet
+     */
+    public static FeedRangeCheckpoint notStarted(final String feedRange) {
+        return new FeedRangeCheckpoint(feedRange, null, 0, false);
+    }
+
+    public boolean isStarted() {
+        return completed || nonNull(continuationToken);
+    }
+}
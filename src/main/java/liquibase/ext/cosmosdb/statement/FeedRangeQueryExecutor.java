@@ -0,0 +1,267 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedRange;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.logging.Logger;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Runs a query separately over each feed range of a container and hands every page of results to a handler.
+ * <p>
+ * Up to {@link #getParallelism()} feed ranges are processed at a time, each on its own worker: virtual threads when
+ * the runtime supports them, a bounded pool of daemon threads otherwise. The handler runs on the worker, so the items
+ * of one range are processed in order while the ranges progress independently. Every feed range is reported as not
+ * started before the first page is read and a {@link FeedRangeCheckpoint} is reported after each page, so a run can be
+ * resumed from the checkpoints of an earlier one without losing the ranges it never got to. Page reads
+ * are paced by the {@link RequestChargeRateLimiter} of the container.
+ * <p>
+ * Queries whose result depends on seeing all items at once (TOP, OFFSET LIMIT, DISTINCT, GROUP BY, ORDER BY and the
+ * COUNT, SUM, MIN, MAX and AVG aggregates) are not split and run as a single query over the full range.
+ */
+public class FeedRangeQueryExecutor {
+
+    private static final Pattern WHOLE_RESULT_CLAUSES
+            = Pattern.compile("\\b(TOP|OFFSET|LIMIT|DISTINCT|GROUP\\s+BY|ORDER\\s+BY)\\b|\\b(COUNT|SUM|MIN|MAX|AVG)\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Logger log = Scope.getCurrentScope().getLog(getClass());
+
+    @Getter
+    private final CosmosContainer container;
+
+    @Getter
+    private final int parallelism;
+
+    /**
+     * Preferred number of items per page, null for the service default.
+     */
+    @Getter
+    private final Integer pageSize;
+
+    /**
+     * Paces the page reads against a request unit budget, shared with the writes of the same statement.
+     */
+    @Getter
+    private final RequestChargeRateLimiter rateLimiter;
+
+    public FeedRangeQueryExecutor(final CosmosContainer container, final int parallelism, final Integer pageSize) {
+        this(container, parallelism, pageSize, RequestChargeRateLimiter.UNLIMITED);
+    }
+
+    public FeedRangeQueryExecutor(final CosmosContainer container, final int parallelism, final Integer pageSize,
+                                  final RequestChargeRateLimiter rateLimiter) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be a positive number but was: " + parallelism);
+        }
+        if (nonNull(pageSize) && pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be a positive number but was: " + pageSize);
+        }
+        this.container = container;
+        this.parallelism = parallelism;
+        this.pageSize = pageSize;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Creates an executor for the container, falling back to {@link CosmosConfiguration#QUERY_PARALLELISM} when no
+     * parallelism is supplied.
+     */
+    public static FeedRangeQueryExecutor forContainer(final CosmosContainer container, final Integer parallelism,
+                                                      final RequestChargeRateLimiter rateLimiter) {
+        return new FeedRangeQueryExecutor(container,
+                ofNullable(parallelism).orElseGet(CosmosConfiguration.QUERY_PARALLELISM::getCurrentValue), null, rateLimiter);
+    }
+
+    /**
+     * @see #execute(String, SqlQuerySpec, Consumer, Consumer)
+     */
+    public long execute(final String commandName, final SqlQuerySpec query, final Consumer<List<ObjectNode>> pageHandler) {
+        return execute(commandName, query, pageHandler, checkpoint -> {
+        });
+    }
+
+    /**
+     * @see #execute(String, SqlQuerySpec, List, Consumer, Consumer)
+     */
+    public long execute(final String commandName, final SqlQuerySpec query, final Consumer<List<ObjectNode>> pageHandler,
+                        final Consumer<FeedRangeCheckpoint> checkpointListener) {
+        return execute(commandName, query, Collections.emptyList(), pageHandler, checkpointListener);
+    }
+
+    /**
+     * Runs the query over all feed ranges and waits until every page has been handled.
+     *
+     * @param commandName        the statement on whose behalf the query runs, used in the log and error messages
+     * @param query              the query
+     * @param resumeFrom         the checkpoints of an earlier run of the same query to continue from, empty to start over
+     * @param pageHandler        invoked with the items of each page, concurrently for different feed ranges
+     * @param checkpointListener invoked for every feed range before the run starts, then after each handled page,
+     *                           concurrently for different feed ranges
+     * @return the number of items handled by this run
+     */
+    public long execute(final String commandName, final SqlQuerySpec query, final List<FeedRangeCheckpoint> resumeFrom,
+                        final Consumer<List<ObjectNode>> pageHandler,
+                        final Consumer<FeedRangeCheckpoint> checkpointListener) {
+        final List<RangeWork> work = new ArrayList<>();
+        if (isNull(resumeFrom) || resumeFrom.isEmpty()) {
+            final List<FeedRange> feedRanges = isSplittable(query)
+                    ? container.getFeedRanges() : Collections.singletonList(FeedRange.forFullRange());
+            feedRanges.forEach(feedRange -> work.add(new RangeWork(feedRange, null, 0)));
+            work.forEach(rangeWork -> checkpointListener.accept(FeedRangeCheckpoint.notStarted(rangeWork.feedRange.toString())));
+        } else {
+            // Continue on the recorded ranges, a range that has been split since is still served as a whole
+            resumeFrom.stream().filter(checkpoint -> !checkpoint.isCompleted())
+                    .forEach(checkpoint -> work.add(new RangeWork(FeedRange.fromString(checkpoint.getFeedRange()),
+                            checkpoint.getContinuationToken(), checkpoint.getProcessed())));
+            log.info(String.format("%s on container %s resumes %d of %d feed range(s)",
+                    commandName, container.getId(), work.size(), resumeFrom.size()));
+        }
+        final Queue<RangeWork> pending = new ConcurrentLinkedQueue<>(work);
+        final int workerCount = Math.max(1, Math.min(parallelism, work.size()));
+        final LongAdder processed = new LongAdder();
+        final AtomicBoolean aborted = new AtomicBoolean();
+
+        final ExecutorService workers = newWorkers(workerCount);
+        try {
+            final List<Future<?>> futures = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                futures.add(workers.submit(() -> {
+                    RangeWork rangeWork;
+                    while (!aborted.get() && nonNull(rangeWork = pending.poll())) {
+                        try {
+                            processed.add(executeFeedRange(commandName, query, rangeWork, pageHandler, checkpointListener));
+                        } catch (final RuntimeException e) {
+                            aborted.set(true);
+                            throw e;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException(String.format("Interrupted while executing %s on container %s",
+                    commandName, container.getId()), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new UnexpectedLiquibaseException(e.getCause());
+        } finally {
+            aborted.set(true);
+            workers.shutdownNow();
+        }
+
+        log.info(String.format("%s on container %s processed %d item(s) from %d feed range(s) with parallelism %d",
+                commandName, container.getId(), processed.sum(), work.size(), workerCount));
+        return processed.sum();
+    }
+
+    private long executeFeedRange(final String commandName, final SqlQuerySpec query, final RangeWork rangeWork,
+                                  final Consumer<List<ObjectNode>> pageHandler,
+                                  final Consumer<FeedRangeCheckpoint> checkpointListener) {
+        final CosmosQueryRequestOptions options = new CosmosQueryRequestOptions().setFeedRange(rangeWork.feedRange);
+        final CosmosPagedIterable<ObjectNode> items = container.queryItems(query, options, ObjectNode.class);
+        final Iterable<FeedResponse<ObjectNode>> pages;
+        if (isNull(rangeWork.continuationToken)) {
+            pages = isNull(pageSize) ? items.iterableByPage() : items.iterableByPage(pageSize);
+        } else {
+            pages = isNull(pageSize) ? items.iterableByPage(rangeWork.continuationToken)
+                    : items.iterableByPage(rangeWork.continuationToken, pageSize);
+        }
+        long processed = 0;
+        final Iterator<FeedResponse<ObjectNode>> iterator = pages.iterator();
+        // The next page is fetched by hasNext(), so the budget is acquired before asking for it
+        while (hasNextPage(iterator)) {
+            final FeedResponse<ObjectNode> page = iterator.next();
+            rateLimiter.record(page.getRequestCharge());
+            pageHandler.accept(page.getResults());
+            processed += page.getResults().size();
+            final FeedRangeCheckpoint checkpoint = new FeedRangeCheckpoint(rangeWork.feedRange.toString(),
+                    page.getContinuationToken(), rangeWork.processed + processed);
+            checkpointListener.accept(checkpoint);
+            log.fine(String.format("%s on container %s: %s", commandName, container.getId(), checkpoint));
+        }
+        return processed;
+    }
+
+    private boolean hasNextPage(final Iterator<FeedResponse<ObjectNode>> iterator) {
+        rateLimiter.acquire();
+        return iterator.hasNext();
+    }
+
+    static boolean isSplittable(final SqlQuerySpec query) {
+        return isNull(query) || isNull(query.getQueryText()) || !WHOLE_RESULT_CLAUSES.matcher(query.getQueryText()).find();
+    }
+
+    @RequiredArgsConstructor
+    private static class RangeWork {
+        private final FeedRange feedRange;
+        private final String continuationToken;
+        private final long processed;
+    }
+
+    private ExecutorService newWorkers(final int count) {
+        try {
+            // Virtual threads are only available from Java 21 on, while the extension still runs on 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            final AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(count, runnable -> {
+                final Thread thread = new Thread(runnable, "cosmos-query-" + container.getId() + "-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
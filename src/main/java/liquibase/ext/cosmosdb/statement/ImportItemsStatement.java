@@ -0,0 +1,169 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.Scope;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.nosql.statement.NoSqlExecuteStatement;
+import liquibase.resource.PathResource;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static java.lang.Boolean.FALSE;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Optional.ofNullable;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.streamItems;
+
+/**
+ * Loads the items of a newline delimited JSON file, or a file holding a JSON array, into a container.
+ * <p>
+ * The file is streamed and written through the bulk API, so its size is not limited by the available memory.
+ * Gzip compressed files are decompressed on the fly.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class ImportItemsStatement extends AbstractCosmosContainerStatement
+        implements NoSqlExecuteStatement<CosmosLiquibaseDatabase> {
+
+    public static final String COMMAND_NAME = "importItems";
+
+    private final String file;
+
+    /**
+     * The changelog the file is relative to, null if the file path is resolved against the search path or,
+     * failing that, the local file system.
+     */
+    private final String relativeTo;
+
+    private final Integer batchSize;
+
+    private final Integer maxConcurrency;
+
+    /**
+     * Whether existing items are replaced, otherwise importing an existing item fails.
+     */
+    private final Boolean upsert;
+
+    public ImportItemsStatement(final String containerId, final String file, final String relativeTo,
+                                final Integer batchSize, final Integer maxConcurrency, final Boolean upsert) {
+        super(containerId);
+        this.file = file;
+        this.relativeTo = relativeTo;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.upsert = upsert;
+    }
+
+    public ImportItemsStatement(final String containerId, final String file) {
+        this(containerId, file, null, null, null, null);
+    }
+
+    public ImportItemsStatement() {
+        this(null, null);
+    }
+
+    @Override
+    public String getCommandName() {
+        return COMMAND_NAME;
+    }
+
+    @Override
+    public String toJs() {
+        return
+                "db." +
+                        containerId +
+                        "." +
+                        getCommandName() +
+                        "(" +
+                        file +
+                        ");";
+    }
+
+    @Override
+    public void execute(final CosmosLiquibaseDatabase database) {
+        final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
+        final PartitionKeyExtractor partitionKeyExtractor
+                = database.getContainerMetadataCache().getPartitionKeyExtractor(cosmosContainer);
+        final boolean replaceExisting = ofNullable(upsert).orElse(FALSE);
+
+        try (InputStream inputStream = decompressIfNeeded(resolveResource().openInputStream());
+             Stream<ObjectNode> items = streamItems(inputStream)) {
+            BulkItemExecutor.forContainer(cosmosContainer, batchSize, maxConcurrency,
+                    database.getRateLimiter(cosmosContainer)).execute(getCommandName(),
+                    items.map(item -> toOperation(item, partitionKeyExtractor, replaceExisting)));
+        } catch (final IOException | UncheckedIOException e) {
+            throw new UnexpectedLiquibaseException(String.format("Unable to import items from %s into container %s",
+                    file, containerId), e);
+        }
+    }
+
+    protected Resource resolveResource() throws IOException {
+        final ResourceAccessor resourceAccessor = Scope.getCurrentScope().getResourceAccessor();
+        final Resource resource = nonNull(relativeTo)
+                ? resourceAccessor.get(relativeTo).resolveSibling(file)
+                : resourceAccessor.get(file);
+        if (resource.exists()) {
+            return resource;
+        }
+        // Fall back to the local file system, e.g. for a file written by exportItems
+        final Path path = Paths.get(file);
+        if (isNull(relativeTo) && Files.isRegularFile(path)) {
+            return new PathResource(file, path);
+        }
+        throw new IOException("File not found: " + resource.getPath());
+    }
+
+    /**
+     * Detects gzip compressed input, such as files written by {@link ExportItemsStatement}, by its magic number.
+     */
+    private static InputStream decompressIfNeeded(final InputStream inputStream) throws IOException {
+        final BufferedInputStream buffered = new BufferedInputStream(inputStream);
+        buffered.mark(2);
+        final int first = buffered.read();
+        final int second = buffered.read();
+        buffered.reset();
+        return first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)
+                ? new GZIPInputStream(buffered) : buffered;
+    }
+
+    private static CosmosItemOperation toOperation(final ObjectNode item, final PartitionKeyExtractor partitionKeyExtractor,
+                                                   final boolean replaceExisting) {
+        return replaceExisting
+                ? CosmosBulkOperations.getUpsertItemOperation(item, partitionKeyExtractor.extract(item))
+                : CosmosBulkOperations.getCreateItemOperation(item, partitionKeyExtractor.extract(item));
+    }
+}
@@ -26,6 +26,7 @@ import com.azure.cosmos.implementation.DocumentCollection;
 import com.azure.cosmos.implementation.JsonSerializable;
 import com.azure.cosmos.implementation.Utils;
 import com.azure.cosmos.models.CosmosContainerProperties;
+import com.azure.cosmos.models.CosmosPatchOperations;
 import com.azure.cosmos.models.CosmosStoredProcedureProperties;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.PartitionKeyDefinition;
@@ -35,13 +36,24 @@ import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.models.ThroughputProperties;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
 import lombok.NoArgsConstructor;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static com.azure.cosmos.implementation.Constants.Properties.AUTOPILOT_MAX_THROUGHPUT;
 import static com.azure.cosmos.implementation.Constants.Properties.ID;
@@ -60,6 +72,10 @@ public final class JsonUtils {
     public static final String DEFAULT_PARTITION_KEY_PATH = PATH_SEPARATOR + DEFAULT_PARTITION_KEY_NAME;
     public static final String COSMOS_ID_PARAMETER = "@" + ID;
     public static final String QUERY_SELECT_ALL = "SELECT * FROM c";
+    /**
+     * Maximum number of operations the service accepts in a single patch request.
+     */
+    public static final int MAX_PATCH_OPERATIONS = 10;
 
     public static Document orEmptyDocument(final String json) {
         return ofNullable(trimToNull(json)).map(Document::new)
@@ -100,10 +116,138 @@ public final class JsonUtils {
     }
 
     public static Document mergeDocuments(final Document destination, final Document source) {
-        destination.getPropertyBag().setAll(source.getPropertyBag().deepCopy());
+        mergeItems(destination.getPropertyBag(), source.getPropertyBag());
+        return destination;
+    }
+
+    public static ObjectNode mergeItems(final ObjectNode destination, final ObjectNode source) {
+        destination.setAll(source.deepCopy());
         return destination;
     }
 
+    /**
+     * Deserialize the json to patch operations.
+     *
+     * @param json either an object whose top level fields (except id) are set on the item,
+     *             or an array of operations like {"op": "set", "path": "/field", "value": 1}
+     *             where op is one of add, set, replace, remove or increment.
+     *             See https://learn.microsoft.com/en-us/azure/cosmos-db/partial-document-update.
+     * @return the {@link CosmosPatchOperations}.
+     */
+    public static CosmosPatchOperations toPatchOperations(final String json) {
+        final JsonNode node;
+        try {
+            node = OBJECT_MAPPER.readTree(ofNullable(trimToNull(json)).orElse("{}"));
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException(String.format("Unable to parse JSON %s", json), e);
+        }
+
+        final CosmosPatchOperations patchOperations = CosmosPatchOperations.create();
+        int count = 0;
+        if (node.isObject()) {
+            for (final Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext(); ) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                if (!ID.equals(field.getKey())) {
+                    patchOperations.set(PATH_SEPARATOR + escapePathSegment(field.getKey()), toValue(field.getValue()));
+                    count++;
+                }
+            }
+        } else if (node.isArray()) {
+            for (final JsonNode operation : node) {
+                addPatchOperation(patchOperations, operation);
+                count++;
+            }
+        } else {
+            throw new IllegalArgumentException(String.format("Patch document must be an object or an array: %s", json));
+        }
+
+        if (count == 0) {
+            throw new IllegalArgumentException("Patch document contains no operations");
+        }
+        if (count > MAX_PATCH_OPERATIONS) {
+            throw new IllegalArgumentException(String.format("Patch document contains %d operations, at most %d are supported",
+                    count, MAX_PATCH_OPERATIONS));
+        }
+        return patchOperations;
+    }
+
+    private static void addPatchOperation(final CosmosPatchOperations patchOperations, final JsonNode operation) {
+        final String op = operation.path("op").asText();
+        final String path = operation.path("path").asText();
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Patch operation has no path: %s", operation));
+        }
+        final JsonNode value = operation.path("value");
+        switch (op) {
+            case "add" -> patchOperations.add(path, toValue(value));
+            case "set" -> patchOperations.set(path, toValue(value));
+            case "replace" -> patchOperations.replace(path, toValue(value));
+            case "remove" -> patchOperations.remove(path);
+            case "increment" -> {
+                if (!value.isNumber()) {
+                    throw new IllegalArgumentException(String.format("Patch increment requires a numeric value: %s", operation));
+                }
+                if (value.isIntegralNumber()) {
+                    patchOperations.increment(path, value.asLong());
+                } else {
+                    patchOperations.increment(path, value.asDouble());
+                }
+            }
+            default -> throw new IllegalArgumentException(String.format("Unsupported patch operation '%s'. "
+                    + "Valid values are: add, set, replace, remove, increment.", op));
+        }
+    }
+
+    private static Object toValue(final JsonNode value) {
+        try {
+            return OBJECT_MAPPER.treeToValue(value, Object.class);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException(String.format("Unable to convert JSON %s", value), e);
+        }
+    }
+
+    private static String escapePathSegment(final String segment) {
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Lazily reads the items of a JSON stream, never holding more than one item in memory.
+     *
+     * @param inputStream either newline delimited JSON (one object per line) or a JSON array of objects
+     * @return the items, closing the stream closes the input
+     * @throws IOException if the input is not a sequence or an array of objects
+     */
+    public static Stream<ObjectNode> streamItems(final InputStream inputStream) throws IOException {
+        final MappingIterator<ObjectNode> items = OBJECT_MAPPER.readerFor(ObjectNode.class).readValues(inputStream);
+        final Iterator<ObjectNode> unchecked = new Iterator<ObjectNode>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return items.hasNextValue();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public ObjectNode next() {
+                try {
+                    return items.nextValue();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(unchecked, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        items.close();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
     public static CosmosContainerProperties toContainerProperties(final String containerId, final String containerPropertiesJson, final boolean inferPartitionKeyKind) {
 
         final CosmosContainerProperties cosmosContainerProperties = new CosmosContainerProperties(containerId, DEFAULT_PARTITION_KEY_PATH);
@@ -164,14 +308,16 @@ public final class JsonUtils {
         return cosmosContainerProperties.getPartitionKeyDefinition().getPaths().stream().findFirst().orElse(DEFAULT_PARTITION_KEY_PATH);
     }
 
+    /**
+     * Extracts a single path partition key. Compiles the path on every call, prefer a {@link PartitionKeyExtractor}
+     * when extracting the keys of many items.
+     */
     public static PartitionKey extractPartitionKeyByPath(final Document document, final String path) {
-        return ofNullable(
-                document.getObjectByPath(Arrays.asList(path.replaceFirst("/", "").split("/")))
-        ).map(PartitionKey::new).orElse(PartitionKey.NONE);
+        return PartitionKeyExtractor.of(path).extract(document);
     }
 
     public static PartitionKey extractPartitionKey(final Document document, final CosmosContainer cosmosContainer) {
-        return extractPartitionKeyByPath(document,
-                extractPartitionKeyPath(cosmosContainer));
+        return PartitionKeyExtractor.of(cosmosContainer.read().getProperties().getPartitionKeyDefinition())
+                .extract(document);
     }
 }
@@ -0,0 +1,124 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.PartitionKeyBuilder;
+import com.azure.cosmos.models.PartitionKeyDefinition;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.azure.cosmos.implementation.Constants.Properties.ID;
+import static java.util.Optional.ofNullable;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.DEFAULT_PARTITION_KEY_PATH;
+
+/**
+ * Extracts the partition key of an item according to the partition key definition of its container.
+ * <p>
+ * The paths are compiled to {@link JsonPointer}s once when the extractor is created, so extracting the key of each
+ * item only walks its {@link ObjectNode}. Containers with hierarchical partition keys (several paths) get a key with
+ * one component per path, every one of which must be present in the item, although it may be null. Instances are
+ * immutable and can be shared between threads.
+ */
+public final class PartitionKeyExtractor {
+
+    @Getter
+    private final List<String> paths;
+
+    private final JsonPointer[] pointers;
+
+    private PartitionKeyExtractor(final List<String> paths) {
+        this.paths = Collections.unmodifiableList(paths);
+        this.pointers = paths.stream().map(JsonPointer::compile).toArray(JsonPointer[]::new);
+    }
+
+    public static PartitionKeyExtractor of(final PartitionKeyDefinition partitionKeyDefinition) {
+        final List<String> paths = ofNullable(partitionKeyDefinition).map(PartitionKeyDefinition::getPaths)
+                .filter(p -> !p.isEmpty()).orElse(Collections.singletonList(DEFAULT_PARTITION_KEY_PATH));
+        return new PartitionKeyExtractor(paths);
+    }
+
+    public static PartitionKeyExtractor of(final String... paths) {
+        return new PartitionKeyExtractor(paths.length == 0
+                ? Collections.singletonList(DEFAULT_PARTITION_KEY_PATH) : Arrays.asList(paths));
+    }
+
+    public boolean isHierarchical() {
+        return pointers.length > 1;
+    }
+
+    /**
+     * @param document the item
+     * @return the partition key of the item, {@link PartitionKey#NONE} if a single path key is missing or null
+     */
+    public PartitionKey extract(final Document document) {
+        return extract(document.getPropertyBag());
+    }
+
+    /**
+     * @param item the item
+     * @return the partition key of the item, {@link PartitionKey#NONE} if a single path key is missing or null
+     * @throws IllegalArgumentException if a component of a hierarchical key is missing, which the SDK cannot address
+     */
+    public PartitionKey extract(final ObjectNode item) {
+        if (pointers.length == 1) {
+            final JsonNode value = item.at(pointers[0]);
+            return value.isMissingNode() || value.isNull() ? PartitionKey.NONE : new PartitionKey(toScalar(value));
+        }
+        final PartitionKeyBuilder builder = new PartitionKeyBuilder();
+        for (int i = 0; i < pointers.length; i++) {
+            final JsonNode value = item.at(pointers[i]);
+            if (value.isMissingNode()) {
+                throw new IllegalArgumentException(String.format("Item %s has no value for the partition key path %s of %s",
+                        item.path(ID).asText(), paths.get(i), paths));
+            } else if (value.isNull()) {
+                builder.addNullValue();
+            } else if (value.isTextual()) {
+                builder.add(value.textValue());
+            } else if (value.isNumber()) {
+                builder.add(value.doubleValue());
+            } else if (value.isBoolean()) {
+                builder.add(value.booleanValue());
+            } else {
+                throw new IllegalArgumentException("Unsupported partition key value: " + value);
+            }
+        }
+        return builder.build();
+    }
+
+    private static Object toScalar(final JsonNode value) {
+        if (value.isTextual()) {
+            return value.textValue();
+        }
+        if (value.isNumber()) {
+            return value.numberValue();
+        }
+        if (value.isBoolean()) {
+            return value.booleanValue();
+        }
+        throw new IllegalArgumentException("Unsupported partition key value: " + value);
+    }
+}
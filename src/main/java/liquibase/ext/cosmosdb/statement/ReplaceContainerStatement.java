@@ -60,6 +60,7 @@ public class ReplaceContainerStatement extends CreateContainerStatement {
             final ThroughputProperties cosmosContainerProperties = toThroughputProperties(getThroughputProperties());
             database.getCosmosDatabase().getContainer(getContainerId()).replaceThroughput(cosmosContainerProperties);
         }
+        database.getContainerMetadataCache().invalidate(getContainerId());
     }
 
 }
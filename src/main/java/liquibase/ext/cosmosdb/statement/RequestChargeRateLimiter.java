@@ -0,0 +1,206 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.TOO_MANY_REQUESTS;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Keeps the request units consumed against a container within a budget per second.
+ * <p>
+ * A token bucket holding at most one second of budget, drained by the request charge the service reports for each
+ * response. As the charge is only known afterwards, the balance may go negative and the next request waits until it
+ * is paid off. A throttled request (429) halves the rate and pauses for the suggested retry-after; the rate then
+ * recovers linearly back to the budget. Instances are shared by all threads working on the same container.
+ */
+public class RequestChargeRateLimiter {
+
+    /**
+     * A limiter that never waits.
+     */
+    public static final RequestChargeRateLimiter UNLIMITED = new RequestChargeRateLimiter();
+
+    /**
+     * The rate never drops below this fraction of the budget, however many requests are throttled.
+     */
+    static final double MIN_RATE_FRACTION = 0.1;
+
+    /**
+     * Fraction of the budget the rate regains per second after being reduced.
+     */
+    static final double RECOVERY_PER_SECOND = 0.1;
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    /**
+     * The budget in request units per second, {@link Double#POSITIVE_INFINITY} when unlimited.
+     */
+    @Getter
+    private final double requestUnitsPerSecond;
+
+    private final LongSupplier clock;
+
+    private double rate;
+    private double balance;
+    private long refilledNanos;
+    private long pausedUntilNanos;
+
+    private RequestChargeRateLimiter() {
+        this.requestUnitsPerSecond = Double.POSITIVE_INFINITY;
+        this.clock = System::nanoTime;
+    }
+
+    public RequestChargeRateLimiter(final double requestUnitsPerSecond) {
+        this(requestUnitsPerSecond, System::nanoTime);
+    }
+
+    RequestChargeRateLimiter(final double requestUnitsPerSecond, final LongSupplier clock) {
+        if (!(requestUnitsPerSecond > 0) || Double.isInfinite(requestUnitsPerSecond)) {
+            throw new IllegalArgumentException("requestUnitsPerSecond must be a positive number but was: " + requestUnitsPerSecond);
+        }
+        this.requestUnitsPerSecond = requestUnitsPerSecond;
+        this.clock = clock;
+        this.rate = requestUnitsPerSecond;
+        this.balance = requestUnitsPerSecond;
+        this.refilledNanos = clock.getAsLong();
+        this.pausedUntilNanos = refilledNanos;
+    }
+
+    public boolean isUnlimited() {
+        return Double.isInfinite(requestUnitsPerSecond);
+    }
+
+    /**
+     * @return the request units per second currently allowed, below the budget after throttling
+     */
+    public synchronized double getRate() {
+        return isUnlimited() ? requestUnitsPerSecond : rate;
+    }
+
+    /**
+     * Blocks until a request may be sent.
+     */
+    public void acquire() {
+        if (isUnlimited()) {
+            return;
+        }
+        long waitNanos;
+        while ((waitNanos = reserve()) > 0) {
+            sleepNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Charges the request units consumed by a response.
+     *
+     * @param requestCharge the request charge of the response
+     */
+    public synchronized void record(final double requestCharge) {
+        if (isUnlimited()) {
+            return;
+        }
+        refill();
+        balance -= requestCharge;
+    }
+
+    /**
+     * Slows down after the service throttled a request.
+     *
+     * @param retryAfter the back-off suggested by the service
+     */
+    public synchronized void onThrottled(final Duration retryAfter) {
+        if (isUnlimited()) {
+            return;
+        }
+        refill();
+        rate = Math.max(requestUnitsPerSecond * MIN_RATE_FRACTION, rate / 2);
+        balance = Math.min(balance, 0);
+        pausedUntilNanos = Math.max(pausedUntilNanos, refilledNanos + retryAfter.toNanos());
+    }
+
+    /**
+     * Sends a single request within the budget.
+     *
+     * @param request       sends the request
+     * @param requestCharge reads the request charge of the response
+     * @return the response
+     */
+    public <R> R call(final Supplier<R> request, final ToDoubleFunction<R> requestCharge) {
+        acquire();
+        try {
+            final R response = request.get();
+            record(requestCharge.applyAsDouble(response));
+            return response;
+        } catch (final CosmosException e) {
+            record(e.getRequestCharge());
+            if (e.getStatusCode() == TOO_MANY_REQUESTS) {
+                onThrottled(ofNullable(e.getRetryAfterDuration()).orElse(Duration.ZERO));
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return isUnlimited() ? "unlimited"
+                : String.format(Locale.ROOT, "%.0f of %.0f RU/s", rate, requestUnitsPerSecond);
+    }
+
+    protected void sleepNanos(final long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException("Interrupted while waiting for the request unit budget", e);
+        }
+    }
+
+    /**
+     * @return how long to wait before the next request, 0 if it may be sent now
+     */
+    private synchronized long reserve() {
+        refill();
+        if (pausedUntilNanos > refilledNanos) {
+            return pausedUntilNanos - refilledNanos;
+        }
+        if (balance >= 0) {
+            return 0;
+        }
+        return Math.max(1, (long) (-balance / rate * NANOS_PER_SECOND));
+    }
+
+    private void refill() {
+        final long now = clock.getAsLong();
+        final double seconds = (now - refilledNanos) / NANOS_PER_SECOND;
+        refilledNanos = now;
+        rate = Math.min(requestUnitsPerSecond, rate + requestUnitsPerSecond * RECOVERY_PER_SECOND * seconds);
+        balance = Math.min(rate, balance + rate * seconds);
+    }
+}
@@ -22,30 +22,97 @@ package liquibase.ext.cosmosdb.statement;
 
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.CosmosPatchItemRequestOptions;
+import com.azure.cosmos.models.CosmosPatchOperations;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import lombok.Getter;
+import lombok.Setter;
 
-import static liquibase.ext.cosmosdb.statement.JsonUtils.extractPartitionKeyByPath;
-import static liquibase.ext.cosmosdb.statement.JsonUtils.extractPartitionKeyPath;
-import static liquibase.ext.cosmosdb.statement.JsonUtils.mergeDocuments;
+import java.util.stream.Collectors;
+
+import static com.azure.cosmos.implementation.Constants.Properties.ID;
+import static java.util.Objects.nonNull;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.mergeItems;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.orEmptySqlQuerySpec;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.toPatchOperations;
 
+/**
+ * Updates each item matched by the query.
+ * <p>
+ * By default every matched item is read, merged with the document and upserted back. In patch mode the document is
+ * translated to {@link CosmosPatchOperations} applied on the server, so only the id and the partition key of the
+ * matched items are needed and the query may project just those.
+ * <p>
+ * The query runs per feed range through a {@link FeedRangeQueryExecutor}, so with a {@link #getParallelism()} above
+ * one the feed ranges of the container are read and updated concurrently.
+ */
 public class UpdateEachItemStatement extends CreateItemStatement {
 
     public static final String COMMAND_NAME = "updateEachItem";
 
     private final SqlQuerySpec query;
 
+    /**
+     * Whether to submit the updates through the bulk API, null falls back to the configured default.
+     */
+    @Getter
+    private final Boolean bulk;
+
+    /**
+     * Number of operations per bulk batch, null falls back to the configured default.
+     */
+    @Getter
+    private final Integer batchSize;
+
+    /**
+     * The patch to apply to each item, null when items are merged and upserted.
+     */
+    @Getter
+    private final CosmosPatchOperations patchOperations;
+
+    /**
+     * How many feed ranges are queried and updated at a time, null falls back to the configured default.
+     */
+    @Getter
+    private final Integer parallelism;
+
+    /**
+     * Identifies the change whose progress is persisted so that an interrupted run resumes, null to always start over.
+     */
+    @Getter
+    @Setter
+    private ChangeSetProgress progress;
+
     public UpdateEachItemStatement(final String containerId, final String jsonQuery, final String jsonDocument) {
-        super(containerId, jsonDocument);
+        this(containerId, jsonQuery, jsonDocument, null, null, null, null);
+    }
+
+    public UpdateEachItemStatement(final String containerId, final String jsonQuery, final String jsonDocument,
+                                   final Boolean bulk, final Integer batchSize, final Boolean patch,
+                                   final Integer parallelism) {
+        // A patch document may be an array of operations, so it is not kept as the item document
+        super(containerId, Boolean.TRUE.equals(patch) ? null : jsonDocument);
         this.query = orEmptySqlQuerySpec(jsonQuery);
+        this.bulk = bulk;
+        this.batchSize = batchSize;
+        this.patchOperations = Boolean.TRUE.equals(patch) ? toPatchOperations(jsonDocument) : null;
+        this.parallelism = parallelism;
     }
 
     public UpdateEachItemStatement(final String containerId, final SqlQuerySpec query, final Document document) {
         super(containerId, document);
         this.query = query;
+        this.bulk = null;
+        this.batchSize = null;
+        this.patchOperations = null;
+        this.parallelism = null;
     }
 
     public UpdateEachItemStatement() {
@@ -60,17 +127,56 @@ public class UpdateEachItemStatement extends CreateItemStatement {
     @Override
     public void execute(final CosmosLiquibaseDatabase database) {
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(containerId);
-        final String partitionKeyPath = extractPartitionKeyPath(cosmosContainer);
+        final PartitionKeyExtractor partitionKeyExtractor
+                = database.getContainerMetadataCache().getPartitionKeyExtractor(cosmosContainer);
+        final RequestChargeRateLimiter rateLimiter = database.getRateLimiter(cosmosContainer);
+        final FeedRangeQueryExecutor queryExecutor
+                = FeedRangeQueryExecutor.forContainer(cosmosContainer, parallelism, rateLimiter);
+        final ChangeSetProgressTracker tracker = ChangeSetProgressTracker.open(database, progress, getCommandName(), query);
 
-        final Document source = getDocument();
+        if (BulkItemExecutor.isBulkEnabled(bulk)) {
+            final BulkItemExecutor.Session session
+                    = BulkItemExecutor.forContainer(cosmosContainer, batchSize, null, rateLimiter).open(getCommandName());
+            tracker.setBeforePersist(session::flush);
+            try {
+                queryExecutor.execute(getCommandName(), query, tracker.getResumeFrom(), page -> session.submit(page.stream()
+                        .map(item -> toBulkOperation(item, partitionKeyExtractor))
+                        .collect(Collectors.toList())), tracker);
+            } finally {
+                session.close();
+            }
+            session.complete();
+        } else {
+            // The patched item is not needed, skip sending it back
+            final CosmosPatchItemRequestOptions patchOptions = new CosmosPatchItemRequestOptions();
+            patchOptions.setContentResponseOnWriteEnabled(false);
+            queryExecutor.execute(getCommandName(), query, tracker.getResumeFrom(),
+                    page -> page.forEach(item -> update(cosmosContainer, item, partitionKeyExtractor, patchOptions, rateLimiter)),
+                    tracker);
+        }
+        tracker.complete();
+    }
+
+    private CosmosItemOperation toBulkOperation(final ObjectNode item, final PartitionKeyExtractor partitionKeyExtractor) {
+        if (nonNull(patchOperations)) {
+            return CosmosBulkOperations.getPatchItemOperation(
+                    item.path(ID).asText(), partitionKeyExtractor.extract(item), patchOperations);
+        }
+        final ObjectNode destination = mergeItems(item, getDocument().getPropertyBag());
+        return CosmosBulkOperations.getUpsertItemOperation(destination, partitionKeyExtractor.extract(destination));
+    }
 
-        cosmosContainer
-                .queryItems(query, null, ObjectNode.class).stream().map(Document::new)
-                .map(d -> mergeDocuments(d, source))
-                .forEach(destination -> {
-            final PartitionKey partitionKey = extractPartitionKeyByPath(destination, partitionKeyPath);
-            cosmosContainer.upsertItem(destination, partitionKey, null);
-        });
+    private void update(final CosmosContainer cosmosContainer, final ObjectNode item,
+                        final PartitionKeyExtractor partitionKeyExtractor, final CosmosPatchItemRequestOptions patchOptions,
+                        final RequestChargeRateLimiter rateLimiter) {
+        if (nonNull(patchOperations)) {
+            rateLimiter.call(() -> cosmosContainer.patchItem(item.path(ID).asText(), partitionKeyExtractor.extract(item),
+                    patchOperations, patchOptions, ObjectNode.class), CosmosItemResponse::getRequestCharge);
+            return;
+        }
+        final ObjectNode destination = mergeItems(item, getDocument().getPropertyBag());
+        final PartitionKey partitionKey = partitionKeyExtractor.extract(destination);
+        rateLimiter.call(() -> cosmosContainer.upsertItem(destination, partitionKey, null), CosmosItemResponse::getRequestCharge);
     }
 
 }
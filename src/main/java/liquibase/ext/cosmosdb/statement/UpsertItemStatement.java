@@ -22,6 +22,7 @@ package liquibase.ext.cosmosdb.statement;
 
 import com.azure.cosmos.CosmosContainer;
 import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.PartitionKey;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import lombok.EqualsAndHashCode;
@@ -51,8 +52,10 @@ public class UpsertItemStatement extends CreateItemStatement {
     @Override
     public void execute(final CosmosLiquibaseDatabase database) {
         final CosmosContainer cosmosContainer = database.getCosmosDatabase().getContainer(getContainerId());
-        final PartitionKey key = JsonUtils.extractPartitionKey(getDocument(), cosmosContainer);
-                cosmosContainer.upsertItem(getDocument(), key, null);
+        final PartitionKey key = database.getContainerMetadataCache().getPartitionKeyExtractor(cosmosContainer)
+                .extract(getDocument());
+        database.getRateLimiter(cosmosContainer).call(() -> cosmosContainer.upsertItem(getDocument(), key, null),
+                CosmosItemResponse::getRequestCharge);
     }
 
     @Override
@@ -20,7 +20,9 @@ package liquibase.nosql.changelog;
  * #L%
  */
 
+import liquibase.ChecksumVersion;
 import liquibase.Scope;
+import liquibase.change.CheckSum;
 import liquibase.changelog.AbstractChangeLogHistoryService;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
@@ -35,6 +37,8 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -42,6 +46,7 @@ import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 import static liquibase.plugin.Plugin.PRIORITY_SPECIALIZED;
 
 public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabase> extends AbstractChangeLogHistoryService {
@@ -49,6 +54,12 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
     @Getter
     private List<RanChangeSet> ranChangeSetList;
 
+    /**
+     * Set by {@link #reset()} when the ran changeSets are cached, so that the next {@link #getRanChangeSets()}
+     * brings the cached list up to date through {@link #refreshRanChangeSets(List)} instead of reading it again.
+     */
+    private boolean ranChangeSetListStale;
+
     private boolean serviceInitialized;
 
     @Getter
@@ -95,7 +106,8 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
     @Override
     public void reset() {
         super.reset();
-        this.ranChangeSetList = null;
+        // The list stays cached, the changelog may have been changed by someone else since it was read
+        this.ranChangeSetListStale = nonNull(this.ranChangeSetList);
         this.serviceInitialized = false;
         this.hasDatabaseChangeLogTable = null;
         this.adjustedChangeLogTable = FALSE;
@@ -150,11 +162,17 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
 
         if (isNull(this.ranChangeSetList)) {
-            this.ranChangeSetList = queryRanChangeSets();
+            this.ranChangeSetList = new ArrayList<>(queryRanChangeSets());
+        } else if (this.ranChangeSetListStale) {
+            this.ranChangeSetList = new ArrayList<>(refreshRanChangeSets(unmodifiableList(this.ranChangeSetList)));
         }
+        this.ranChangeSetListStale = false;
         return unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Updates the checksum in the changelog and in the cached ran changeSets, which stay valid.
+     */
     @Override
     public void replaceChecksum(final ChangeSet changeSet) throws DatabaseException {
 
@@ -163,7 +181,11 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
         getLogger().info(String.format("Replace checksum executed. ChangeSet: [filename: %s, id: %s, author: %s]"
                 , changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
 
-        reset();
+        if (this.ranChangeSetList != null) {
+            final CheckSum checkSum = changeSet.generateCheckSum(ChecksumVersion.latest());
+            this.ranChangeSetList.replaceAll(ranChangeSet -> ranChangeSet.isSameAs(changeSet)
+                    ? withCheckSum(ranChangeSet, checkSum) : ranChangeSet);
+        }
     }
 
     @Override
@@ -183,7 +205,11 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
 
         getDatabase().commit();
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+            // A changeSet that ran again replaces its earlier entry
+            this.ranChangeSetList.removeIf(ranChangeSet -> ranChangeSet.isSameAs(changeSet));
+            final RanChangeSet ranChangeSet = new RanChangeSet(changeSet, execType, null, null);
+            ranChangeSet.setOrderExecuted(nextSequenceValue);
+            this.ranChangeSetList.add(ranChangeSet);
         }
     }
 
@@ -193,7 +219,8 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
         removeRanChangeSet(changeSet);
 
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            // Cached entries may be of a subclass, which RanChangeSet#equals does not match
+            this.ranChangeSetList.removeIf(ranChangeSet -> ranChangeSet.isSameAs(changeSet));
         }
     }
 
@@ -229,7 +256,10 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
         tagLast(tagString);
 
         if (this.ranChangeSetList != null) {
-            ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
+            // The same changeSet tagLast() tags, the most recently executed one
+            ranChangeSetList.stream()
+                    .max(Comparator.comparing(RanChangeSet::getDateExecuted, Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .ifPresent(ranChangeSet -> ranChangeSet.setTag(tagString));
         }
     }
 
@@ -267,11 +297,39 @@ public abstract class AbstractNoSqlHistoryService<D extends AbstractNoSqlDatabas
                 getLogger().warning("Cannot Drop Collection Database Change Log as not found: " + getDatabaseChangeLogTableName());
             }
             reset();
+            this.ranChangeSetList = null;
+            this.ranChangeSetListStale = false;
         } catch (final DatabaseException e) {
             throw new UnexpectedLiquibaseException(e);
         }
     }
 
+    /**
+     * Brings the ran changeSets cached before a {@link #reset()} up to date. Reads them all again by default,
+     * implementations may only read what changed since.
+     *
+     * @param cached the ran changeSets as cached, including the changes made through this service
+     * @return the current ran changeSets
+     * @throws DatabaseException in case of a failure
+     */
+    protected List<RanChangeSet> refreshRanChangeSets(final List<RanChangeSet> cached) throws DatabaseException {
+        return queryRanChangeSets();
+    }
+
+    /**
+     * @param ranChangeSet the cached ran changeSet
+     * @param checkSum     the new checksum
+     * @return a copy of the ran changeSet with the checksum replaced
+     */
+    protected RanChangeSet withCheckSum(final RanChangeSet ranChangeSet, final CheckSum checkSum) {
+        final RanChangeSet copy = new RanChangeSet(ranChangeSet.getChangeLog(), ranChangeSet.getId(),
+                ranChangeSet.getAuthor(), checkSum, ranChangeSet.getDateExecuted(), ranChangeSet.getTag(),
+                ranChangeSet.getExecType(), ranChangeSet.getDescription(), ranChangeSet.getComments(),
+                ranChangeSet.getContextExpression(), ranChangeSet.getLabels(), ranChangeSet.getDeploymentId());
+        copy.setOrderExecuted(ranChangeSet.getOrderExecuted());
+        return copy;
+    }
+
     protected abstract Logger getLogger();
 
     protected abstract Boolean existsRepository() throws DatabaseException;
@@ -23,10 +23,13 @@ package liquibase.nosql.database;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.nosql.executor.NoSqlStatementListener;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Optional;
+
 @Getter
 @Setter
 @NoArgsConstructor()
@@ -83,4 +86,11 @@ public abstract class AbstractNoSqlConnection implements DatabaseConnection {
         // Do nothing
     }
 
+    /**
+     * @return the listener told about the statements executed on the connection, empty if there is none
+     */
+    public Optional<NoSqlStatementListener> getStatementListener() {
+        return Optional.empty();
+    }
+
 }
@@ -27,6 +27,7 @@ import liquibase.database.DatabaseConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.ValidationErrors;
+import liquibase.nosql.statement.NoSqlAsyncExecuteStatement;
 import liquibase.statement.DatabaseFunction;
 import liquibase.structure.DatabaseObject;
 import lombok.NoArgsConstructor;
@@ -316,6 +317,13 @@ public abstract class AbstractNoSqlDatabase extends AbstractJdbcDatabase impleme
     @Override
     public abstract String getDatabaseProductName();
 
+    /**
+     * @return how many requests of a {@link NoSqlAsyncExecuteStatement} may be in flight at a time
+     */
+    public int getAsyncMaxConcurrency() {
+        return NoSqlAsyncExecuteStatement.DEFAULT_MAX_CONCURRENCY;
+    }
+
     @Override
     public boolean isCorrectDatabaseImplementation(final DatabaseConnection conn) throws DatabaseException {
         return conn instanceof AbstractNoSqlConnection && getDatabaseProductName().equals(conn.getDatabaseProductName());
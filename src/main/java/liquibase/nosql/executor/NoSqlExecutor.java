@@ -22,6 +22,7 @@ package liquibase.nosql.executor;
 
 import liquibase.Scope;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.executor.AbstractExecutor;
@@ -30,6 +31,8 @@ import liquibase.logging.Logger;
 import liquibase.nosql.changelog.AbstractNoSqlHistoryService;
 import liquibase.nosql.database.AbstractNoSqlConnection;
 import liquibase.nosql.database.AbstractNoSqlDatabase;
+import liquibase.nosql.statement.AbstractNoSqlStatement;
+import liquibase.nosql.statement.NoSqlAsyncExecuteStatement;
 import liquibase.nosql.statement.NoSqlExecuteStatement;
 import liquibase.nosql.statement.NoSqlQueryForListStatement;
 import liquibase.nosql.statement.NoSqlQueryForLongStatement;
@@ -43,8 +46,10 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
 import static java.util.Optional.ofNullable;
 
 @LiquibaseService
@@ -93,12 +98,8 @@ public class NoSqlExecutor extends AbstractExecutor {
     @Override
     public <T> T queryForObject(final SqlStatement sql, final Class<T> requiredType, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof NoSqlQueryForObjectStatement) {
-            try {
-                return ((NoSqlQueryForObjectStatement<?>) sql)
-                        .queryForObject(getDatabase(), requiredType);
-            } catch (final Exception e) {
-                throw new DatabaseException("Could not query for object", e);
-            }
+            return measure(sql, "Could not query for object",
+                    () -> ((NoSqlQueryForObjectStatement<?>) sql).queryForObject(getDatabase(), requiredType));
         }
         throw new IllegalArgumentException();
     }
@@ -111,11 +112,8 @@ public class NoSqlExecutor extends AbstractExecutor {
     @Override
     public long queryForLong(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof NoSqlQueryForLongStatement) {
-            try {
-                return ((NoSqlQueryForLongStatement<? extends AbstractNoSqlDatabase>) sql).queryForLong(getDatabase());
-            } catch (final Exception e) {
-                throw new DatabaseException("Could not query for long", e);
-            }
+            return measure(sql, "Could not query for long",
+                    () -> ((NoSqlQueryForLongStatement<? extends AbstractNoSqlDatabase>) sql).queryForLong(getDatabase()));
         }
         throw new IllegalArgumentException();
     }
@@ -139,11 +137,8 @@ public class NoSqlExecutor extends AbstractExecutor {
     @SuppressWarnings("unchecked")
     public List<Object> queryForList(final SqlStatement sql, final Class elementType, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof NoSqlQueryForListStatement) {
-            try {
-                return ((NoSqlQueryForListStatement<? extends AbstractNoSqlDatabase, Object>) sql).queryForList(getDatabase());
-            } catch (final Exception e) {
-                throw new DatabaseException("Could not query for list", e);
-            }
+            return measure(sql, "Could not query for list",
+                    () -> ((NoSqlQueryForListStatement<? extends AbstractNoSqlDatabase, Object>) sql).queryForList(getDatabase()));
         }
         throw new IllegalArgumentException();
     }
@@ -186,12 +181,17 @@ public class NoSqlExecutor extends AbstractExecutor {
 
     @Override
     public void execute(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
-        if (sql instanceof NoSqlExecuteStatement) {
-            try {
+        if (sql instanceof NoSqlAsyncExecuteStatement) {
+            measure(sql, "Could not execute", () -> {
+                final int maxConcurrency = this.<AbstractNoSqlDatabase>getDatabase().getAsyncMaxConcurrency();
+                ((NoSqlAsyncExecuteStatement<? extends AbstractNoSqlDatabase>) sql).execute(getDatabase(), maxConcurrency);
+                return null;
+            });
+        } else if (sql instanceof NoSqlExecuteStatement) {
+            measure(sql, "Could not execute", () -> {
                 ((NoSqlExecuteStatement<? extends AbstractNoSqlDatabase>) sql).execute(getDatabase());
-            } catch (final Exception e) {
-                throw new DatabaseException("Could not execute", e);
-            }
+                return null;
+            });
         } else if (sql instanceof UpdateStatement) {
             execute((UpdateStatement) sql);
         } else {
@@ -207,16 +207,47 @@ public class NoSqlExecutor extends AbstractExecutor {
     @Override
     public int update(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
         if (sql instanceof NoSqlUpdateStatement) {
-            try {
-                return ((NoSqlUpdateStatement<? extends AbstractNoSqlDatabase>) sql).update(getDatabase());
-            } catch (final Exception e) {
-                throw new DatabaseException("Could not execute", e);
-            }
+            return measure(sql, "Could not execute",
+                    () -> ((NoSqlUpdateStatement<? extends AbstractNoSqlDatabase>) sql).update(getDatabase()));
         } else {
             throw new IllegalArgumentException();
         }
     }
 
+    /**
+     * Runs the statement, telling the {@link NoSqlStatementListener} of the connection when it starts and finishes.
+     */
+    private <T> T measure(final SqlStatement sql, final String errorMessage, final Callable<T> statement)
+            throws DatabaseException {
+        final AbstractNoSqlConnection connection = getConnection();
+        final NoSqlStatementListener.Execution execution = ofNullable(connection)
+                .flatMap(AbstractNoSqlConnection::getStatementListener)
+                .map(listener -> listener.statementStarted(getStatementType(sql), getCurrentChangeSetId()))
+                .orElse(null);
+        boolean failed = true;
+        try {
+            final T result = statement.call();
+            failed = false;
+            return result;
+        } catch (final Exception e) {
+            throw new DatabaseException(errorMessage, e);
+        } finally {
+            if (nonNull(execution)) {
+                execution.finished(failed);
+            }
+        }
+    }
+
+    private static String getStatementType(final SqlStatement sql) {
+        return sql instanceof AbstractNoSqlStatement
+                ? ((AbstractNoSqlStatement) sql).getCommandName() : sql.getClass().getSimpleName();
+    }
+
+    private static String getCurrentChangeSetId() {
+        return ofNullable(Scope.getCurrentScope().get(Scope.Attr.changeSet.name(), ChangeSet.class))
+                .map(changeSet -> changeSet.toString(false)).orElse(null);
+    }
+
     @Override
     public void comment(final String message) {
         log.info(message);
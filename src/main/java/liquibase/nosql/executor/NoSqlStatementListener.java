@@ -0,0 +1,41 @@
+package liquibase.nosql.executor;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Told by {@link NoSqlExecutor} about every statement it runs on a connection, see
+ * {@link liquibase.nosql.database.AbstractNoSqlConnection#getStatementListener()}.
+ */
+public interface NoSqlStatementListener {
+
+    /**
+     * @param statementType the command name of the statement
+     * @param changeSetId   the changeSet running the statement, null if none
+     * @return the execution, finished once the statement returns
+     */
+    Execution statementStarted(String statementType, String changeSetId);
+
+    interface Execution {
+
+        /**
+         * @param failed whether the statement failed
+         */
+        void finished(boolean failed);
+    }
+}
@@ -114,13 +114,13 @@ public abstract class AbstractNoSqlLockService<D extends AbstractNoSqlDatabase>
         boolean locked = false;
 
         final long timeToGiveUp = getClock().instant().plusSeconds(getChangeLogLockWaitTime() * 60).toEpochMilli();
+        int attempt = 0;
         while (!locked && (getClock().instant().toEpochMilli() < timeToGiveUp)) {
             locked = acquireLock();
             if (!locked) {
                 getLogger().info("Waiting for changelog lock....");
                 try {
-                    //noinspection BusyWait
-                    Thread.sleep(getChangeLogLockRecheckTime() * 1000);
+                    waitForLockChange(attempt++, getChangeLogLockRecheckTime() * 1000);
                 } catch (InterruptedException e) {
                     // Restore thread interrupt status
                     Thread.currentThread().interrupt();
@@ -303,6 +303,19 @@ public abstract class AbstractNoSqlLockService<D extends AbstractNoSqlDatabase>
         return this.hasDatabaseChangeLogLockTable;
     }
 
+    /**
+     * Waits before the next attempt to acquire the lock. Sleeps for the recheck time by default, implementations may
+     * return as soon as the lock could have been released.
+     *
+     * @param attempt        the number of attempts that failed before, starting at 0
+     * @param recheckMillis  the configured time between attempts in milliseconds
+     * @throws InterruptedException if interrupted while waiting
+     */
+    protected void waitForLockChange(final int attempt, final long recheckMillis) throws InterruptedException {
+        //noinspection BusyWait
+        Thread.sleep(recheckMillis);
+    }
+
     protected abstract Logger getLogger();
 
     protected abstract Boolean existsRepository() throws DatabaseException;
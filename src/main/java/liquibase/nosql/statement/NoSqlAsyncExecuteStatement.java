@@ -0,0 +1,66 @@
+package liquibase.nosql.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.nosql.database.AbstractNoSqlDatabase;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+/**
+ * A statement made of many independent asynchronous requests, such as deleting items or containers one by one.
+ * <p>
+ * The statement describes its requests as a stream of publishers, each completing when its request finished.
+ * {@link liquibase.nosql.executor.NoSqlExecutor} subscribes to at most {@code maxConcurrency} of them at a time and
+ * only pulls further requests from the stream as earlier ones complete, so the statement is bound by the throughput
+ * of the service rather than by the round trip of each request, without building up unbounded work in memory.
+ *
+ * @param <D> the database type
+ */
+public interface NoSqlAsyncExecuteStatement<D extends AbstractNoSqlDatabase> extends NoSqlExecuteStatement<D> {
+
+    int DEFAULT_MAX_CONCURRENCY = 16;
+
+    /**
+     * @param database the database
+     * @return the requests of the statement, subscribed to lazily
+     */
+    Publisher<? extends Publisher<?>> operations(D database);
+
+    @Override
+    default void execute(final D database) {
+        execute(database, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Runs the requests of the statement and blocks until all of them completed.
+     *
+     * @param database       the database
+     * @param maxConcurrency how many requests may be in flight at a time
+     */
+    default void execute(final D database, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        Flux.<Publisher<?>>from(operations(database))
+                .flatMap(operation -> operation, maxConcurrency, 1)
+                .then()
+                .block();
+    }
+
+}
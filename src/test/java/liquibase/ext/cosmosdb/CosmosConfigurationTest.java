@@ -18,6 +18,7 @@ package liquibase.ext.cosmosdb;
  * #L%
  */
 
+import liquibase.nosql.statement.NoSqlAsyncExecuteStatement;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,4 +35,72 @@ class CosmosConfigurationTest {
     void testInferPartitionKeyKindDefaultsToFalse() {
         assertThat(CosmosConfiguration.INFER_PARTITION_KEY_KIND.getDefaultValue()).isFalse();
     }
+
+    @Test
+    void testBulkDefaults() {
+        assertThat(CosmosConfiguration.BULK_ENABLED.getKey()).isEqualTo("liquibase.cosmosdb.bulkEnabled");
+        assertThat(CosmosConfiguration.BULK_ENABLED.getDefaultValue()).isFalse();
+        assertThat(CosmosConfiguration.BULK_BATCH_SIZE.getKey()).isEqualTo("liquibase.cosmosdb.bulkBatchSize");
+        assertThat(CosmosConfiguration.BULK_BATCH_SIZE.getDefaultValue()).isEqualTo(100);
+        assertThat(CosmosConfiguration.BULK_MAX_RETRIES.getKey()).isEqualTo("liquibase.cosmosdb.bulkMaxRetries");
+        assertThat(CosmosConfiguration.BULK_MAX_RETRIES.getDefaultValue()).isEqualTo(10);
+        assertThat(CosmosConfiguration.BULK_MAX_CONCURRENCY.getKey()).isEqualTo("liquibase.cosmosdb.bulkMaxConcurrency");
+        assertThat(CosmosConfiguration.BULK_MAX_CONCURRENCY.getDefaultValue()).isEqualTo(4);
+    }
+
+    @Test
+    void testQueryParallelismDefault() {
+        assertThat(CosmosConfiguration.QUERY_PARALLELISM.getKey()).isEqualTo("liquibase.cosmosdb.queryParallelism");
+        assertThat(CosmosConfiguration.QUERY_PARALLELISM.getDefaultValue()).isEqualTo(1);
+    }
+
+    @Test
+    void testProgressCheckpointDefault() {
+        assertThat(CosmosConfiguration.PROGRESS_CHECKPOINT_SECONDS.getKey())
+                .isEqualTo("liquibase.cosmosdb.progressCheckpointSeconds");
+        assertThat(CosmosConfiguration.PROGRESS_CHECKPOINT_SECONDS.getDefaultValue()).isEqualTo(30);
+    }
+
+    @Test
+    void testThroughputBudgetDefaults() {
+        assertThat(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT.getKey())
+                .isEqualTo("liquibase.cosmosdb.throughputBudgetPercent");
+        assertThat(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT.getDefaultValue()).isZero();
+        assertThat(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER.getKey())
+                .isEqualTo("liquibase.cosmosdb.throughputBudgetPercentByContainer");
+        assertThat(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT_BY_CONTAINER.getDefaultValue()).isNull();
+    }
+
+    @Test
+    void testLockLeaseDefault() {
+        assertThat(CosmosConfiguration.LOCK_LEASE_SECONDS.getKey()).isEqualTo("liquibase.cosmosdb.lockLeaseSeconds");
+        assertThat(CosmosConfiguration.LOCK_LEASE_SECONDS.getDefaultValue()).isEqualTo(300);
+    }
+
+    @Test
+    void testLockWaitStrategyDefault() {
+        assertThat(CosmosConfiguration.LOCK_WAIT_STRATEGY.getKey()).isEqualTo("liquibase.cosmosdb.lockWaitStrategy");
+        assertThat(CosmosConfiguration.LOCK_WAIT_STRATEGY.getDefaultValue()).isEqualTo("poll");
+    }
+
+    @Test
+    void testAsyncMaxConcurrencyDefault() {
+        assertThat(CosmosConfiguration.ASYNC_MAX_CONCURRENCY.getKey()).isEqualTo("liquibase.cosmosdb.asyncMaxConcurrency");
+        assertThat(CosmosConfiguration.ASYNC_MAX_CONCURRENCY.getDefaultValue())
+                .isEqualTo(NoSqlAsyncExecuteStatement.DEFAULT_MAX_CONCURRENCY);
+    }
+
+    @Test
+    void testWarmUpDefaults() {
+        assertThat(CosmosConfiguration.WARM_UP_ENABLED.getKey()).isEqualTo("liquibase.cosmosdb.warmUpEnabled");
+        assertThat(CosmosConfiguration.WARM_UP_ENABLED.getDefaultValue()).isFalse();
+        assertThat(CosmosConfiguration.WARM_UP_CONTAINERS.getKey()).isEqualTo("liquibase.cosmosdb.warmUpContainers");
+        assertThat(CosmosConfiguration.WARM_UP_CONTAINERS.getDefaultValue()).isNull();
+    }
+
+    @Test
+    void testClientCacheDefault() {
+        assertThat(CosmosConfiguration.CLIENT_CACHE_ENABLED.getKey()).isEqualTo("liquibase.cosmosdb.clientCacheEnabled");
+        assertThat(CosmosConfiguration.CLIENT_CACHE_ENABLED.getDefaultValue()).isTrue();
+    }
 }
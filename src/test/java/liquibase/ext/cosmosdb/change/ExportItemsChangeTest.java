@@ -0,0 +1,76 @@
+package liquibase.ext.cosmosdb.change;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.changelog.ChangeSet;
+import liquibase.ext.cosmosdb.statement.ExportItemsStatement;
+import liquibase.statement.SqlStatement;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static liquibase.ext.cosmosdb.TestUtils.getChangeSets;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportItemsChangeTest extends AbstractCosmosChangeTest {
+
+    @Test
+    void getConfirmationMessage() {
+        assertThat(new ExportItemsChange().getConfirmationMessage()).isNotNull();
+    }
+
+    @Test
+    void validateRequiresFile() {
+        final ExportItemsChange change = new ExportItemsChange();
+        change.setContainerId("container1");
+        assertThat(change.validate(database).getErrorMessages()).anyMatch(m -> m.contains("file"));
+    }
+
+    @Test
+    @SneakyThrows
+    void generateStatements() {
+        final List<ChangeSet> changeSets = getChangeSets("liquibase/ext/change.export-items.test.xml", database);
+
+        assertThat(changeSets).hasSize(2);
+        assertThat(changeSets.get(0).getChanges())
+                .hasSize(1)
+                .hasOnlyElementsOfType(ExportItemsChange.class);
+
+        assertThat(changeSets.get(0).getChanges().get(0))
+                .hasFieldOrPropertyWithValue("containerId", "container1")
+                .hasFieldOrPropertyWithValue("file", "target/container1.ndjson")
+                .hasFieldOrPropertyWithValue("query", null)
+                .hasFieldOrPropertyWithValue("gzip", null);
+
+        assertThat(changeSets.get(1).getChanges().get(0))
+                .hasFieldOrPropertyWithValue("containerId", "container2")
+                .hasFieldOrPropertyWithValue("gzip", true)
+                .hasFieldOrPropertyWithValue("parallelism", 4)
+                .hasFieldOrPropertyWithValue("pageSize", 500);
+
+        final SqlStatement[] defaults = changeSets.get(0).getChanges().get(0).generateStatements(database);
+        assertThat(defaults).hasSize(1).hasOnlyElementsOfType(ExportItemsStatement.class);
+        assertThat(((ExportItemsStatement) defaults[0]).getQuery().getQueryText()).isEqualTo("SELECT * FROM c");
+
+        final SqlStatement[] byQuery = changeSets.get(1).getChanges().get(0).generateStatements(database);
+        assertThat(((ExportItemsStatement) byQuery[0]).getQuery().getQueryText())
+                .isEqualTo("SELECT * FROM c WHERE c.active = true");
+    }
+}
@@ -0,0 +1,77 @@
+package liquibase.ext.cosmosdb.change;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.changelog.ChangeSet;
+import liquibase.ext.cosmosdb.statement.ImportItemsStatement;
+import liquibase.statement.SqlStatement;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static liquibase.ext.cosmosdb.TestUtils.getChangeSets;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportItemsChangeTest extends AbstractCosmosChangeTest {
+
+    @Test
+    void getConfirmationMessage() {
+        assertThat(new ImportItemsChange().getConfirmationMessage()).isNotNull();
+    }
+
+    @Test
+    void validateRequiresFile() {
+        final ImportItemsChange change = new ImportItemsChange();
+        change.setContainerId("container1");
+        assertThat(change.validate(database).getErrorMessages()).anyMatch(m -> m.contains("file"));
+    }
+
+    @Test
+    @SneakyThrows
+    void generateStatements() {
+        final List<ChangeSet> changeSets = getChangeSets("liquibase/ext/change.import-items.test.xml", database);
+
+        assertThat(changeSets).hasSize(2);
+        assertThat(changeSets.get(0).getChanges())
+                .hasSize(1)
+                .hasOnlyElementsOfType(ImportItemsChange.class);
+
+        assertThat(changeSets.get(0).getChanges().get(0))
+                .hasFieldOrPropertyWithValue("containerId", "container1")
+                .hasFieldOrPropertyWithValue("file", "liquibase/ext/import-items.test.ndjson")
+                .hasFieldOrPropertyWithValue("relativeToChangelogFile", null)
+                .hasFieldOrPropertyWithValue("upsert", null);
+
+        assertThat(changeSets.get(1).getChanges().get(0))
+                .hasFieldOrPropertyWithValue("containerId", "container2")
+                .hasFieldOrPropertyWithValue("file", "import-items.test.ndjson")
+                .hasFieldOrPropertyWithValue("relativeToChangelogFile", true)
+                .hasFieldOrPropertyWithValue("batchSize", 50)
+                .hasFieldOrPropertyWithValue("maxConcurrency", 2)
+                .hasFieldOrPropertyWithValue("upsert", true);
+
+        final SqlStatement[] absolute = changeSets.get(0).getChanges().get(0).generateStatements(database);
+        assertThat(absolute).hasSize(1).hasOnlyElementsOfType(ImportItemsStatement.class);
+        assertThat(((ImportItemsStatement) absolute[0]).getRelativeTo()).isNull();
+
+        final SqlStatement[] relative = changeSets.get(1).getChanges().get(0).generateStatements(database);
+        assertThat(((ImportItemsStatement) relative[0]).getRelativeTo()).endsWith("change.import-items.test.xml");
+    }
+}
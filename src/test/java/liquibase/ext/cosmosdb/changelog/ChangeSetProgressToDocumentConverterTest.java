@@ -0,0 +1,81 @@
+package liquibase.ext.cosmosdb.changelog;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.ChecksumVersion;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.ext.cosmosdb.statement.FeedRangeCheckpoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import static com.azure.cosmos.implementation.Constants.Properties.ID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeSetProgressToDocumentConverterTest {
+
+    private final ChangeSetProgressToDocumentConverter converter = new ChangeSetProgressToDocumentConverter();
+
+    @Test
+    void shouldIdentifyTheChangeWithinItsChangeSet() {
+        final ChangeSet changeSet = new ChangeSet("1", "alex", false, false, "db/changelog.xml",
+                null, null, (DatabaseChangeLog) null);
+
+        final ChangeSetProgress first = ChangeSetProgress.of(changeSet, 0);
+        final ChangeSetProgress second = ChangeSetProgress.of(changeSet, 1);
+
+        assertThat(first.getFileName()).isEqualTo("db/changelog.xml");
+        assertThat(first.getAuthor()).isEqualTo("alex");
+        assertThat(first.getChangeSetId()).isEqualTo("1#0");
+        assertThat(first.getCheckSum()).isEqualTo(changeSet.generateCheckSum(ChecksumVersion.latest()).toString());
+        assertThat(first.getId()).startsWith(ChangeSetProgress.TYPE).doesNotContain("/")
+                .isEqualTo(ChangeSetProgress.of(changeSet, 0).getId())
+                .isNotEqualTo(second.getId());
+    }
+
+    @Test
+    void shouldConvertBothWays() {
+        final ChangeSetProgress progress = new ChangeSetProgress();
+        progress.setId("changeSetProgress-1");
+        progress.setFileName("db/changelog.xml");
+        progress.setAuthor("alex");
+        progress.setChangeSetId("1#0");
+        progress.setCommand("updateEachItem");
+        progress.setQuery("SELECT * FROM c");
+        progress.setCheckSum("9:a1");
+        progress.setProcessed(15);
+        progress.setLastUpdated(new Date());
+        progress.setCheckpoints(Arrays.asList(new FeedRangeCheckpoint("range1", "token1", 10),
+                new FeedRangeCheckpoint("range2", null, 5), FeedRangeCheckpoint.notStarted("range3")));
+
+        final Map<String, Object> document = converter.toDocument(progress);
+
+        assertThat(document)
+                .containsEntry(ID, "changeSetProgress-1")
+                .containsEntry(ChangeSetProgress.Fields.TYPE, ChangeSetProgress.TYPE)
+                .containsEntry(CosmosRanChangeSet.Fields.CHANGE_SET_ID, "1#0");
+
+        final ChangeSetProgress converted = converter.fromDocument(document);
+
+        assertThat(converted).usingRecursiveComparison().isEqualTo(progress);
+    }
+}
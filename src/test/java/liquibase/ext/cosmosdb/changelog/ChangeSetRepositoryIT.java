@@ -8,6 +8,7 @@ import liquibase.change.CheckSum;
 import liquibase.changelog.ChangeSet;
 import liquibase.ext.cosmosdb.AbstractCosmosWithConnectionIntegrationTest;
 import liquibase.ext.cosmosdb.lockservice.CreateChangeLogLockContainerStatement;
+import liquibase.ext.cosmosdb.persistence.VersionedItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -129,6 +130,26 @@ class ChangeSetRepositoryIT extends AbstractCosmosWithConnectionIntegrationTest
         assertThat(actual2.getLiquibase()).isEqualTo("BuildVersion");
     }
 
+    @Test
+    void testGetVersioned() {
+        assertThat(repository.getVersioned(UUID_2)).isEmpty();
+        assertThat(repository.exists(UUID_2)).isFalse();
+
+        repository.create(maximal);
+        final VersionedItem<CosmosRanChangeSet> created = repository.getVersioned(UUID_2).orElse(null);
+        assertThat(created).isNotNull();
+        assertThat(created.getItem().getUuid()).isEqualTo(UUID_2);
+        assertThat(created.getETag()).isNotBlank();
+        assertThat(repository.exists(UUID_2)).isTrue();
+
+        maximal.setTag("Tag2");
+        repository.replace(maximal);
+        final VersionedItem<CosmosRanChangeSet> replaced = repository.getVersioned(UUID_2).orElse(null);
+        assertThat(replaced).isNotNull();
+        assertThat(replaced.getItem().getTag()).isEqualTo("Tag2");
+        assertThat(replaced.getETag()).isNotEqualTo(created.getETag());
+    }
+
     @Test
     void testGetAll() {
 
@@ -148,6 +169,25 @@ class ChangeSetRepositoryIT extends AbstractCosmosWithConnectionIntegrationTest
         assertThat(ranChangeSets2.stream().map(CosmosRanChangeSet::getUuid).filter(UUID_2::equals).findFirst()).isPresent();
     }
 
+    @Test
+    void testGetRanChangeSets() {
+
+        assertThat(repository.getRanChangeSets()).isEmpty();
+
+        maximal.setUuid(UUID_2);
+        maximal.setOrderExecuted(2);
+        repository.create(maximal);
+        maximal.setUuid(UUID_1);
+        maximal.setOrderExecuted(1);
+        repository.create(maximal);
+
+        final List<CosmosRanChangeSet> ranChangeSets = repository.getRanChangeSets();
+        assertThat(ranChangeSets).extracting(CosmosRanChangeSet::getUuid).containsExactly(UUID_1, UUID_2);
+        assertThat(ranChangeSets).extracting(CosmosRanChangeSet::getOrderExecuted).containsExactly(1, 2);
+        assertThat(ranChangeSets.get(0).getLastCheckSum()).isEqualTo(checkSum1);
+        assertThat(ranChangeSets.get(0).getTimestamp()).isNotNull();
+    }
+
     @Test
     void testCreate() {
         //missing id
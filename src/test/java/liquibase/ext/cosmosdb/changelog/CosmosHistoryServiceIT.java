@@ -162,6 +162,12 @@ class CosmosHistoryServiceIT extends AbstractCosmosWithConnectionIntegrationTest
         assertThat(nextSequenceValue1).isEqualTo(1);
         assertThat(cosmosHistoryService.getLastChangeSetSequenceValue()).isEqualTo(1);
 
+        // The sequence continues after the highest order executed, not after the number of changeSets
+        final CosmosRanChangeSet ranChangeSet = new CosmosRanChangeSet("ranChangeSet1", "db/changelog.xml", "1", "author",
+                null, null, null, null, null, null, null, null, null, null, 5, null);
+        new ChangeSetRepository(cosmosDatabase, database.getDatabaseChangeLogTableName()).create(ranChangeSet);
+        cosmosHistoryService.reset();
+        assertThat(cosmosHistoryService.getNextSequenceValue()).isEqualTo(6);
     }
 
     @Test
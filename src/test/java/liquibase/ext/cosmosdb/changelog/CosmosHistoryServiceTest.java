@@ -20,8 +20,12 @@ package liquibase.ext.cosmosdb.changelog;
  * #L%
  */
 
+import liquibase.ChecksumVersion;
 import liquibase.Scope;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.RanChangeSet;
 import liquibase.database.core.H2Database;
 import liquibase.executor.ExecutorService;
 import liquibase.ext.cosmosdb.database.CosmosConnection;
@@ -32,6 +36,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static liquibase.plugin.Plugin.PRIORITY_SPECIALIZED;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -108,9 +116,28 @@ class CosmosHistoryServiceTest {
 
     }
 
+    @SneakyThrows
     @Test
-    void testReplaceChecksum()  {
-
+    void testReplaceChecksum() {
+        final ChangeSet changeSet = new ChangeSet("1", "alex", false, false, "db/changelog.xml",
+                null, null, (DatabaseChangeLog) null);
+        final CountingHistoryService historyService = new CountingHistoryService(
+                new CosmosRanChangeSet(changeSet, ChangeSet.ExecType.EXECUTED, null, null));
+        historyService.setDatabase(cosmosLiquibaseDatabase);
+
+        assertThat(historyService.getRanChangeSets()).hasSize(1);
+        historyService.replaceChecksum(changeSet);
+
+        assertThat(historyService.getRanChangeSets()).singleElement()
+                .isInstanceOf(CosmosRanChangeSet.class)
+                .extracting(RanChangeSet::getLastCheckSum)
+                .isEqualTo(changeSet.generateCheckSum(ChecksumVersion.latest()));
+        assertThat(historyService.queries).isEqualTo(1);
+
+        // Without a timestamp to continue from the changeSets are read again after a reset
+        historyService.reset();
+        assertThat(historyService.getRanChangeSets()).hasSize(1);
+        assertThat(historyService.queries).isEqualTo(2);
     }
 
     @Test
@@ -122,9 +149,44 @@ class CosmosHistoryServiceTest {
     void testSetExecType() {
     }
 
+    @SneakyThrows
     @Test
     void testRemoveFromHistory()  {
+        final ChangeSet changeSet = changeSet("1");
+        final CountingHistoryService historyService = new CountingHistoryService(
+                new CosmosRanChangeSet(changeSet, ChangeSet.ExecType.EXECUTED, null, null));
+        historyService.setDatabase(cosmosLiquibaseDatabase);
+        assertThat(historyService.getRanChangeSets()).hasSize(1);
+
+        historyService.removeFromHistory(changeSet);
 
+        assertThat(historyService.getRanChangeSets()).isEmpty();
+        assertThat(historyService.queries).isEqualTo(1);
+    }
+
+    @SneakyThrows
+    @Test
+    void testRefreshRanChangeSets() {
+        final CosmosRanChangeSet first = new CosmosRanChangeSet(changeSet("1"), ChangeSet.ExecType.EXECUTED, null, null);
+        first.setTimestamp(10L);
+        final CosmosRanChangeSet second = new CosmosRanChangeSet(changeSet("2"), ChangeSet.ExecType.EXECUTED, null, null);
+        second.setTimestamp(20L);
+        final CountingHistoryService historyService = new CountingHistoryService(first, second);
+        historyService.setDatabase(cosmosLiquibaseDatabase);
+        assertThat(historyService.getRanChangeSets()).hasSize(2);
+
+        // Nothing changed, the cached changeSets are kept
+        historyService.lastModified = 20L;
+        historyService.reset();
+        assertThat(historyService.getRanChangeSets()).containsExactly(first, second);
+        assertThat(historyService.queries).isEqualTo(1);
+
+        // The second one was removed while one written before the last read only became visible now: same count,
+        // but the changelog was last written to at another time
+        historyService.lastModified = 15L;
+        historyService.reset();
+        assertThat(historyService.getRanChangeSets()).hasSize(2);
+        assertThat(historyService.queries).isEqualTo(2);
     }
 
     @SneakyThrows
@@ -133,8 +195,17 @@ class CosmosHistoryServiceTest {
 
     }
 
+    @SneakyThrows
     @Test
     void testTag() {
+        final CountingHistoryService historyService = new CountingHistoryService(
+                new CosmosRanChangeSet(changeSet("1"), ChangeSet.ExecType.EXECUTED, null, null));
+        historyService.setDatabase(cosmosLiquibaseDatabase);
+        assertThat(historyService.getRanChangeSets()).hasSize(1);
+
+        historyService.tag("v1");
+
+        assertThat(historyService.getRanChangeSets()).singleElement().extracting(RanChangeSet::getTag).isEqualTo("v1");
     }
 
     @Test
@@ -150,4 +221,58 @@ class CosmosHistoryServiceTest {
 
         
     }
+
+    private static ChangeSet changeSet(final String id) {
+        return new ChangeSet(id, "alex", false, false, "db/changelog.xml", null, null, (DatabaseChangeLog) null);
+    }
+
+    /**
+     * Serves the ran changeSets from memory and counts how often they were read.
+     */
+    private static class CountingHistoryService extends CosmosHistoryService {
+
+        private final List<RanChangeSet> ranChangeSets;
+        private int queries;
+        private long lastModified;
+
+        CountingHistoryService(final RanChangeSet... ranChangeSets) {
+            this.ranChangeSets = Arrays.asList(ranChangeSets);
+        }
+
+        @Override
+        protected List<RanChangeSet> queryRanChangeSets() {
+            queries++;
+            return new ArrayList<>(ranChangeSets);
+        }
+
+        @Override
+        protected List<RanChangeSet> queryRanChangeSetsModifiedSince(final long timestamp) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        protected long countRanChangeSets() {
+            return ranChangeSets.size();
+        }
+
+        @Override
+        protected long queryLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        protected void updateCheckSum(final ChangeSet changeSet) {
+            // Nothing to write to
+        }
+
+        @Override
+        protected void removeRanChangeSet(final ChangeSet changeSet) {
+            // Nothing to write to
+        }
+
+        @Override
+        protected void tagLast(final String tagString) {
+            // Nothing to write to
+        }
+    }
 }
@@ -1,11 +1,17 @@
 package liquibase.ext.cosmosdb.database;
 
+import com.azure.cosmos.CosmosClient;
+import liquibase.Scope;
 import liquibase.exception.DatabaseException;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
 import liquibase.ext.cosmosdb.TestUtils;
+import liquibase.ext.cosmosdb.metrics.StatementMetricsDispatcher;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.regex.Matcher;
@@ -13,6 +19,9 @@ import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class CosmosClientDriverTest {
     static final Pattern DB_CONNECTION_URI_PATTERN = Pattern.compile("^(.+:).+(@.+)$");
@@ -52,4 +61,64 @@ class CosmosClientDriverTest {
             assertThat(illegalArgumentException).hasMessage("Invalid connectionMode: 'bogus'. Valid values are: gateway, direct.");
         }
     }
+
+    @Nested
+    class when_clients_are_cached {
+
+        final CosmosClientDriver cachingDriver = new CosmosClientDriver() {
+            @Override
+            CosmosClient buildClient(final CosmosConnectionString cosmosConnectionString,
+                                     final StatementMetricsDispatcher statementMetrics) {
+                return mock(CosmosClient.class);
+            }
+        };
+
+        @Test
+        @SneakyThrows
+        void given_the_same_account_and_settings_then_the_client_is_shared_until_the_last_connection_closed() {
+            final CosmosClientProxy first = cachingDriver.connect(CosmosConnectionString.fromValues("https://localhost:8081", "key", "db1"));
+            final CosmosClientProxy second = cachingDriver.connect(CosmosConnectionString.fromValues("https://localhost:8081", "key", "db2"));
+            final CosmosClientProxy otherKey = cachingDriver.connect(CosmosConnectionString.fromValues("https://localhost:8081", "key2", "db1"));
+
+            assertThat(second.getCosmosClient()).isSameAs(first.getCosmosClient());
+            assertThat(second.getStatementMetrics()).isNotNull().isNotSameAs(first.getStatementMetrics());
+            assertThat(otherKey.getCosmosClient()).isNotSameAs(first.getCosmosClient());
+            assertThat(CosmosClientDriver.getSharedClientCount()).isEqualTo(2);
+
+            first.close();
+            first.close();
+            verify(first.getCosmosClient(), never()).close();
+
+            second.close();
+            otherKey.close();
+            verify(first.getCosmosClient()).close();
+            verify(otherKey.getCosmosClient()).close();
+            assertThat(CosmosClientDriver.getSharedClientCount()).isZero();
+        }
+
+        @Test
+        @SneakyThrows
+        void given_the_cache_is_disabled_then_every_connection_owns_its_client() {
+            final CosmosClientProxy first = Scope.child(Collections.singletonMap(CosmosConfiguration.CLIENT_CACHE_ENABLED.getKey(), false),
+                    () -> cachingDriver.connect(CosmosConnectionString.fromValues("https://localhost:8081", "key", "db1")));
+            final CosmosClientProxy second = Scope.child(Collections.singletonMap(CosmosConfiguration.CLIENT_CACHE_ENABLED.getKey(), false),
+                    () -> cachingDriver.connect(CosmosConnectionString.fromValues("https://localhost:8081", "key", "db1")));
+
+            assertThat(second.getCosmosClient()).isNotSameAs(first.getCosmosClient());
+            assertThat(CosmosClientDriver.getSharedClientCount()).isZero();
+
+            first.close();
+            verify(first.getCosmosClient()).close();
+            second.close();
+        }
+
+        @Test
+        void given_different_databases_or_keys_then_the_client_key_hides_the_account_key() {
+            final String key = CosmosClientDriver.clientKey(CosmosConnectionString.fromValues("https://localhost:8081", "secret", "db1"));
+
+            assertThat(key).doesNotContain("secret").doesNotContain("db1");
+            assertThat(CosmosClientDriver.clientKey(CosmosConnectionString.fromValues("https://localhost:8081", "secret", "db2")))
+                    .isEqualTo(key);
+        }
+    }
 }
@@ -1,18 +1,32 @@
 package liquibase.ext.cosmosdb.database;
 
+import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.ThroughputProperties;
+import liquibase.exception.DatabaseException;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Properties;
 
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.FORBIDDEN;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.NOTFOUND;
+import static com.azure.cosmos.implementation.HttpConstants.StatusCodes.UNAUTHORIZED;
 import static com.azure.cosmos.implementation.apachecommons.lang.StringUtils.EMPTY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +46,9 @@ class CosmosConnectionTest {
     @Mock
     private CosmosDatabase databaseMock;
 
+    @Mock
+    private CosmosAsyncDatabase asyncDatabaseMock;
+
     @Mock
     private Properties propertiesMock;
 
@@ -42,6 +59,7 @@ class CosmosConnectionTest {
         assertThat(connection.getURL()).isEqualTo(EMPTY);
 
         when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
         connection.open(TEST_COSMOS_JSON_CONNECTION_STRING_1, driverMock, propertiesMock);
         assertThat(connection.getURL()).isEqualTo("cosmosdb://{\"accountEndpoint\":\"https://ech-0a9d975b:8080\",\"databaseName\":\"testdb1\",\"accountKey\":\"*****\"}");
     }
@@ -52,17 +70,21 @@ class CosmosConnectionTest {
         CosmosConnection connection = new CosmosConnection();
         assertThat(connection.getCosmosDatabase()).isNull();
         assertThat(connection.getCosmosClient()).isNull();
+        assertThat(connection.getStatementListener()).isEmpty();
         assertThat(connection.isClosed()).isTrue();
 
         when(driverMock.connect(any())).thenReturn(clientMock);
         when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+        when(clientMock.getAsyncDatabase(any())).thenReturn(asyncDatabaseMock);
         connection.open(TEST_COSMOS_JSON_CONNECTION_STRING_1, driverMock, propertiesMock);
         assertThat(connection.getCosmosDatabase()).isNotNull();
+        assertThat(connection.getCosmosAsyncDatabase()).isNotNull();
         assertThat(connection.getCosmosClient()).isNotNull();
         assertThat(connection.isClosed()).isFalse();
 
         connection.close();
         assertThat(connection.getCosmosDatabase()).isNull();
+        assertThat(connection.getCosmosAsyncDatabase()).isNull();
         assertThat(connection.getCosmosClient()).isNull();
         assertThat(connection.isClosed()).isTrue();
     }
@@ -80,4 +102,102 @@ class CosmosConnectionTest {
 
         assertThatCode(connection::close).doesNotThrowAnyException();
     }
+
+    @Test
+    @SneakyThrows
+    void shouldNotCreateAnExistingDatabase() {
+        final CosmosConnection connection = new CosmosConnection();
+        when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+
+        connection.open(TEST_COSMOS_JSON_CONNECTION_STRING_1, driverMock, propertiesMock);
+
+        verify(databaseMock).read();
+        verify(clientMock, never()).createDatabaseIfNotExists(anyString());
+        verify(clientMock, never()).createDatabaseIfNotExists(anyString(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldCreateAMissingDatabaseWithThroughput() {
+        final CosmosConnection connection = new CosmosConnection();
+        when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+        final CosmosException notFound = status(NOTFOUND);
+        when(databaseMock.read()).thenThrow(notFound);
+
+        connection.open(connectionString("\"createDatabase\" : \"true\", \"databaseThroughput\" : {\"maxThroughput\" : 4000}"),
+                driverMock, propertiesMock);
+
+        final ArgumentCaptor<ThroughputProperties> throughput = ArgumentCaptor.forClass(ThroughputProperties.class);
+        verify(clientMock).createDatabaseIfNotExists(eq("testdb1"), throughput.capture());
+        assertThat(throughput.getValue().getAutoscaleMaxThroughput()).isEqualTo(4000);
+        assertThat(connection.getCosmosDatabase()).isSameAs(databaseMock);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldFailOnAMissingDatabaseWhenCreationIsNotAllowed() {
+        final CosmosConnection connection = new CosmosConnection();
+        when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+        final CosmosException notFound = status(NOTFOUND);
+        when(databaseMock.read()).thenThrow(notFound);
+
+        assertThatExceptionOfType(DatabaseException.class)
+                .isThrownBy(() -> connection.open(connectionString("\"createDatabase\" : \"false\""), driverMock, propertiesMock))
+                .withMessage("Database testdb1 does not exist and createDatabase is false");
+        verify(clientMock, never()).createDatabaseIfNotExists(anyString());
+        verify(clientMock).close();
+        assertThat(connection.getCosmosClient()).isNull();
+        assertThat(connection.isClosed()).isTrue();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReleaseTheClientWhenTheDatabaseCannotBeRead() {
+        final CosmosConnection connection = new CosmosConnection();
+        when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+        final CosmosException unauthorized = status(UNAUTHORIZED);
+        when(databaseMock.read()).thenThrow(unauthorized);
+
+        assertThatExceptionOfType(DatabaseException.class)
+                .isThrownBy(() -> connection.open(TEST_COSMOS_JSON_CONNECTION_STRING_1, driverMock, propertiesMock))
+                .withCause(unauthorized);
+
+        verify(clientMock).close();
+        assertThat(connection.getCosmosClient()).isNull();
+        assertThat(connection.getCosmosDatabase()).isNull();
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldAssumeAnUnreadableDatabaseExistsInAutoMode() {
+        final CosmosConnection connection = new CosmosConnection();
+        when(driverMock.connect(any())).thenReturn(clientMock);
+        when(clientMock.getDatabase(any())).thenReturn(databaseMock);
+        final CosmosException forbidden = status(FORBIDDEN);
+        when(databaseMock.read()).thenThrow(forbidden);
+
+        connection.open(TEST_COSMOS_JSON_CONNECTION_STRING_1, driverMock, propertiesMock);
+
+        assertThat(connection.getCosmosDatabase()).isSameAs(databaseMock);
+        verify(clientMock, never()).createDatabaseIfNotExists(anyString());
+
+        final CosmosConnection strict = new CosmosConnection();
+        assertThatExceptionOfType(DatabaseException.class)
+                .isThrownBy(() -> strict.open(connectionString("\"createDatabase\" : \"true\""), driverMock, propertiesMock));
+    }
+
+    private static String connectionString(final String properties) {
+        return TEST_COSMOS_JSON_CONNECTION_STRING_1.substring(0, TEST_COSMOS_JSON_CONNECTION_STRING_1.length() - 1)
+                + ", " + properties + "}";
+    }
+
+    private static CosmosException status(final int statusCode) {
+        final CosmosException exception = mock(CosmosException.class);
+        when(exception.getStatusCode()).thenReturn(statusCode);
+        return exception;
+    }
 }
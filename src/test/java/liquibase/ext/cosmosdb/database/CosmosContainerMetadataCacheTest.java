@@ -0,0 +1,95 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosContainerProperties;
+import com.azure.cosmos.models.CosmosContainerResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CosmosContainerMetadataCacheTest {
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @Mock
+    private CosmosContainerResponse responseMock;
+
+    private final CosmosContainerMetadataCache cache = new CosmosContainerMetadataCache();
+
+    @BeforeEach
+    void setUp() {
+        when(containerMock.getId()).thenReturn("container1");
+    }
+
+    @Test
+    void shouldReadPropertiesOnce() {
+        when(containerMock.read()).thenReturn(responseMock);
+        when(responseMock.getProperties()).thenReturn(new CosmosContainerProperties("container1", "/partition"));
+
+        assertThat(cache.getPartitionKeyPath(containerMock)).isEqualTo("/partition");
+        assertThat(cache.getPartitionKeyPath(containerMock)).isEqualTo("/partition");
+        assertThat(cache.getProperties(containerMock).getId()).isEqualTo("container1");
+
+        verify(containerMock, times(1)).read();
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadAfterInvalidate() {
+        when(containerMock.read()).thenReturn(responseMock);
+        when(responseMock.getProperties()).thenReturn(new CosmosContainerProperties("container1", "/partition"));
+
+        cache.getProperties(containerMock);
+        cache.invalidate("container1");
+        cache.getProperties(containerMock);
+        cache.invalidateAll();
+        cache.getProperties(containerMock);
+
+        verify(containerMock, times(3)).read();
+        assertThat(cache.getMisses()).isEqualTo(3);
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @Test
+    void shouldCheckExistenceOnce() {
+        final CosmosException notFound = mock(CosmosException.class);
+        when(notFound.getStatusCode()).thenReturn(404);
+        when(containerMock.read()).thenThrow(notFound).thenReturn(responseMock);
+        when(responseMock.getProperties()).thenReturn(new CosmosContainerProperties("container1", "/partition"));
+
+        assertThat(cache.exists(containerMock)).isFalse();
+        assertThat(cache.exists(containerMock)).isFalse();
+
+        // Created by a statement, which invalidates the entry
+        cache.invalidate("container1");
+        assertThat(cache.exists(containerMock)).isTrue();
+        assertThat(cache.exists(containerMock)).isTrue();
+        assertThat(cache.getPartitionKeyPath(containerMock)).isEqualTo("/partition");
+
+        verify(containerMock, times(2)).read();
+    }
+
+    @Test
+    void shouldCacheMissingThroughput() {
+        final CosmosException notFound = mock(CosmosException.class);
+        when(notFound.getStatusCode()).thenReturn(404);
+        when(containerMock.readThroughput()).thenThrow(notFound);
+
+        assertThat(cache.getThroughput(containerMock)).isEmpty();
+        assertThat(cache.getThroughput(containerMock)).isEmpty();
+
+        verify(containerMock, times(1)).readThroughput();
+    }
+}
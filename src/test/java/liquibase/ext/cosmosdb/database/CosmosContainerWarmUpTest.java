@@ -0,0 +1,74 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.ConnectionMode;
+import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.models.CosmosContainerProactiveInitConfig;
+import liquibase.Scope;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static liquibase.ext.cosmosdb.database.CosmosConnectionString.fromValues;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CosmosContainerWarmUpTest {
+
+    private final CosmosConnectionString connectionString = fromValues("https://localhost:8081", "key", "db1");
+
+    @Test
+    void shouldBeDisabledByDefault() {
+        assertThat(CosmosContainerWarmUp.fromConfiguration(connectionString, Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void shouldWarmUpChangeLogLockAndConfiguredContainers() throws Exception {
+        final Optional<CosmosContainerWarmUp> warmUp = withWarmUp(" orders, audit ,", ()
+                -> CosmosContainerWarmUp.fromConfiguration(connectionString, Optional.of(ConnectionMode.DIRECT)));
+
+        assertThat(warmUp).isPresent();
+        assertThat(warmUp.get().getDatabaseName()).isEqualTo("db1");
+        assertThat(warmUp.get().getContainerIds())
+                .containsExactly("DATABASECHANGELOG", "DATABASECHANGELOGLOCK", "orders", "audit");
+    }
+
+    @Test
+    void shouldNotWarmUpInGatewayMode() throws Exception {
+        assertThat(withWarmUp(null, ()
+                -> CosmosContainerWarmUp.fromConfiguration(connectionString, Optional.of(ConnectionMode.GATEWAY)))).isEmpty();
+    }
+
+    @Test
+    void shouldConfigureTheBuilderOnlyWithPreferredRegions() {
+        final CosmosContainerWarmUp warmUp = new CosmosContainerWarmUp("db1", Arrays.asList("DATABASECHANGELOG", "orders"));
+
+        final CosmosClientBuilder withoutRegions = mock(CosmosClientBuilder.class);
+        assertThat(warmUp.configure(withoutRegions, Collections.emptyList())).isFalse();
+        verify(withoutRegions, never()).openConnectionsAndInitCaches(any());
+
+        final CosmosClientBuilder withRegions = mock(CosmosClientBuilder.class);
+        assertThat(warmUp.configure(withRegions, Collections.singletonList("West Europe"))).isTrue();
+        final ArgumentCaptor<CosmosContainerProactiveInitConfig> config = ArgumentCaptor.forClass(CosmosContainerProactiveInitConfig.class);
+        verify(withRegions).openConnectionsAndInitCaches(config.capture());
+        assertThat(config.getValue().getCosmosContainerIdentities()).hasSize(2);
+        assertThat(config.getValue().getProactiveConnectionRegionsCount()).isEqualTo(1);
+    }
+
+    private static <T> T withWarmUp(final String containers, final Scope.ScopedRunnerWithReturn<T> runner) throws Exception {
+        final Map<String, Object> values = new HashMap<>();
+        values.put(CosmosConfiguration.WARM_UP_ENABLED.getKey(), true);
+        if (containers != null) {
+            values.put(CosmosConfiguration.WARM_UP_CONTAINERS.getKey(), containers);
+        }
+        return Scope.child(values, runner);
+    }
+}
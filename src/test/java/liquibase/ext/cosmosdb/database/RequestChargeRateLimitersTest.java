@@ -0,0 +1,86 @@
+package liquibase.ext.cosmosdb.database;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.models.ThroughputProperties;
+import liquibase.Scope;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
+import liquibase.ext.cosmosdb.statement.RequestChargeRateLimiter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RequestChargeRateLimitersTest {
+
+    @Mock
+    private CosmosDatabase databaseMock;
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @Mock
+    private CosmosContainerMetadataCache metadataCacheMock;
+
+    private final RequestChargeRateLimiters limiters = new RequestChargeRateLimiters();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(databaseMock.getId()).thenReturn("database1");
+        lenient().when(containerMock.getId()).thenReturn("container1");
+    }
+
+    @Test
+    void shouldBeUnlimitedByDefault() {
+        assertThat(limiters.forContainer(databaseMock, containerMock, metadataCacheMock))
+                .isSameAs(RequestChargeRateLimiter.UNLIMITED);
+    }
+
+    @Test
+    void shouldBudgetShareOfDedicatedThroughput() throws Exception {
+        when(metadataCacheMock.getThroughput(containerMock))
+                .thenReturn(Optional.of(ThroughputProperties.createManualThroughput(1000)));
+
+        final RequestChargeRateLimiter limiter = withBudgetPercent(50,
+                () -> limiters.forContainer(databaseMock, containerMock, metadataCacheMock));
+
+        assertThat(limiter.getRequestUnitsPerSecond()).isEqualTo(500);
+        assertThat(withBudgetPercent(50, () -> limiters.forContainer(databaseMock, containerMock, metadataCacheMock)))
+                .isSameAs(limiter);
+    }
+
+    @Test
+    void shouldBudgetMaximumOfSharedAutoscaleThroughput() throws Exception {
+        when(metadataCacheMock.getThroughput(containerMock)).thenReturn(Optional.empty());
+        when(metadataCacheMock.getDatabaseThroughput(databaseMock))
+                .thenReturn(Optional.of(ThroughputProperties.createAutoscaledThroughput(4000)));
+
+        final RequestChargeRateLimiter limiter = withBudgetPercent(25,
+                () -> limiters.forContainer(databaseMock, containerMock, metadataCacheMock));
+
+        assertThat(limiter.getRequestUnitsPerSecond()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldParseOverrides() {
+        assertThat(RequestChargeRateLimiters.parseOverrides(null)).isEmpty();
+        assertThat(RequestChargeRateLimiters.parseOverrides(" orders = 20, audit=5 "))
+                .containsEntry("orders", 20).containsEntry("audit", 5).hasSize(2);
+        assertThatIllegalArgumentException().isThrownBy(() -> RequestChargeRateLimiters.parseOverrides("orders"));
+        assertThatIllegalArgumentException().isThrownBy(() -> RequestChargeRateLimiters.parseOverrides("orders=many"));
+    }
+
+    private static <T> T withBudgetPercent(final int percent, final Scope.ScopedRunnerWithReturn<T> runner) throws Exception {
+        return Scope.child(Collections.singletonMap(CosmosConfiguration.THROUGHPUT_BUDGET_PERCENT.getKey(), percent), runner);
+    }
+}
@@ -0,0 +1,69 @@
+package liquibase.ext.cosmosdb.lockservice;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosChangeFeedRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogLockChangeFeedTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @Test
+    void shouldReturnOnceTheLockChanged() throws InterruptedException {
+        final CosmosPagedIterable<JsonNode> empty = pagedIterable(Collections.emptyList(), "token1");
+        final CosmosPagedIterable<JsonNode> changed
+                = pagedIterable(Collections.singletonList(OBJECT_MAPPER.createObjectNode().put("locked", false)), "token2");
+        when(containerMock.queryChangeFeed(any(CosmosChangeFeedRequestOptions.class), eq(JsonNode.class)))
+                .thenReturn(empty, empty, changed);
+
+        final ChangeLogLockChangeFeed feed = new ChangeLogLockChangeFeed(containerMock, 1L);
+        feed.start();
+
+        assertThat(feed.awaitChange(10_000L)).isTrue();
+        verify(containerMock, times(3)).queryChangeFeed(any(CosmosChangeFeedRequestOptions.class), eq(JsonNode.class));
+    }
+
+    @Test
+    void shouldGiveUpAfterTheTimeout() throws InterruptedException {
+        final CosmosPagedIterable<JsonNode> empty = pagedIterable(Collections.emptyList(), "token1");
+        when(containerMock.queryChangeFeed(any(CosmosChangeFeedRequestOptions.class), eq(JsonNode.class))).thenReturn(empty);
+
+        final ChangeLogLockChangeFeed feed = new ChangeLogLockChangeFeed(containerMock, 1L);
+        feed.start();
+
+        assertThat(feed.awaitChange(0L)).isFalse();
+        verify(containerMock, times(2)).queryChangeFeed(any(CosmosChangeFeedRequestOptions.class), eq(JsonNode.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CosmosPagedIterable<JsonNode> pagedIterable(final List<JsonNode> results, final String continuationToken) {
+        final FeedResponse<JsonNode> response = mock(FeedResponse.class);
+        when(response.getResults()).thenReturn(results);
+        when(response.getContinuationToken()).thenReturn(continuationToken);
+        final CosmosPagedIterable<JsonNode> iterable = mock(CosmosPagedIterable.class);
+        when(iterable.iterableByPage()).thenReturn(Collections.singletonList(response));
+        return iterable;
+    }
+}
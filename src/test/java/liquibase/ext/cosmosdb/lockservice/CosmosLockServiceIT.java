@@ -24,6 +24,7 @@ import liquibase.Scope;
 import liquibase.database.core.PostgresDatabase;
 import liquibase.executor.ExecutorService;
 import liquibase.ext.cosmosdb.AbstractCosmosWithConnectionIntegrationTest;
+import liquibase.ext.cosmosdb.CosmosConfiguration;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.ext.cosmosdb.statement.CountContainersByNameStatement;
 import liquibase.lockservice.DatabaseChangeLogLock;
@@ -33,6 +34,7 @@ import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Collections;
 import java.util.Date;
 
 import static liquibase.servicelocator.PrioritizedService.PRIORITY_DATABASE;
@@ -146,6 +148,43 @@ class CosmosLockServiceIT extends AbstractCosmosWithConnectionIntegrationTest {
         assertThat(((CosmosChangeLogLock)locks3[0]).getLocked()).isTrue();
     }
 
+    @SneakyThrows
+    @Test
+    void testExpiredLeaseIsTakenOver() {
+        Scope.child(Collections.singletonMap(CosmosConfiguration.LOCK_LEASE_SECONDS.getKey(), 2), () -> {
+            assertThat(cosmosLockService.acquireLock()).isTrue();
+            final CosmosChangeLogLock lock = (CosmosChangeLogLock) cosmosLockService.listLocks()[0];
+            assertThat(lock.getTtl()).isEqualTo(2);
+
+            // A runner stopped without releasing the lock no longer renews its lease
+            cosmosLockService.reset();
+            assertThat(cosmosLockService.acquireLock()).isFalse();
+
+            boolean reacquiredLock = false;
+            final long giveUp = System.currentTimeMillis() + 30_000;
+            while (!reacquiredLock && System.currentTimeMillis() < giveUp) {
+                Thread.sleep(1000);
+                reacquiredLock = cosmosLockService.acquireLock();
+            }
+            assertThat(reacquiredLock).isTrue();
+        });
+    }
+
+    @SneakyThrows
+    @Test
+    void testReleaseDoesNotOverwriteTakenOverLock() {
+        assertThat(cosmosLockService.acquireLock()).isTrue();
+        final ChangeLogLockRepository repository = new ChangeLogLockRepository(cosmosDatabase, cosmosLockService.getDatabaseChangeLogLockTableName());
+        repository.upsert(CosmosChangeLogLock.builder().id(1).lockGranted(new Date()).lockedBy("other").locked(true).build());
+
+        cosmosLockService.releaseLock();
+
+        assertThat(cosmosLockService.hasChangeLogLock()).isFalse();
+        final DatabaseChangeLogLock[] locks = cosmosLockService.listLocks();
+        assertThat(locks).hasSize(1);
+        assertThat(locks[0].getLockedBy()).isEqualTo("other");
+    }
+
     @SneakyThrows
     @Test
     void testListLocks() {
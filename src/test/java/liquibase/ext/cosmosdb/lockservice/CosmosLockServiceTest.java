@@ -1,11 +1,29 @@
 package liquibase.ext.cosmosdb.lockservice;
 
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.PartitionKey;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
 import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
 import liquibase.lockservice.LockServiceFactory;
+import liquibase.nosql.executor.NoSqlExecutor;
+import liquibase.statement.SqlStatement;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class CosmosLockServiceTest {
 
@@ -37,4 +55,155 @@ class CosmosLockServiceTest {
         assertThat(cosmosLockService.getDatabaseChangeLogLockTableName()).isEqualTo(database.getDatabaseChangeLogLockTableName());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testBackoffMillis() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(CosmosLockService.backoffMillis(0, 10_000L)).isBetween(50L, 100L);
+            assertThat(CosmosLockService.backoffMillis(3, 10_000L)).isBetween(400L, 800L);
+            assertThat(CosmosLockService.backoffMillis(10, 10_000L)).isBetween(5_000L, 10_000L);
+            assertThat(CosmosLockService.backoffMillis(Integer.MAX_VALUE, 10_000L)).isBetween(5_000L, 10_000L);
+        }
+    }
+
+    @Test
+    void testLockWaitStrategyOf() {
+        assertThat(LockWaitStrategy.of(null)).isEqualTo(LockWaitStrategy.POLL);
+        assertThat(LockWaitStrategy.of(" poll ")).isEqualTo(LockWaitStrategy.POLL);
+        assertThat(LockWaitStrategy.of("backoff")).isEqualTo(LockWaitStrategy.BACKOFF);
+        assertThat(LockWaitStrategy.of("changeFeed")).isEqualTo(LockWaitStrategy.CHANGE_FEED);
+        assertThat(LockWaitStrategy.of("CHANGE_FEED")).isEqualTo(LockWaitStrategy.CHANGE_FEED);
+        assertThatIllegalArgumentException().isThrownBy(() -> LockWaitStrategy.of("sleep"))
+                .withMessageContaining("sleep");
+    }
+
+    @Test
+    void shouldReleaseTheLockRenewedWhileBeingReleased() throws DatabaseException {
+        final LockDocumentStore store = new LockDocumentStore();
+        final CosmosLockService cosmosLockService = store.lockService();
+        assertThat(cosmosLockService.replaceLock(true)).isEqualTo(1);
+        assertThat(store.document).containsEntry("locked", true);
+
+        // A renewal that was in flight when the heartbeat was stopped reaches the service before the release
+        store.beforeNextReplace = () -> store.write(new HashMap<>(store.document));
+
+        assertThat(cosmosLockService.replaceLock(false)).isEqualTo(1);
+        assertThat(store.document).containsEntry("locked", false);
+
+        // A renewal after the release does not lock the document again
+        cosmosLockService.renewLease(60);
+        assertThat(store.document).containsEntry("locked", false);
+    }
+
+    @Test
+    void shouldReleaseWithTheETagOfTheLastRenewal() throws DatabaseException {
+        final LockDocumentStore store = new LockDocumentStore();
+        final CosmosLockService cosmosLockService = store.lockService();
+        assertThat(cosmosLockService.replaceLock(true)).isEqualTo(1);
+        final String acquiredETag = store.eTag;
+
+        cosmosLockService.renewLease(60);
+        assertThat(store.eTag).isNotEqualTo(acquiredETag);
+        assertThat(store.document).containsEntry("locked", true).containsEntry("ttl", 60);
+
+        assertThat(cosmosLockService.replaceLock(false)).isEqualTo(1);
+        assertThat(store.document).containsEntry("locked", false);
+    }
+
+    @Test
+    void shouldNotReleaseTheLockTakenOverByAnotherRunner() throws DatabaseException {
+        final LockDocumentStore store = new LockDocumentStore();
+        final CosmosLockService cosmosLockService = store.lockService();
+        assertThat(cosmosLockService.replaceLock(true)).isEqualTo(1);
+
+        final Map<String, Object> takenOver = new HashMap<>(store.document);
+        takenOver.put("lockedBy", "other");
+        store.write(takenOver);
+
+        assertThat(cosmosLockService.replaceLock(false)).isEqualTo(1);
+        assertThat(store.document).containsEntry("locked", true).containsEntry("lockedBy", "other");
+    }
+
+    /**
+     * Keeps the lock document in memory, rejecting writes that do not match its current ETag like the service.
+     */
+    private static class LockDocumentStore {
+
+        private static final String CONTAINER = "DATABASECHANGELOGLOCK";
+
+        private final CosmosLiquibaseDatabase databaseMock = mock(CosmosLiquibaseDatabase.class);
+        private final CosmosException notFound = status(404);
+        private final CosmosException preconditionFailed = status(412);
+
+        private Map<String, Object> document;
+        private String eTag;
+        private int version;
+        private Runnable beforeNextReplace;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        LockDocumentStore() {
+            final CosmosDatabase cosmosDatabaseMock = mock(CosmosDatabase.class);
+            final CosmosContainer containerMock = mock(CosmosContainer.class);
+            when(databaseMock.getDatabaseChangeLogLockTableName()).thenReturn(CONTAINER);
+            when(databaseMock.getCosmosDatabase()).thenReturn(cosmosDatabaseMock);
+            when(cosmosDatabaseMock.getContainer(CONTAINER)).thenReturn(containerMock);
+
+            when(containerMock.readItem(eq("1"), eq(PartitionKey.NONE), eq(Map.class))).thenAnswer(invocation -> {
+                if (document == null) {
+                    throw notFound;
+                }
+                return response(new HashMap<>(document), eTag);
+            });
+            when(containerMock.createItem(anyMap(), eq(PartitionKey.NONE), any())).thenAnswer(invocation -> {
+                write(invocation.getArgument(0));
+                return response(document, eTag);
+            });
+            when(containerMock.replaceItem(anyMap(), eq("1"), eq(PartitionKey.NONE), any())).thenAnswer(invocation -> {
+                if (beforeNextReplace != null) {
+                    final Runnable concurrentWrite = beforeNextReplace;
+                    beforeNextReplace = null;
+                    concurrentWrite.run();
+                }
+                final CosmosItemRequestOptions options = invocation.getArgument(3);
+                if (!eTag.equals(options.getIfMatchETag())) {
+                    throw preconditionFailed;
+                }
+                write(invocation.getArgument(0));
+                return response(document, eTag);
+            });
+        }
+
+        CosmosLockService lockService() throws DatabaseException {
+            final NoSqlExecutor executorMock = mock(NoSqlExecutor.class);
+            when(executorMock.update(any(SqlStatement.class))).thenAnswer(invocation ->
+                    invocation.<ReplaceLockChangeLogStatement>getArgument(0).update(databaseMock));
+            final CosmosLockService cosmosLockService = new CosmosLockService() {
+                @Override
+                public NoSqlExecutor getExecutor() {
+                    return executorMock;
+                }
+            };
+            cosmosLockService.setDatabase(databaseMock);
+            return cosmosLockService;
+        }
+
+        void write(final Map<String, Object> written) {
+            this.document = written;
+            this.eTag = "etag" + ++version;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static CosmosItemResponse<Map<String, Object>> response(final Map<String, Object> document, final String eTag) {
+            final CosmosItemResponse<Map<String, Object>> response = mock(CosmosItemResponse.class);
+            when(response.getItem()).thenReturn(document);
+            when(response.getETag()).thenReturn(eTag);
+            return response;
+        }
+
+        private static CosmosException status(final int statusCode) {
+            final CosmosException exception = mock(CosmosException.class);
+            when(exception.getStatusCode()).thenReturn(statusCode);
+            return exception;
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package liquibase.ext.cosmosdb.lockservice;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.PartitionKey;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplaceLockChangeLogStatementTest {
+
+    private static final String CONTAINER = "DATABASECHANGELOGLOCK";
+
+    @Mock
+    private CosmosLiquibaseDatabase databaseMock;
+
+    @Mock
+    private CosmosDatabase cosmosDatabaseMock;
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @BeforeEach
+    void setUp() {
+        when(databaseMock.getCosmosDatabase()).thenReturn(cosmosDatabaseMock);
+        when(cosmosDatabaseMock.getContainer(CONTAINER)).thenReturn(containerMock);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateMissingLockWithLease() {
+        final CosmosException notFound = status(404);
+        when(containerMock.readItem(eq("1"), eq(PartitionKey.NONE), eq(Map.class))).thenThrow(notFound);
+        final CosmosItemResponse<Map<String, Object>> created = response("etag1");
+        when(containerMock.createItem(anyMap(), eq(PartitionKey.NONE), any())).thenReturn((CosmosItemResponse) created);
+
+        final ReplaceLockChangeLogStatement statement = new ReplaceLockChangeLogStatement(CONTAINER, true, 60);
+
+        assertThat(statement.update(databaseMock)).isEqualTo(1);
+        assertThat(statement.getETag()).isEqualTo("etag1");
+        final ArgumentCaptor<Map<String, Object>> document = ArgumentCaptor.forClass(Map.class);
+        verify(containerMock).createItem(document.capture(), eq(PartitionKey.NONE), any());
+        assertThat(document.getValue()).containsEntry("locked", true).containsEntry("ttl", 60);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotAcquireHeldLock() {
+        final CosmosItemResponse<Map> current = mock(CosmosItemResponse.class);
+        when(current.getItem()).thenReturn(lockDocument(true));
+        when(containerMock.readItem(eq("1"), eq(PartitionKey.NONE), eq(Map.class))).thenReturn(current);
+
+        assertThat(new ReplaceLockChangeLogStatement(CONTAINER, true, 60).update(databaseMock)).isZero();
+        verify(containerMock, never()).replaceItem(anyMap(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAcquireReleasedLockOnlyIfUnchanged() {
+        final CosmosItemResponse<Map> current = mock(CosmosItemResponse.class);
+        when(current.getItem()).thenReturn(lockDocument(false));
+        when(current.getETag()).thenReturn("etag1");
+        when(containerMock.readItem(eq("1"), eq(PartitionKey.NONE), eq(Map.class))).thenReturn(current);
+        final CosmosException preconditionFailed = status(412);
+        when(containerMock.replaceItem(anyMap(), eq("1"), eq(PartitionKey.NONE), any())).thenThrow(preconditionFailed);
+
+        assertThat(new ReplaceLockChangeLogStatement(CONTAINER, true, 60).update(databaseMock)).isZero();
+
+        final ArgumentCaptor<CosmosItemRequestOptions> options = ArgumentCaptor.forClass(CosmosItemRequestOptions.class);
+        verify(containerMock).replaceItem(anyMap(), eq("1"), eq(PartitionKey.NONE), options.capture());
+        assertThat(options.getValue().getIfMatchETag()).isEqualTo("etag1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReleaseHeldLockConditionally() {
+        final CosmosItemResponse<Map<String, Object>> replaced = response("etag3");
+        when(containerMock.replaceItem(anyMap(), eq("1"), eq(PartitionKey.NONE), any())).thenReturn((CosmosItemResponse) replaced);
+
+        final ReplaceLockChangeLogStatement statement = new ReplaceLockChangeLogStatement(CONTAINER, false);
+        statement.setIfMatchETag("etag2");
+
+        assertThat(statement.update(databaseMock)).isEqualTo(1);
+        final ArgumentCaptor<Map<String, Object>> document = ArgumentCaptor.forClass(Map.class);
+        final ArgumentCaptor<CosmosItemRequestOptions> options = ArgumentCaptor.forClass(CosmosItemRequestOptions.class);
+        verify(containerMock).replaceItem(document.capture(), eq("1"), eq(PartitionKey.NONE), options.capture());
+        assertThat(document.getValue()).containsEntry("locked", false).doesNotContainKey("ttl");
+        assertThat(options.getValue().getIfMatchETag()).isEqualTo("etag2");
+        verify(containerMock, never()).readItem(any(), any(), eq(Map.class));
+    }
+
+    private static Map<String, Object> lockDocument(final boolean locked) {
+        final Map<String, Object> document = new HashMap<>();
+        document.put("id", "1");
+        document.put("lockedBy", "other");
+        document.put("locked", locked);
+        return document;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CosmosItemResponse<Map<String, Object>> response(final String eTag) {
+        final CosmosItemResponse<Map<String, Object>> response = mock(CosmosItemResponse.class);
+        when(response.getETag()).thenReturn(eTag);
+        return response;
+    }
+
+    private static CosmosException status(final int statusCode) {
+        final CosmosException exception = mock(CosmosException.class);
+        when(exception.getStatusCode()).thenReturn(statusCode);
+        return exception;
+    }
+}
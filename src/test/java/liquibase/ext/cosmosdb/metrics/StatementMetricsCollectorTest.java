@@ -0,0 +1,159 @@
+package liquibase.ext.cosmosdb.metrics;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsRequestInfo;
+import liquibase.nosql.executor.NoSqlStatementListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementMetricsCollectorTest {
+
+    private final List<StatementMetrics> executed = new ArrayList<>();
+    private final List<StatementMetricsSummary> completed = new ArrayList<>();
+
+    private final StatementMetricsCollector collector = new StatementMetricsCollector(Collections.singletonList(
+            new StatementMetricsListener() {
+                @Override
+                public void statementExecuted(final StatementMetrics metrics) {
+                    executed.add(metrics);
+                }
+
+                @Override
+                public void updateCompleted(final StatementMetricsSummary summary) {
+                    completed.add(summary);
+                }
+            }));
+
+    @Test
+    void shouldAttributeRequestsToRunningStatement() {
+        collector.handleDiagnostics(diagnostics(5, null, 0, 200), null);
+
+        final StatementMetricsCollector.Recording recording = collector.start("updateEachItem", "changelog.xml::1::author");
+        collector.handleDiagnostics(diagnostics(2.5, 10, 0, 200), null);
+        collector.handleDiagnostics(diagnostics(1.5, null, 1, 429, 200), null);
+        final StatementMetrics metrics = collector.stop(recording, false);
+
+        assertThat(metrics.getStatementType()).isEqualTo("updateEachItem");
+        assertThat(metrics.getChangeSetId()).isEqualTo("changelog.xml::1::author");
+        assertThat(metrics.getRequestCharge()).isEqualTo(4.0);
+        assertThat(metrics.getItemCount()).isEqualTo(10);
+        assertThat(metrics.getRequestCount()).isEqualTo(3);
+        assertThat(metrics.getRetryCount()).isEqualTo(1);
+        assertThat(metrics.getThrottleCount()).isEqualTo(1);
+        assertThat(metrics.isFailed()).isFalse();
+        assertThat(executed).containsExactly(metrics);
+    }
+
+    @Test
+    void shouldRestoreOuterStatement() {
+        final StatementMetricsCollector.Recording outer = collector.start("updateEachItem", "1");
+        final StatementMetricsCollector.Recording inner = collector.start("countDocumentsInContainer", null);
+        collector.handleDiagnostics(diagnostics(1, null, 0, 200), null);
+        collector.stop(inner, false);
+        collector.handleDiagnostics(diagnostics(3, null, 0, 200), null);
+
+        assertThat(collector.stop(outer, true).getRequestCharge()).isEqualTo(3.0);
+        assertThat(executed).extracting(StatementMetrics::getRequestCharge).containsExactly(1.0, 3.0);
+    }
+
+    @Test
+    void shouldRecordStatementsReportedByTheExecutor() {
+        final NoSqlStatementListener.Execution execution = collector.statementStarted("deleteEachItem", "1");
+        collector.handleDiagnostics(diagnostics(2, null, 0, 200), null);
+        execution.finished(true);
+
+        assertThat(executed).extracting(StatementMetrics::getStatementType, StatementMetrics::getRequestCharge,
+                StatementMetrics::isFailed).containsExactly(tuple("deleteEachItem", 2.0, true));
+    }
+
+    @Test
+    void shouldSummarizePerChangeSetAndStatementType() {
+        collector.handleDiagnostics(diagnostics(1, null, 0, 200), null);
+        collector.stop(collector.start("createItem", "1"), false);
+        collector.stop(collector.start("createItem", "2"), false);
+        collector.stop(collector.start("selectChangeLogLock", null), false);
+
+        final StatementMetricsSummary summary = collector.updateCompleted();
+
+        assertThat(completed).containsExactly(summary);
+        assertThat(summary.getTotal().getStatements()).isEqualTo(3);
+        assertThat(summary.getByChangeSet()).containsOnlyKeys("1", "2", StatementMetricsSummary.NO_CHANGE_SET);
+        assertThat(summary.getByStatementType().get("createItem").getStatements()).isEqualTo(2);
+        assertThat(summary.toTable()).contains("changeSet", "statement", "total", "selectChangeLogLock");
+
+        assertThat(collector.updateCompleted().isEmpty()).isTrue();
+        assertThat(completed).hasSize(1);
+    }
+
+    @Test
+    void shouldKeepTheStatementsOfConnectionsSharingAClientApart() {
+        final StatementMetricsDispatcher dispatcher = new StatementMetricsDispatcher();
+        final StatementMetricsCollector other = new StatementMetricsCollector(Collections.emptyList());
+        dispatcher.register(collector, "db1");
+        dispatcher.register(other, "db2");
+
+        final StatementMetricsCollector.Recording first = collector.start("updateEachItem", "1");
+        final StatementMetricsCollector.Recording second = other.start("deleteEachItem", "1");
+        final CosmosDiagnosticsContext db1 = diagnostics(2, null, 0, 200);
+        when(db1.getDatabaseName()).thenReturn("db1");
+        final CosmosDiagnosticsContext db2 = diagnostics(5, null, 0, 200);
+        when(db2.getDatabaseName()).thenReturn("db2");
+        dispatcher.handleDiagnostics(db1, null);
+        dispatcher.handleDiagnostics(db2, null);
+
+        assertThat(collector.stop(first, false).getRequestCharge()).isEqualTo(2.0);
+        assertThat(other.stop(second, false).getRequestCharge()).isEqualTo(5.0);
+
+        // The summary of one connection is handed over without touching the other one
+        other.updateCompleted();
+        assertThat(collector.updateCompleted().getTotal().getStatements()).isEqualTo(1);
+
+        dispatcher.unregister(other);
+        final StatementMetricsCollector.Recording alone = collector.start("createItem", null);
+        dispatcher.handleDiagnostics(diagnostics(1, null, 0, 200), null);
+        assertThat(collector.stop(alone, false).getRequestCharge()).isEqualTo(1.0);
+    }
+
+    private static CosmosDiagnosticsContext diagnostics(final double requestCharge, final Integer items,
+                                                        final int retries, final int... statusCodes) {
+        final CosmosDiagnosticsContext context = mock(CosmosDiagnosticsContext.class);
+        lenient().when(context.getTotalRequestCharge()).thenReturn((float) requestCharge);
+        lenient().when(context.getActualItemCount()).thenReturn(items);
+        lenient().when(context.getRetryCount()).thenReturn(retries);
+        final List<CosmosDiagnosticsRequestInfo> requests = new ArrayList<>();
+        for (final int statusCode : statusCodes) {
+            final CosmosDiagnosticsRequestInfo request = mock(CosmosDiagnosticsRequestInfo.class);
+            when(request.getStatusCode()).thenReturn(statusCode);
+            requests.add(request);
+        }
+        lenient().when(context.getRequestInfo()).thenReturn(requests);
+        return context;
+    }
+}
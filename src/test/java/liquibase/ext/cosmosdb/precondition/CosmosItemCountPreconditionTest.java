@@ -0,0 +1,83 @@
+package liquibase.ext.cosmosdb.precondition;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.changelog.ChangeSet;
+import liquibase.database.core.H2Database;
+import liquibase.exception.PreconditionFailedException;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import liquibase.precondition.Precondition;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static liquibase.ext.cosmosdb.TestUtils.getChangeSets;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class CosmosItemCountPreconditionTest {
+
+    private final CosmosLiquibaseDatabase database = new CosmosLiquibaseDatabase();
+
+    @Test
+    @SneakyThrows
+    void load() {
+        final List<ChangeSet> changeSets = getChangeSets("liquibase/ext/precondition.item-count.test.xml", database);
+
+        assertThat(changeSets).hasSize(2);
+        assertThat(preconditions(changeSets.get(0))).singleElement()
+                .isInstanceOf(CosmosItemCountPrecondition.class)
+                .hasFieldOrPropertyWithValue("containerId", "container1")
+                .hasFieldOrPropertyWithValue("filter", null)
+                .hasFieldOrPropertyWithValue("expectedCount", 0L);
+        assertThat(preconditions(changeSets.get(1))).singleElement()
+                .hasFieldOrPropertyWithValue("filter", "c.active = true")
+                .hasFieldOrPropertyWithValue("expectedCount", 1L);
+    }
+
+    @Test
+    void validate() {
+        final CosmosItemCountPrecondition precondition = new CosmosItemCountPrecondition();
+        assertThat(precondition.validate(database).getErrorMessages())
+                .anyMatch(m -> m.contains("containerId"))
+                .anyMatch(m -> m.contains("expectedCount"));
+
+        precondition.setContainerId("container1");
+        precondition.setExpectedCount(-1L);
+        assertThat(precondition.validate(database).getErrorMessages()).containsExactly("expectedCount must not be negative");
+
+        precondition.setExpectedCount(0L);
+        assertThat(precondition.validate(database).hasErrors()).isFalse();
+    }
+
+    @Test
+    void failsOnOtherDatabases() {
+        final CosmosItemCountPrecondition precondition = new CosmosItemCountPrecondition();
+        precondition.setContainerId("container1");
+        precondition.setExpectedCount(0L);
+
+        assertThatExceptionOfType(PreconditionFailedException.class)
+                .isThrownBy(() -> precondition.check(new H2Database(), null, null, null));
+    }
+
+    private static List<Precondition> preconditions(final ChangeSet changeSet) {
+        return changeSet.getPreconditions().getNestedPreconditions();
+    }
+}
@@ -0,0 +1,215 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import liquibase.exception.UnexpectedLiquibaseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkItemExecutorTest {
+
+    private static final int OK = 200;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int CONFLICT = 409;
+    private static final int NOT_FOUND = 404;
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(containerMock.getId()).thenReturn("bulkContainer");
+    }
+
+    @Test
+    void shouldSubmitOperationsInBatches() {
+        final List<Integer> batchSizes = new ArrayList<>();
+        respondWith(operations -> {
+            batchSizes.add(operations.size());
+            return OK;
+        });
+
+        final BulkExecutionSummary summary = new BulkItemExecutor(containerMock, 2, 3)
+                .execute("updateEachItem", operations(5));
+
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+        assertThat(summary.getSucceeded()).isEqualTo(5);
+        assertThat(summary.getFailed()).isZero();
+        assertThat(summary.getRetried()).isZero();
+        assertThat(summary.getRequestCharge()).isEqualTo(5.0);
+    }
+
+    @Test
+    void shouldRetryThrottledOperations() {
+        final AtomicInteger calls = new AtomicInteger();
+        respondWith(operations -> calls.getAndIncrement() == 0 ? TOO_MANY_REQUESTS : OK);
+
+        final BulkExecutionSummary summary = new BulkItemExecutor(containerMock, 10, 3)
+                .execute("updateEachItem", operations(3));
+
+        verify(containerMock, times(2)).executeBulkOperations(any());
+        assertThat(summary.getSucceeded()).isEqualTo(3);
+        assertThat(summary.getRetried()).isEqualTo(3);
+        assertThat(summary.getFailed()).isZero();
+    }
+
+    @Test
+    void shouldFailWhenRetriesAreExhausted() {
+        respondWith(operations -> TOO_MANY_REQUESTS);
+
+        final BulkItemExecutor executor = new BulkItemExecutor(containerMock, 10, 2);
+        final Stream<CosmosItemOperation> operations = operations(1);
+
+        assertThatThrownBy(() -> executor.execute("updateEachItem", operations))
+                .isInstanceOf(UnexpectedLiquibaseException.class)
+                .hasMessageContaining("bulkContainer")
+                .hasMessageContaining("1 failed");
+        verify(containerMock, times(3)).executeBulkOperations(any());
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        respondWith(operations -> CONFLICT);
+
+        final BulkItemExecutor executor = new BulkItemExecutor(containerMock, 10, 5);
+        final Stream<CosmosItemOperation> operations = operations(2);
+
+        assertThatThrownBy(() -> executor.execute("updateEachItem", operations))
+                .isInstanceOf(UnexpectedLiquibaseException.class)
+                .hasMessageContaining("2 failed");
+        verify(containerMock, times(1)).executeBulkOperations(any());
+    }
+
+    @Test
+    void shouldTreatMissingItemsAsDeleted() {
+        respondWith(operations -> NOT_FOUND);
+
+        final BulkExecutionSummary summary = new BulkItemExecutor(containerMock, 10, 1)
+                .execute("deleteEachItem", operations(2, CosmosItemOperationType.DELETE));
+
+        assertThat(summary.getSucceeded()).isEqualTo(2);
+        assertThat(summary.getFailed()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteBatchesConcurrently() {
+        final List<CosmosItemOperation> operations = operations(6, CosmosItemOperationType.DELETE)
+                .collect(Collectors.toList());
+        // Responses are prepared upfront as the batches are executed on worker threads
+        final Map<CosmosItemOperation, CosmosBulkOperationResponse<Object>> responses = new ConcurrentHashMap<>();
+        operations.forEach(operation -> responses.put(operation, response(operation, OK)));
+        final Map<String, Integer> threads = new ConcurrentHashMap<>();
+        when(containerMock.executeBulkOperations(any())).thenAnswer(invocation -> {
+            threads.merge(Thread.currentThread().getName(), 1, Integer::sum);
+            final List<CosmosBulkOperationResponse<Object>> batch = new ArrayList<>();
+            ((Iterable<CosmosItemOperation>) invocation.getArgument(0)).forEach(o -> batch.add(responses.get(o)));
+            return batch;
+        });
+
+        final BulkExecutionSummary summary = new BulkItemExecutor(containerMock, 2, 1, 3, null)
+                .execute("deleteEachItem", operations.stream());
+
+        verify(containerMock, times(3)).executeBulkOperations(any());
+        assertThat(summary.getSucceeded()).isEqualTo(6);
+        assertThat(threads.keySet()).allMatch(name -> name.startsWith("cosmos-bulk-bulkContainer-"));
+    }
+
+    @Test
+    void shouldRejectNonPositiveBatchSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new BulkItemExecutor(containerMock, 0, 1));
+    }
+
+    @Test
+    void shouldRejectNonPositiveConcurrencyAndBudget() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new BulkItemExecutor(containerMock, 1, 1, 0, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new BulkItemExecutor(containerMock, 1, 1, 1, 0.0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respondWith(final Function<List<CosmosItemOperation>, Integer> statusOfBatch) {
+        when(containerMock.executeBulkOperations(any())).thenAnswer(invocation -> {
+            final List<CosmosItemOperation> operations = new ArrayList<>();
+            ((Iterable<CosmosItemOperation>) invocation.getArgument(0)).forEach(operations::add);
+            final int status = statusOfBatch.apply(operations);
+            final List<CosmosBulkOperationResponse<Object>> responses = new ArrayList<>();
+            for (final CosmosItemOperation operation : operations) {
+                responses.add(response(operation, status));
+            }
+            return responses;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CosmosBulkOperationResponse<Object> response(final CosmosItemOperation operation, final int status) {
+        final CosmosBulkItemResponse itemResponse = mock(CosmosBulkItemResponse.class);
+        lenient().when(itemResponse.getStatusCode()).thenReturn(status);
+        lenient().when(itemResponse.isSuccessStatusCode()).thenReturn(status < 300);
+        lenient().when(itemResponse.getRequestCharge()).thenReturn(1.0);
+        lenient().when(itemResponse.getRetryAfterDuration()).thenReturn(Duration.ofMillis(1));
+
+        final CosmosBulkOperationResponse<Object> response = mock(CosmosBulkOperationResponse.class);
+        lenient().when(response.getResponse()).thenReturn(itemResponse);
+        lenient().when(response.getOperation()).thenReturn(operation);
+        return response;
+    }
+
+    private static Stream<CosmosItemOperation> operations(final int count) {
+        return operations(count, CosmosItemOperationType.UPSERT);
+    }
+
+    private static Stream<CosmosItemOperation> operations(final int count, final CosmosItemOperationType type) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            final CosmosItemOperation operation = mock(CosmosItemOperation.class);
+            lenient().when(operation.getId()).thenReturn(String.valueOf(i));
+            lenient().when(operation.getOperationType()).thenReturn(type);
+            return operation;
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeSetProgressTrackerTest {
+
+    private static final String QUERY = "SELECT c.id FROM c";
+
+    @Mock
+    private ChangeSetProgressRepository repositoryMock;
+
+    private ChangeSetProgress change;
+
+    @BeforeEach
+    void setUp() {
+        change = new ChangeSetProgress();
+        change.setId("changeSetProgress-1");
+        change.setFileName("changelog.xml");
+        change.setAuthor("alex");
+        change.setChangeSetId("1#0");
+        change.setCheckSum("9:a1");
+    }
+
+    @Test
+    void shouldPersistCheckpointsAndRemoveThemOnCompletion() {
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.empty());
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "deleteEachItem", QUERY, Duration.ZERO);
+        assertThat(tracker.getResumeFrom()).isEmpty();
+
+        tracker.accept(new FeedRangeCheckpoint("range1", "token1", 10));
+        tracker.accept(new FeedRangeCheckpoint("range2", null, 5));
+
+        final ArgumentCaptor<ChangeSetProgress> saved = ArgumentCaptor.forClass(ChangeSetProgress.class);
+        verify(repositoryMock, times(2)).upsert(saved.capture());
+        assertThat(saved.getValue().getId()).isEqualTo("changeSetProgress-1");
+        assertThat(saved.getValue().getCommand()).isEqualTo("deleteEachItem");
+        assertThat(saved.getValue().getQuery()).isEqualTo(QUERY);
+        assertThat(saved.getValue().getCheckSum()).isEqualTo("9:a1");
+        assertThat(saved.getValue().getProcessed()).isEqualTo(15);
+        assertThat(saved.getValue().getCheckpoints()).hasSize(2);
+
+        tracker.complete();
+        verify(repositoryMock).deleteIfExists("changeSetProgress-1");
+    }
+
+    @Test
+    void shouldPersistNotStartedFeedRangesWithTheFirstPage() {
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.empty());
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "deleteEachItem", QUERY, Duration.ZERO);
+        tracker.accept(FeedRangeCheckpoint.notStarted("range1"));
+        tracker.accept(FeedRangeCheckpoint.notStarted("range2"));
+        verify(repositoryMock, never()).upsert(any(ChangeSetProgress.class));
+
+        tracker.accept(new FeedRangeCheckpoint("range1", "token1", 10));
+
+        final ArgumentCaptor<ChangeSetProgress> saved = ArgumentCaptor.forClass(ChangeSetProgress.class);
+        verify(repositoryMock).upsert(saved.capture());
+        assertThat(saved.getValue().getCheckpoints()).containsExactlyInAnyOrder(
+                new FeedRangeCheckpoint("range1", "token1", 10), FeedRangeCheckpoint.notStarted("range2"));
+    }
+
+    @Test
+    void shouldResumeTheSameQuery() {
+        final ChangeSetProgress existing = new ChangeSetProgress();
+        existing.setCommand("deleteEachItem");
+        existing.setQuery(QUERY);
+        existing.setCheckSum("9:a1");
+        existing.setCheckpoints(Collections.singletonList(new FeedRangeCheckpoint("range1", "token1", 10)));
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.of(existing));
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "deleteEachItem", QUERY, Duration.ofHours(1));
+
+        assertThat(tracker.getResumeFrom()).containsExactly(new FeedRangeCheckpoint("range1", "token1", 10));
+    }
+
+    @Test
+    void shouldStartOverWhenTheChangeSetChanged() {
+        final ChangeSetProgress existing = new ChangeSetProgress();
+        existing.setCommand("updateEachItem");
+        existing.setQuery(QUERY);
+        existing.setCheckSum("9:b2");
+        existing.setCheckpoints(Collections.singletonList(new FeedRangeCheckpoint("range1", "token1", 10)));
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.of(existing));
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "updateEachItem", QUERY, Duration.ofHours(1));
+
+        assertThat(tracker.getResumeFrom()).isEmpty();
+        tracker.complete();
+        verify(repositoryMock).deleteIfExists("changeSetProgress-1");
+    }
+
+    @Test
+    void shouldStartOverWhenTheQueryChanged() {
+        final ChangeSetProgress existing = new ChangeSetProgress();
+        existing.setCommand("deleteEachItem");
+        existing.setQuery("SELECT * FROM c");
+        existing.setCheckSum("9:a1");
+        existing.setCheckpoints(Collections.singletonList(new FeedRangeCheckpoint("range1", "token1", 10)));
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.of(existing));
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "deleteEachItem", QUERY, Duration.ofHours(1));
+
+        assertThat(tracker.getResumeFrom()).isEmpty();
+        tracker.complete();
+        verify(repositoryMock).deleteIfExists("changeSetProgress-1");
+    }
+
+    @Test
+    void shouldNotAdvanceWhenWritesFailed() {
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.empty());
+
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, change, "updateEachItem", QUERY, Duration.ZERO);
+        tracker.setBeforePersist(() -> false);
+        tracker.accept(new FeedRangeCheckpoint("range1", "token1", 10));
+        tracker.complete();
+
+        verify(repositoryMock, never()).upsert(any(ChangeSetProgress.class));
+        verify(repositoryMock, never()).deleteIfExists(anyString());
+    }
+
+    @Test
+    void shouldDoNothingWithoutChange() {
+        final ChangeSetProgressTracker tracker
+                = new ChangeSetProgressTracker(repositoryMock, null, "updateEachItem", QUERY, Duration.ZERO);
+        tracker.accept(new FeedRangeCheckpoint("range1", "token1", 10));
+        tracker.complete();
+
+        assertThat(tracker.getResumeFrom()).isEmpty();
+        verify(repositoryMock, never()).find(anyString());
+        verify(repositoryMock, never()).upsert(any(ChangeSetProgress.class));
+    }
+}
@@ -57,5 +57,10 @@ class CountDocumentsInContainerStatementIT extends AbstractCosmosWithConnectionI
                 = new CreateItemStatement(CONTAINER_NAME_PERSON, "{\"id\" : \"2\", \"partition\" : \"default\", \"firstName\" : \"FirstName2\", \"age\" : \"99\"}");
         createItemStatementId2PartitionDefault.execute(database);
         assertThat(countDocumentsInContainerStatement.queryForLong(database)).isEqualTo(3L);
+
+        final CountDocumentsInContainerStatement countFilteredStatement
+                = new CountDocumentsInContainerStatement(CONTAINER_NAME_PERSON, " c.partition = \"default\" ");
+        assertThat(countFilteredStatement.getQuery()).isEqualTo("SELECT VALUE COUNT(1) FROM c WHERE c.partition = \"default\"");
+        assertThat(countFilteredStatement.queryForLong(database)).isEqualTo(2L);
     }
 }
@@ -0,0 +1,64 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import liquibase.ext.cosmosdb.AbstractCosmosWithConnectionIntegrationTest;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExportItemsStatementIT extends AbstractCosmosWithConnectionIntegrationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @SneakyThrows
+    void testExportAndImport() {
+        new CreateContainerStatement(CONTAINER_NAME_PERSON, PARTITION_KEY_PATH_LAST_NAME).execute(database);
+        for (int i = 1; i <= 5; i++) {
+            new CreateItemStatement(CONTAINER_NAME_PERSON,
+                    "{\"id\": \"" + i + "\", \"lastName\": \"LastName" + (i % 2) + "\"}").execute(database);
+        }
+
+        final Path file = tempDir.resolve("person.ndjson.gz");
+        new ExportItemsStatement(CONTAINER_NAME_PERSON,
+                "{\"query\": \"SELECT * FROM c WHERE c.id != @id\", \"parameters\": [{\"name\": \"@id\", \"value\": \"5\"}]}",
+                file.toString(), null, 2, 2).execute(database);
+
+        assertThat(file).exists();
+        assertThat(tempDir.resolve("person.ndjson.gz.part")).doesNotExist();
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            assertThat(new String(inputStream.readAllBytes()).split("\n")).hasSize(4);
+        }
+
+        new DeleteEachItemStatement(CONTAINER_NAME_PERSON, (String) null).execute(database);
+        assertThat(new CountDocumentsInContainerStatement(CONTAINER_NAME_PERSON).queryForLong(database)).isZero();
+
+        new ImportItemsStatement(CONTAINER_NAME_PERSON, file.toString()).execute(database);
+        assertThat(new CountDocumentsInContainerStatement(CONTAINER_NAME_PERSON).queryForLong(database)).isEqualTo(4L);
+    }
+}
@@ -0,0 +1,240 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedRange;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgress;
+import liquibase.ext.cosmosdb.changelog.ChangeSetProgressRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import static liquibase.ext.cosmosdb.statement.JsonUtils.OBJECT_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FeedRangeQueryExecutorTest {
+
+    private static final SqlQuerySpec QUERY = new SqlQuerySpec("SELECT c.id, c.lastName FROM c");
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    /**
+     * Pages returned per feed range, keyed by the serialized feed range.
+     */
+    private final Map<String, List<List<ObjectNode>>> pages = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(containerMock.getId()).thenReturn("queryContainer");
+        lenient().when(containerMock.queryItems(any(SqlQuerySpec.class), any(CosmosQueryRequestOptions.class), eq(ObjectNode.class)))
+                .thenAnswer(invocation -> pagedIterable(pages.getOrDefault(
+                        invocation.<CosmosQueryRequestOptions>getArgument(1).getFeedRange().toString(), Collections.emptyList())));
+    }
+
+    @Test
+    void shouldProcessEachFeedRangeAndReportCheckpoints() {
+        final FeedRange range1 = FeedRange.forLogicalPartition(new PartitionKey("a"));
+        final FeedRange range2 = FeedRange.forLogicalPartition(new PartitionKey("b"));
+        when(containerMock.getFeedRanges()).thenReturn(Arrays.asList(range1, range2));
+        pages.put(range1.toString(), Arrays.asList(items(2), items(1)));
+        pages.put(range2.toString(), Collections.singletonList(items(3)));
+
+        final LongAdder handled = new LongAdder();
+        final List<FeedRangeCheckpoint> checkpoints = new CopyOnWriteArrayList<>();
+        final long processed = new FeedRangeQueryExecutor(containerMock, 2, null)
+                .execute("deleteEachItem", QUERY, page -> handled.add(page.size()), checkpoints::add);
+
+        assertThat(processed).isEqualTo(6);
+        assertThat(handled.sum()).isEqualTo(6);
+        assertThat(checkpoints).hasSize(5);
+        assertThat(checkpoints.subList(0, 2)).containsExactly(
+                FeedRangeCheckpoint.notStarted(range1.toString()), FeedRangeCheckpoint.notStarted(range2.toString()));
+        assertThat(checkpoints).filteredOn(FeedRangeCheckpoint::isCompleted)
+                .extracting(FeedRangeCheckpoint::getFeedRange, FeedRangeCheckpoint::getProcessed)
+                .containsExactlyInAnyOrder(tuple(range1.toString(), 3L), tuple(range2.toString(), 3L));
+        assertThat(checkpoints).filteredOn(c -> c.isStarted() && !c.isCompleted())
+                .extracting(FeedRangeCheckpoint::getProcessed).containsExactly(2L);
+    }
+
+    @Test
+    void shouldResumeFeedRangesThatHadNotStartedWhenTheRunFailed() {
+        final FeedRange range1 = FeedRange.forLogicalPartition(new PartitionKey("a"));
+        final FeedRange range2 = FeedRange.forLogicalPartition(new PartitionKey("b"));
+        final FeedRange range3 = FeedRange.forLogicalPartition(new PartitionKey("c"));
+        when(containerMock.getFeedRanges()).thenReturn(Arrays.asList(range1, range2, range3));
+        pages.put(range1.toString(), Arrays.asList(items(2), items(1)));
+        pages.put(range2.toString(), Collections.singletonList(items(4)));
+        pages.put(range3.toString(), Collections.singletonList(items(5)));
+
+        final ChangeSetProgressRepository repositoryMock = mock(ChangeSetProgressRepository.class);
+        final ChangeSetProgress change = new ChangeSetProgress();
+        change.setId("changeSetProgress-1");
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.empty());
+
+        // Fail on the first page of the second feed range, the third one is never read
+        final ChangeSetProgressTracker failed
+                = new ChangeSetProgressTracker(repositoryMock, change, "updateEachItem", QUERY.getQueryText(), Duration.ZERO);
+        assertThatThrownBy(() -> new FeedRangeQueryExecutor(containerMock, 1, null).execute("updateEachItem", QUERY,
+                failed.getResumeFrom(), page -> {
+                    if (page.size() == 4) {
+                        throw new IllegalStateException("write failed");
+                    }
+                }, failed)).isInstanceOf(IllegalStateException.class);
+
+        final ArgumentCaptor<ChangeSetProgress> saved = ArgumentCaptor.forClass(ChangeSetProgress.class);
+        verify(repositoryMock, atLeastOnce()).upsert(saved.capture());
+        assertThat(saved.getValue().getCheckpoints()).containsExactlyInAnyOrder(
+                new FeedRangeCheckpoint(range1.toString(), null, 3),
+                FeedRangeCheckpoint.notStarted(range2.toString()),
+                FeedRangeCheckpoint.notStarted(range3.toString()));
+
+        when(repositoryMock.find("changeSetProgress-1")).thenReturn(Optional.of(saved.getValue()));
+        final ChangeSetProgressTracker resumed
+                = new ChangeSetProgressTracker(repositoryMock, change, "updateEachItem", QUERY.getQueryText(), Duration.ZERO);
+        final LongAdder handled = new LongAdder();
+        final long processed = new FeedRangeQueryExecutor(containerMock, 1, null).execute("updateEachItem", QUERY,
+                resumed.getResumeFrom(), page -> handled.add(page.size()), resumed);
+        resumed.complete();
+
+        assertThat(processed).isEqualTo(9);
+        assertThat(handled.sum()).isEqualTo(9);
+        verify(containerMock, times(1)).getFeedRanges();
+        verify(repositoryMock).deleteIfExists("changeSetProgress-1");
+    }
+
+    @Test
+    void shouldResumeFromCheckpoints() {
+        final FeedRange done = FeedRange.forLogicalPartition(new PartitionKey("a"));
+        final FeedRange started = FeedRange.forLogicalPartition(new PartitionKey("b"));
+        pages.put(started.toString(), Collections.singletonList(items(1)));
+
+        final List<FeedRangeCheckpoint> checkpoints = new CopyOnWriteArrayList<>();
+        final long processed = new FeedRangeQueryExecutor(containerMock, 2, null).execute("updateEachItem", QUERY,
+                Arrays.asList(new FeedRangeCheckpoint(done.toString(), null, 5),
+                        new FeedRangeCheckpoint(started.toString(), "token0", 2)),
+                page -> {
+                }, checkpoints::add);
+
+        assertThat(processed).isEqualTo(1);
+        assertThat(checkpoints).containsExactly(new FeedRangeCheckpoint(started.toString(), null, 3));
+        verify(containerMock, never()).getFeedRanges();
+    }
+
+    @Test
+    void shouldNotSplitQueriesOverTheWholeResult() {
+        pages.put(FeedRange.forFullRange().toString(), Collections.singletonList(items(1)));
+
+        final long processed = new FeedRangeQueryExecutor(containerMock, 4, null)
+                .execute("updateEachItem", new SqlQuerySpec("SELECT TOP 1 * FROM c"), page -> {
+                });
+
+        assertThat(processed).isEqualTo(1);
+        verify(containerMock, never()).getFeedRanges();
+    }
+
+    @Test
+    void shouldPropagateHandlerFailures() {
+        final FeedRange range = FeedRange.forLogicalPartition(new PartitionKey("a"));
+        when(containerMock.getFeedRanges()).thenReturn(Collections.singletonList(range));
+        pages.put(range.toString(), Collections.singletonList(items(1)));
+
+        final FeedRangeQueryExecutor executor = new FeedRangeQueryExecutor(containerMock, 2, null);
+
+        assertThatThrownBy(() -> executor.execute("updateEachItem", QUERY, page -> {
+            throw new IllegalStateException("handler failed");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("handler failed");
+    }
+
+    @Test
+    void isSplittable() {
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT * FROM c WHERE c.topic = 'a'"))).isTrue();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT DISTINCT c.lastName FROM c"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT * FROM c OFFSET 1 LIMIT 2"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("select c.a from c group by c.a"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT * FROM c ORDER BY c.age"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT COUNT(1) FROM c"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT VALUE max (c.age) FROM c"))).isFalse();
+        assertThat(FeedRangeQueryExecutor.isSplittable(new SqlQuerySpec("SELECT c.maxAge, c.sum FROM c"))).isTrue();
+    }
+
+    @Test
+    void shouldRejectNonPositiveParallelism() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FeedRangeQueryExecutor(containerMock, 0, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new FeedRangeQueryExecutor(containerMock, 1, 0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CosmosPagedIterable<ObjectNode> pagedIterable(final List<List<ObjectNode>> results) {
+        final List<FeedResponse<ObjectNode>> responses = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            final FeedResponse<ObjectNode> response = mock(FeedResponse.class);
+            lenient().when(response.getResults()).thenReturn(results.get(i));
+            lenient().when(response.getContinuationToken()).thenReturn(i < results.size() - 1 ? "token" + i : null);
+            responses.add(response);
+        }
+        final CosmosPagedIterable<ObjectNode> iterable = mock(CosmosPagedIterable.class);
+        lenient().when(iterable.iterableByPage()).thenReturn(responses);
+        lenient().when(iterable.iterableByPage(anyString())).thenReturn(responses);
+        return iterable;
+    }
+
+    private static List<ObjectNode> items(final int count) {
+        final List<ObjectNode> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(OBJECT_MAPPER.createObjectNode().put("id", String.valueOf(i)));
+        }
+        return items;
+    }
+}
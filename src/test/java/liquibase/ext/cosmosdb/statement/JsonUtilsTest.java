@@ -21,20 +21,38 @@ package liquibase.ext.cosmosdb.statement;
  */
 
 import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.CosmosPatchOperations;
 import com.azure.cosmos.models.PartitionKind;
 import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.models.ThroughputProperties;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static liquibase.ext.cosmosdb.statement.JsonUtils.DEFAULT_PARTITION_KEY_PATH;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.mergeDocuments;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.orEmptyDocument;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.streamItems;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.toContainerProperties;
+import static liquibase.ext.cosmosdb.statement.JsonUtils.toPatchOperations;
 import static liquibase.ext.cosmosdb.statement.JsonUtils.toThroughputProperties;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 class JsonUtilsTest {
 
@@ -294,4 +312,93 @@ class JsonUtilsTest {
 
         assertThatExceptionOfType(NullPointerException.class).isThrownBy(() -> toThroughputProperties(" {\"maxThroughput\": 800}").getManualThroughput());
     }
+
+    @Test
+    void testToPatchOperations() {
+        try (MockedStatic<CosmosPatchOperations> create = mockStatic(CosmosPatchOperations.class)) {
+            final CosmosPatchOperations fromObject = mock(CosmosPatchOperations.class);
+            create.when(CosmosPatchOperations::create).thenReturn(fromObject);
+
+            assertThat(toPatchOperations("{\"id\": \"1\", \"firstName\": \"Patched\", \"a/b\": 1, \"address\": {\"city\": \"Seattle\"}}"))
+                    .isSameAs(fromObject);
+            verify(fromObject).set("/firstName", "Patched");
+            verify(fromObject).set("/a~1b", 1);
+            verify(fromObject).set("/address", Collections.singletonMap("city", "Seattle"));
+            verifyNoMoreInteractions(fromObject);
+
+            final CosmosPatchOperations fromArray = mock(CosmosPatchOperations.class);
+            create.when(CosmosPatchOperations::create).thenReturn(fromArray);
+
+            toPatchOperations("[" +
+                    "{\"op\": \"add\", \"path\": \"/tags/-\", \"value\": \"new\"}," +
+                    "{\"op\": \"set\", \"path\": \"/name\", \"value\": \"name\"}," +
+                    "{\"op\": \"replace\", \"path\": \"/age\", \"value\": 10}," +
+                    "{\"op\": \"remove\", \"path\": \"/obsolete\"}," +
+                    "{\"op\": \"increment\", \"path\": \"/version\", \"value\": 1}," +
+                    "{\"op\": \"increment\", \"path\": \"/score\", \"value\": 0.5}" +
+                    "]");
+            verify(fromArray).add("/tags/-", "new");
+            verify(fromArray).set("/name", "name");
+            verify(fromArray).replace("/age", 10);
+            verify(fromArray).remove("/obsolete");
+            verify(fromArray).increment("/version", 1L);
+            verify(fromArray).increment("/score", 0.5);
+            verifyNoMoreInteractions(fromArray);
+        }
+    }
+
+    @Test
+    void testToPatchOperationsRejectsInvalidDocuments() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> toPatchOperations(null))
+                .withMessageContaining("no operations");
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> toPatchOperations("{\"id\": \"1\"}"))
+                .withMessageContaining("no operations");
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> toPatchOperations("1"))
+                .withMessageContaining("object or an array");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> toPatchOperations("[{\"op\": \"move\", \"path\": \"/a\"}]"))
+                .withMessageContaining("Unsupported patch operation 'move'");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> toPatchOperations("[{\"op\": \"increment\", \"path\": \"/a\", \"value\": \"x\"}]"))
+                .withMessageContaining("numeric");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> toPatchOperations("[{\"op\": \"set\", \"value\": 1}]"))
+                .withMessageContaining("no path");
+    }
+
+    @Test
+    void testToPatchOperationsEnforcesOperationLimit() {
+        final StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i <= JsonUtils.MAX_PATCH_OPERATIONS; i++) {
+            json.append(i == 0 ? "" : ",").append("\"field").append(i).append("\": ").append(i);
+        }
+        json.append("}");
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> toPatchOperations(json.toString()))
+                .withMessageContaining("11 operations");
+
+        final String operations = IntStream.rangeClosed(0, JsonUtils.MAX_PATCH_OPERATIONS)
+                .mapToObj(i -> "{\"op\": \"remove\", \"path\": \"/field" + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> toPatchOperations(operations))
+                .withMessageContaining("11 operations");
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamItemsFromNdjson() {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("liquibase/ext/import-items.test.ndjson");
+             Stream<ObjectNode> items = streamItems(inputStream)) {
+            final List<String> ids = items.map(item -> item.get("id").asText()).collect(Collectors.toList());
+            assertThat(ids).containsExactly("1", "2", "3");
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void testStreamItemsFromArray() {
+        final byte[] json = "[{\"id\": \"1\"}, {\"id\": \"2\", \"nested\": {\"a\": [1, 2]}}]".getBytes(StandardCharsets.UTF_8);
+        try (Stream<ObjectNode> items = streamItems(new ByteArrayInputStream(json))) {
+            assertThat(items.map(item -> item.get("id").asText())).containsExactly("1", "2");
+        }
+    }
 }
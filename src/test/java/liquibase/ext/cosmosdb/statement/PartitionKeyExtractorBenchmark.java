@@ -0,0 +1,93 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * Compares the per item cost of the partition key extraction used by the each-item statements.
+ * <p>
+ * Not run by the test suite, start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=liquibase.ext.cosmosdb.statement.PartitionKeyExtractorBenchmark}
+ * and compare the {@code gc.alloc.rate.norm} figures reported by the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionKeyExtractorBenchmark {
+
+    @Param({"/tenantId", "/address/location/city"})
+    public String path;
+
+    private ObjectNode item;
+    private PartitionKeyExtractor extractor;
+
+    @Setup
+    public void setUp() {
+        item = new Document("{\"id\": \"1\", \"tenantId\": \"t1\", \"name\": \"name\", "
+                + "\"address\": {\"location\": {\"city\": \"Seattle\", \"zip\": \"98101\"}}}").getPropertyBag();
+        extractor = PartitionKeyExtractor.of(path);
+    }
+
+    /**
+     * The extraction as done before the extractor was introduced: wrapping and splitting the path for every item.
+     */
+    @Benchmark
+    public PartitionKey splitPathPerItem() {
+        final Document document = new Document(item);
+        return ofNullable(document.getObjectByPath(Arrays.asList(path.replaceFirst("/", "").split("/"))))
+                .map(PartitionKey::new).orElse(PartitionKey.NONE);
+    }
+
+    @Benchmark
+    public PartitionKey precompiledExtractor() {
+        return extractor.extract(item);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PartitionKeyExtractorBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
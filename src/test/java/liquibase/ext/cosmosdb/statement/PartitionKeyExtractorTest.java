@@ -0,0 +1,94 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.implementation.Document;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.PartitionKeyBuilder;
+import com.azure.cosmos.models.PartitionKeyDefinition;
+import com.azure.cosmos.models.PartitionKind;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static liquibase.ext.cosmosdb.statement.JsonUtils.DEFAULT_PARTITION_KEY_PATH;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PartitionKeyExtractorTest {
+
+    private static final Document DOCUMENT = new Document(
+            "{\"id\": \"1\", \"tenantId\": \"t1\", \"user\": {\"id\": \"u1\", \"age\": 42}}");
+
+    @Test
+    void testSinglePath() {
+        final PartitionKeyExtractor extractor = PartitionKeyExtractor.of("/tenantId");
+        assertThat(extractor.isHierarchical()).isFalse();
+        assertThat(extractor.extract(DOCUMENT)).isEqualTo(new PartitionKey("t1"));
+    }
+
+    @Test
+    void testNestedPath() {
+        assertThat(PartitionKeyExtractor.of("/user/id").extract(DOCUMENT)).isEqualTo(new PartitionKey("u1"));
+    }
+
+    @Test
+    void testMissingSinglePath() {
+        assertThat(PartitionKeyExtractor.of("/missing").extract(DOCUMENT)).isEqualTo(PartitionKey.NONE);
+        assertThat(PartitionKeyExtractor.of(new PartitionKeyDefinition()).getPaths()).containsExactly(DEFAULT_PARTITION_KEY_PATH);
+    }
+
+    @Test
+    void testHierarchicalPaths() {
+        final PartitionKeyDefinition definition = new PartitionKeyDefinition();
+        definition.setKind(PartitionKind.MULTI_HASH);
+        definition.setPaths(Arrays.asList("/tenantId", "/user/id", "/user/age"));
+
+        final PartitionKeyExtractor extractor = PartitionKeyExtractor.of(definition);
+
+        assertThat(extractor.isHierarchical()).isTrue();
+        assertThat(extractor.extract(DOCUMENT))
+                .isEqualTo(new PartitionKeyBuilder().add("t1").add("u1").add(42.0).build());
+    }
+
+    @Test
+    void testHierarchicalMissingAndNullComponents() {
+        final Document document = new Document("{\"id\": \"1\", \"tenantId\": null, \"userId\": \"u1\"}");
+
+        assertThat(PartitionKeyExtractor.of("/tenantId", "/userId").extract(document.getPropertyBag()))
+                .isEqualTo(new PartitionKeyBuilder().addNullValue().add("u1").build());
+        assertThat(PartitionKeyExtractor.of("/tenantId").extract(document)).isEqualTo(PartitionKey.NONE);
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> PartitionKeyExtractor.of("/tenantId", "/sessionId").extract(document))
+                .withMessage("Item 1 has no value for the partition key path /sessionId of [/tenantId, /sessionId]");
+    }
+
+    @Test
+    void testNumericAndBooleanKeys() {
+        final Document document = new Document("{\"id\": \"1\", \"number\": 7, \"flag\": true}");
+
+        assertThat(PartitionKeyExtractor.of("/number").extract(document)).isEqualTo(new PartitionKey(7));
+        assertThat(PartitionKeyExtractor.of("/flag").extract(document)).isEqualTo(new PartitionKey(true));
+    }
+
+    @Test
+    void testUnsupportedKeyValue() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PartitionKeyExtractor.of("/user").extract(DOCUMENT));
+    }
+}
@@ -0,0 +1,143 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestChargeRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldNotWaitWithinBudget() {
+        final FakeClockLimiter limiter = new FakeClockLimiter(100);
+
+        limiter.acquire();
+        limiter.record(60);
+        limiter.acquire();
+        limiter.record(40);
+        limiter.acquire();
+
+        assertThat(limiter.sleeps).isEmpty();
+    }
+
+    @Test
+    void shouldWaitUntilOverdraftIsPaidOff() {
+        final FakeClockLimiter limiter = new FakeClockLimiter(100);
+
+        limiter.acquire();
+        limiter.record(150);
+        limiter.acquire();
+
+        assertThat(limiter.sleeps).containsExactly(SECOND / 2);
+        assertThat(limiter.time.get()).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    void shouldSlowDownWhenThrottledAndRecover() {
+        final FakeClockLimiter limiter = new FakeClockLimiter(100);
+
+        limiter.onThrottled(Duration.ofMillis(200));
+        assertThat(limiter.getRate()).isEqualTo(50);
+        limiter.onThrottled(Duration.ZERO);
+        limiter.onThrottled(Duration.ZERO);
+        limiter.onThrottled(Duration.ZERO);
+        assertThat(limiter.getRate()).isEqualTo(100 * RequestChargeRateLimiter.MIN_RATE_FRACTION);
+
+        limiter.acquire();
+        assertThat(limiter.sleeps).containsExactly(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertThat(limiter.getRate()).isLessThan(100);
+
+        limiter.time.addAndGet(20 * SECOND);
+        limiter.record(0);
+        assertThat(limiter.getRate()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRecordChargeAndThrottlingOfFailedCalls() {
+        final FakeClockLimiter limiter = new FakeClockLimiter(100);
+        final CosmosException throttled = mock(CosmosException.class);
+        when(throttled.getStatusCode()).thenReturn(429);
+        when(throttled.getRequestCharge()).thenReturn(1.0);
+        when(throttled.getRetryAfterDuration()).thenReturn(Duration.ofMillis(10));
+
+        assertThat(limiter.call(() -> "ok", response -> 10)).isEqualTo("ok");
+        assertThatThrownBy(() -> limiter.call(() -> {
+            throw throttled;
+        }, response -> 0)).isSameAs(throttled);
+
+        assertThat(limiter.getRate()).isEqualTo(50);
+    }
+
+    @Test
+    void shouldNeverWaitWhenUnlimited() {
+        final RequestChargeRateLimiter limiter = RequestChargeRateLimiter.UNLIMITED;
+
+        limiter.record(1_000_000);
+        limiter.onThrottled(Duration.ofHours(1));
+        limiter.acquire();
+
+        assertThat(limiter.isUnlimited()).isTrue();
+        assertThat(limiter).hasToString("unlimited");
+    }
+
+    @Test
+    void shouldRejectNonPositiveBudget() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new RequestChargeRateLimiter(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> new RequestChargeRateLimiter(Double.NaN));
+    }
+
+    /**
+     * Advances a fake clock instead of sleeping.
+     */
+    private static class FakeClockLimiter extends RequestChargeRateLimiter {
+
+        private final List<Long> sleeps = new ArrayList<>();
+        private final AtomicLong time;
+
+        FakeClockLimiter(final double requestUnitsPerSecond) {
+            this(requestUnitsPerSecond, new AtomicLong());
+        }
+
+        private FakeClockLimiter(final double requestUnitsPerSecond, final AtomicLong time) {
+            super(requestUnitsPerSecond, time::get);
+            this.time = time;
+        }
+
+        @Override
+        protected void sleepNanos(final long nanos) {
+            sleeps.add(nanos);
+            time.addAndGet(nanos);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package liquibase.ext.cosmosdb.statement;
+
+/*-
+ * #%L
+ * Liquibase CosmosDB Extension
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosDatabase;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.CosmosPatchItemRequestOptions;
+import com.azure.cosmos.models.CosmosPatchOperations;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedRange;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.util.CosmosPagedIterable;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import liquibase.ext.cosmosdb.database.CosmosContainerMetadataCache;
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static liquibase.ext.cosmosdb.statement.JsonUtils.OBJECT_MAPPER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UpdateEachItemStatementTest {
+
+    @Mock
+    private CosmosLiquibaseDatabase databaseMock;
+
+    @Mock
+    private CosmosDatabase cosmosDatabaseMock;
+
+    @Mock
+    private CosmosContainer containerMock;
+
+    @Mock
+    private CosmosContainerMetadataCache metadataCacheMock;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPatchEachItemWithoutReplacingIt() {
+        final UpdateEachItemStatement statement = new UpdateEachItemStatement("person",
+                "{\"query\": \"SELECT * FROM c WHERE c.lastName = 'Smith'\"}",
+                "[{\"op\": \"increment\", \"path\": \"/age\", \"value\": 1}]", false, null, true, 1);
+        assertThat(statement.getDocument()).isNull();
+        assertThat(statement.getPatchOperations()).isNotNull();
+
+        when(databaseMock.getCosmosDatabase()).thenReturn(cosmosDatabaseMock);
+        when(cosmosDatabaseMock.getContainer("person")).thenReturn(containerMock);
+        when(databaseMock.getContainerMetadataCache()).thenReturn(metadataCacheMock);
+        when(metadataCacheMock.getPartitionKeyExtractor(containerMock)).thenReturn(PartitionKeyExtractor.of("/lastName"));
+        when(databaseMock.getRateLimiter(containerMock)).thenReturn(RequestChargeRateLimiter.UNLIMITED);
+        when(containerMock.getFeedRanges()).thenReturn(Collections.singletonList(FeedRange.forFullRange()));
+
+        final FeedResponse<ObjectNode> page = mock(FeedResponse.class);
+        when(page.getResults()).thenReturn(Arrays.asList(
+                OBJECT_MAPPER.createObjectNode().put("id", "1").put("lastName", "Smith"),
+                OBJECT_MAPPER.createObjectNode().put("id", "2").put("lastName", "Smith")));
+        final CosmosPagedIterable<ObjectNode> items = mock(CosmosPagedIterable.class);
+        when(items.iterableByPage()).thenReturn(Collections.singletonList(page));
+        when(containerMock.queryItems(any(SqlQuerySpec.class), any(CosmosQueryRequestOptions.class), eq(ObjectNode.class)))
+                .thenReturn(items);
+        final CosmosItemResponse<ObjectNode> response = mock(CosmosItemResponse.class);
+        when(containerMock.patchItem(anyString(), any(PartitionKey.class), any(CosmosPatchOperations.class),
+                any(CosmosPatchItemRequestOptions.class), eq(ObjectNode.class))).thenReturn(response);
+
+        statement.execute(databaseMock);
+
+        final ArgumentCaptor<CosmosPatchItemRequestOptions> options = ArgumentCaptor.forClass(CosmosPatchItemRequestOptions.class);
+        verify(containerMock).patchItem(eq("1"), eq(new PartitionKey("Smith")), eq(statement.getPatchOperations()),
+                options.capture(), eq(ObjectNode.class));
+        verify(containerMock).patchItem(eq("2"), eq(new PartitionKey("Smith")), eq(statement.getPatchOperations()),
+                any(CosmosPatchItemRequestOptions.class), eq(ObjectNode.class));
+        assertThat(options.getValue().isContentResponseOnWriteEnabled()).isFalse();
+        verify(containerMock, never()).upsertItem(any(), any(PartitionKey.class), any());
+    }
+}
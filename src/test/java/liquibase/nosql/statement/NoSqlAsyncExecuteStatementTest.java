@@ -0,0 +1,55 @@
+package liquibase.nosql.statement;
+
+import liquibase.ext.cosmosdb.database.CosmosLiquibaseDatabase;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class NoSqlAsyncExecuteStatementTest {
+
+    @Test
+    void shouldBoundRequestsInFlight() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger pulled = new AtomicInteger();
+        final NoSqlAsyncExecuteStatement<CosmosLiquibaseDatabase> statement = database -> Flux.range(0, 50)
+                .doOnNext(i -> pulled.incrementAndGet())
+                .map(i -> Mono.delay(Duration.ofMillis(5))
+                        .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                        .doOnSuccess(d -> {
+                            // Upstream is only pulled as requests complete
+                            assertThat(pulled.get()).isLessThanOrEqualTo(completed.get() + 4 + 1);
+                            inFlight.decrementAndGet();
+                            completed.incrementAndGet();
+                        }));
+
+        statement.execute(null, 4);
+
+        assertThat(completed.get()).isEqualTo(50);
+        assertThat(maxInFlight.get()).isBetween(2, 4);
+    }
+
+    @Test
+    void shouldPropagateFailures() {
+        final NoSqlAsyncExecuteStatement<CosmosLiquibaseDatabase> statement = database -> Flux.<Publisher<?>>just(
+                Mono.empty(), Mono.error(new IllegalStateException("request failed")));
+
+        assertThatIllegalStateException().isThrownBy(() -> statement.execute(null, 2)).withMessage("request failed");
+    }
+
+    @Test
+    void shouldRejectNonPositiveConcurrency() {
+        final NoSqlAsyncExecuteStatement<CosmosLiquibaseDatabase> statement = database -> Flux.empty();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> statement.execute(null, 0));
+    }
+}